@@ -0,0 +1,122 @@
+package rebelsrescue.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rebelsrescue.fleet.Fleet;
+import rebelsrescue.fleet.FleetAssembler;
+import rebelsrescue.fleet.FleetCursor;
+import rebelsrescue.fleet.FleetNotFoundException;
+import rebelsrescue.fleet.FleetPage;
+import rebelsrescue.fleet.FleetQuery;
+import rebelsrescue.fleet.FleetSelectionStrategy;
+import rebelsrescue.fleet.OptimalFleetSelection;
+import rebelsrescue.fleet.PassengerCount;
+import rebelsrescue.fleet.RescueEligibleStarShips;
+import rebelsrescue.fleet.SmallestFirstSelection;
+import rebelsrescue.fleet.StarShip;
+import rebelsrescue.fleet.spi.Fleets;
+import rebelsrescue.fleet.spi.stubs.StarShipInventoryStub;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static rebelsrescue.fleet.OptimalFleetSelection.Objective.FEWEST_STARSHIPS;
+import static rebelsrescue.fleet.OptimalFleetSelection.Objective.LEAST_OVERCAPACITY;
+
+/**
+ * Assembly of a fleet out of an inventory indexed beforehand, as it is once the inventory has been loaded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FleetAssemblyBenchmark {
+
+    private static final int MAX_PASSENGERS = 1_000_000;
+
+    @Param({"10", "1000", "100000", "1000000"})
+    private int inventorySize;
+
+    @Param({"smallest-first", "fewest-starships", "least-overcapacity"})
+    private String selectionStrategy;
+
+    /**
+     * Share of the passenger capacity of the inventory requested, within the largest passenger count allowed.
+     */
+    @Param({"0.001", "0.1"})
+    private double demand;
+
+    private FleetAssembler fleetAssembler;
+    private FleetSelectionStrategy strategy;
+    private RescueEligibleStarShips eligibleStarShips;
+    private PassengerCount passengerCount;
+
+    @Setup
+    public void setUp() {
+        List<StarShip> inventory = SyntheticInventory.of(inventorySize);
+        strategy = switch (selectionStrategy) {
+            case "smallest-first" -> new SmallestFirstSelection();
+            case "fewest-starships" -> new OptimalFleetSelection(FEWEST_STARSHIPS, Duration.ofMillis(50));
+            case "least-overcapacity" -> new OptimalFleetSelection(LEAST_OVERCAPACITY, Duration.ofMillis(50));
+            default -> throw new IllegalArgumentException("Unknown fleet selection strategy: " + selectionStrategy);
+        };
+        eligibleStarShips = RescueEligibleStarShips.of(inventory);
+        passengerCount = new PassengerCount((int) Math.max(1, Math.min(MAX_PASSENGERS, eligibleStarShips.totalPassengerCapacity() * demand)));
+        fleetAssembler = new FleetAssembler(new StarShipInventoryStub(inventory), new DiscardingFleets(), event -> {
+        }, strategy);
+    }
+
+    @Benchmark
+    public List<StarShip> select() {
+        return strategy.select(eligibleStarShips, passengerCount);
+    }
+
+    @Benchmark
+    public Fleet assembleFleet() {
+        return fleetAssembler.forPassengers(passengerCount.value());
+    }
+
+    /**
+     * Keeps nothing, so that the benchmark does not measure the growth of a repository.
+     */
+    private static final class DiscardingFleets implements Fleets {
+        @Override
+        public Fleet getById(UUID id) {
+            throw new FleetNotFoundException(id.toString());
+        }
+
+        @Override
+        public Optional<Fleet> findById(UUID id) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Fleet save(Fleet fleet) {
+            return fleet;
+        }
+
+        @Override
+        public boolean exists(UUID id) {
+            return false;
+        }
+
+        @Override
+        public FleetPage find(FleetQuery query, FleetCursor after, int limit) {
+            return FleetPage.last(List.of());
+        }
+    }
+}
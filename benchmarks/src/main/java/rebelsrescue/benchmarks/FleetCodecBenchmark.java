@@ -0,0 +1,75 @@
+package rebelsrescue.benchmarks;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rebelsrescue.fleet.CargoCapacity;
+import rebelsrescue.fleet.Fleet;
+import rebelsrescue.persistence.codec.FleetBinaryCodec;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding of a fleet by the binary codec of the fleets log, against its encoding in JSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FleetCodecBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int fleetSize;
+
+    private final FleetBinaryCodec codec = new FleetBinaryCodec();
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+            .addMixIn(CargoCapacity.class, CargoCapacityAsJson.class);
+    private Fleet fleet;
+    private ByteBuffer encodedFleet;
+
+    @Setup
+    public void setUp() {
+        fleet = new Fleet(SyntheticInventory.of(fleetSize));
+        encodedFleet = ByteBuffer.allocate(codec.maxEncodedSize(fleet));
+        codec.writeFleet(fleet, encodedFleet);
+        encodedFleet.flip();
+    }
+
+    @Benchmark
+    public ByteBuffer binaryEncoding() {
+        ByteBuffer buffer = ByteBuffer.allocate(codec.maxEncodedSize(fleet));
+        codec.writeFleet(fleet, buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public Fleet binaryDecoding() {
+        return codec.readFleet(encodedFleet.duplicate());
+    }
+
+    @Benchmark
+    public byte[] jsonEncoding() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(fleet);
+    }
+
+    private abstract static class CargoCapacityAsJson {
+        @JsonValue
+        abstract BigDecimal value();
+    }
+}
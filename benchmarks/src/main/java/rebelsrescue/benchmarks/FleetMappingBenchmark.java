@@ -0,0 +1,53 @@
+package rebelsrescue.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rebelsrescue.controllers.FleetResource;
+import rebelsrescue.fleet.Fleet;
+import rebelsrescue.fleet.StarShip;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction of an assembled fleet and its mapping to the resource returned by the API.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FleetMappingBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int fleetSize;
+
+    private List<StarShip> starShips;
+    private Fleet fleet;
+
+    @Setup
+    public void setUp() {
+        starShips = SyntheticInventory.of(fleetSize);
+        fleet = new Fleet(starShips);
+    }
+
+    @Benchmark
+    public Fleet newFleet() {
+        return new Fleet(starShips);
+    }
+
+    @Benchmark
+    public FleetResource toFleetResource() {
+        return new FleetResource(fleet);
+    }
+}
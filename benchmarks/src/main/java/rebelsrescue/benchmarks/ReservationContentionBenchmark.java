@@ -0,0 +1,133 @@
+package rebelsrescue.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import rebelsrescue.fleet.StarShip;
+import rebelsrescue.fleet.spi.StarShipReservations;
+import rebelsrescue.fleet.spi.stubs.InMemoryStarShipReservations;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fleets claiming then releasing random starships from more and more threads: the reservations table against the
+ * same table behind a single lock. The table should keep the throughput per thread as threads are added, as long
+ * as they do not outnumber the cores; the fewer the starships, the more the claims meet on the same ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReservationContentionBenchmark {
+
+    private static final int STARSHIPS_PER_FLEET = 3;
+
+    @Param({"100", "100000"})
+    private int starShipsCount;
+
+    @Param({"lock-free", "single-lock"})
+    private String table;
+
+    private StarShipReservations reservations;
+    private StarShip[] starShips;
+
+    @Setup
+    public void setUp() {
+        reservations = "lock-free".equals(table) ? new InMemoryStarShipReservations() : new SingleLockReservations();
+        starShips = SyntheticInventory.of(starShipsCount).toArray(StarShip[]::new);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean claimAndRelease1Thread() {
+        return claimAndRelease();
+    }
+
+    @Benchmark
+    @Threads(2)
+    public boolean claimAndRelease2Threads() {
+        return claimAndRelease();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean claimAndRelease4Threads() {
+        return claimAndRelease();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean claimAndRelease8Threads() {
+        return claimAndRelease();
+    }
+
+    private boolean claimAndRelease() {
+        var random = ThreadLocalRandom.current();
+        // a random UUID would go through the shared SecureRandom
+        var fleetId = new UUID(random.nextLong(), random.nextLong());
+        var fleet = new StarShip[STARSHIPS_PER_FLEET];
+        for (int starShip = 0; starShip < fleet.length; starShip++) {
+            fleet[starShip] = starShips[random.nextInt(starShips.length)];
+        }
+        if (!reservations.claim(fleetId, List.of(fleet))) {
+            return false;
+        }
+        reservations.release(fleetId);
+        return true;
+    }
+
+    /**
+     * The same table guarded by one lock, which every claim waits for.
+     */
+    private static final class SingleLockReservations implements StarShipReservations {
+        private final Map<String, UUID> starShips = new HashMap<>();
+        private final Map<UUID, List<StarShip>> fleets = new HashMap<>();
+
+        @Override
+        public synchronized boolean claim(UUID fleetId, List<StarShip> fleet) {
+            for (StarShip starShip : fleet) {
+                UUID holder = starShips.get(starShip.name());
+                if (holder != null && !holder.equals(fleetId)) {
+                    return false;
+                }
+            }
+            fleet.forEach(starShip -> starShips.put(starShip.name(), fleetId));
+            fleets.put(fleetId, fleet);
+            return true;
+        }
+
+        @Override
+        public synchronized boolean isReserved(String starShipName) {
+            return starShips.containsKey(starShipName);
+        }
+
+        @Override
+        public synchronized boolean isEmpty() {
+            return starShips.isEmpty();
+        }
+
+        @Override
+        public synchronized void release(UUID fleetId) {
+            List<StarShip> fleet = fleets.remove(fleetId);
+            if (fleet != null) {
+                fleet.forEach(starShip -> starShips.remove(starShip.name(), fleetId));
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package rebelsrescue.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rebelsrescue.fleet.RescueEligibleStarShips;
+import rebelsrescue.fleet.StarShip;
+import rebelsrescue.fleet.StarShipColumns;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static rebelsrescue.fleet.specifications.StarShipSpecifications.isSuitableForRescue;
+
+/**
+ * Cost of going through a whole inventory: filtering it with the specifications, indexing it and summing it up.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StarShipFilterBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    private int inventorySize;
+
+    /**
+     * {@code list} of starship records, or {@code columns} as cached by the inventory.
+     */
+    @Param({"list", "columns"})
+    private String layout;
+
+    private List<StarShip> inventory;
+
+    @Setup
+    public void setUp() {
+        List<StarShip> starShips = SyntheticInventory.of(inventorySize);
+        inventory = layout.equals("columns") ? StarShipColumns.of(starShips) : starShips;
+    }
+
+    @Benchmark
+    public List<StarShip> filterSuitableForRescue() {
+        return inventory.stream().filter(isSuitableForRescue()).toList();
+    }
+
+    @Benchmark
+    public RescueEligibleStarShips indexEligibleStarShips() {
+        return RescueEligibleStarShips.of(inventory);
+    }
+
+    @Benchmark
+    public int totalPassengerCapacity() {
+        return StarShip.totalPassengerCapacity(inventory);
+    }
+}
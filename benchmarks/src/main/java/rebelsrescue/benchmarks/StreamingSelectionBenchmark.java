@@ -0,0 +1,67 @@
+package rebelsrescue.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rebelsrescue.fleet.PassengerCount;
+import rebelsrescue.fleet.RescueEligibleStarShips;
+import rebelsrescue.fleet.SmallestFirstSelection;
+import rebelsrescue.fleet.StarShip;
+import rebelsrescue.fleet.specifications.RescueRules;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Smallest-first selection for rules that are not indexed: indexing the starships following the rules then
+ * selecting out of the index, against selecting them while the inventory is streamed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StreamingSelectionBenchmark {
+
+    private static final int MAX_PASSENGERS = 1_000_000;
+
+    @Param({"1000", "100000", "1000000"})
+    private int inventorySize;
+
+    /**
+     * Share of the passenger capacity of the inventory requested, within the largest passenger count allowed.
+     */
+    @Param({"0.001", "0.1"})
+    private double demand;
+
+    private final SmallestFirstSelection selection = new SmallestFirstSelection();
+    private final RescueRules rules = RescueRules.DEFAULT.withPassengersCapacityBetween(10, 4_000);
+    private List<StarShip> inventory;
+    private PassengerCount passengerCount;
+
+    @Setup
+    public void setUp() {
+        inventory = SyntheticInventory.of(inventorySize);
+        long totalPassengerCapacity = RescueEligibleStarShips.of(inventory, rules).totalPassengerCapacity();
+        passengerCount = new PassengerCount((int) Math.max(1, Math.min(MAX_PASSENGERS, totalPassengerCapacity * demand)));
+    }
+
+    @Benchmark
+    public List<StarShip> indexThenSelect() {
+        return selection.select(RescueEligibleStarShips.of(inventory, rules), passengerCount);
+    }
+
+    @Benchmark
+    public List<StarShip> selectWhileStreaming() {
+        return selection.select(inventory.stream(), rules, passengerCount);
+    }
+}
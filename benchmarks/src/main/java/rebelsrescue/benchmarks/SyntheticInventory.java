@@ -0,0 +1,33 @@
+package rebelsrescue.benchmarks;
+
+import rebelsrescue.fleet.CargoCapacity;
+import rebelsrescue.fleet.StarShip;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Reproducible inventories of starships, about two thirds of them being eligible for a rescue mission.
+ */
+final class SyntheticInventory {
+
+    private static final String[] MODELS = {
+            "CR90 corvette", "EF76 Nebulon-B escort frigate", "Mon Calamari Star Cruisers", "Rebel transport",
+            "Millennium Falcon", "X-Wing", "Y-Wing", "Star Destroyer", "Executor", "Slave I"};
+
+    private SyntheticInventory() {
+    }
+
+    static List<StarShip> of(int size) {
+        Random random = new Random(size);
+        List<StarShip> starShips = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String name = MODELS[random.nextInt(MODELS.length)] + " " + i;
+            int passengersCapacity = random.nextInt(6) == 0 ? 0 : 1 + random.nextInt(5_000);
+            long cargoCapacity = random.nextInt(5) == 0 ? random.nextInt(100_000) : 100_000 + random.nextInt(10_000_000);
+            starShips.add(new StarShip(name, passengersCapacity, CargoCapacity.of(cargoCapacity)));
+        }
+        return List.copyOf(starShips);
+    }
+}
@@ -7,20 +7,60 @@ import java.math.BigDecimal;
 /**
  * Value Object representing cargo capacity.
  * Encapsulates validation and comparison logic.
+ * <p>
+ * Capacities that are whole numbers fitting in a long are kept as a long, so that comparing them does not
+ * involve {@link BigDecimal}; other ones keep their {@link BigDecimal}. Two capacities are equal when their
+ * values are equal as {@link BigDecimal}s, scale included.
  */
 @ValueObject
-public record CargoCapacity(BigDecimal value) {
-    public CargoCapacity {
+public final class CargoCapacity {
+
+    private static final BigDecimal LARGEST_UNITS = BigDecimal.valueOf(Long.MAX_VALUE);
+
+    private final long units;
+    private final BigDecimal decimal;
+
+    public CargoCapacity(BigDecimal value) {
         if (value == null) {
             throw new IllegalArgumentException("Cargo capacity cannot be null");
         }
-        if (value.compareTo(BigDecimal.ZERO) < 0) {
+        if (value.signum() < 0) {
             throw new IllegalArgumentException("Cargo capacity cannot be negative: " + value);
         }
+        if (value.scale() == 0 && value.compareTo(LARGEST_UNITS) <= 0) {
+            this.units = value.longValue();
+            this.decimal = null;
+        } else {
+            this.units = 0;
+            this.decimal = value;
+        }
+    }
+
+    private CargoCapacity(long units) {
+        this.units = units;
+        this.decimal = null;
+    }
+
+    public BigDecimal value() {
+        return decimal != null ? decimal : BigDecimal.valueOf(units);
     }
 
     public boolean isSufficientFor(CargoCapacity required) {
-        return value.compareTo(required.value) >= 0;
+        if (decimal == null && required.decimal == null) {
+            return units >= required.units;
+        }
+        return value().compareTo(required.value()) >= 0;
+    }
+
+    /**
+     * Whether the capacity is a whole number kept as a long, readable through {@link #units()}.
+     */
+    boolean isWhole() {
+        return decimal == null;
+    }
+
+    long units() {
+        return units;
     }
 
     public static CargoCapacity of(String value) {
@@ -28,7 +68,31 @@ public record CargoCapacity(BigDecimal value) {
     }
 
     public static CargoCapacity of(long value) {
-        return new CargoCapacity(BigDecimal.valueOf(value));
+        if (value < 0) {
+            throw new IllegalArgumentException("Cargo capacity cannot be negative: " + value);
+        }
+        return new CargoCapacity(value);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof CargoCapacity that)) {
+            return false;
+        }
+        // a whole long value is never equal to a value kept as BigDecimal, which has a scale or overflows
+        return decimal == null ? that.decimal == null && units == that.units : decimal.equals(that.decimal);
+    }
+
+    @Override
+    public int hashCode() {
+        return decimal == null ? Long.hashCode(units) : decimal.hashCode();
     }
-}
 
+    @Override
+    public String toString() {
+        return "CargoCapacity[value=" + (decimal == null ? Long.toString(units) : decimal.toString()) + "]";
+    }
+}
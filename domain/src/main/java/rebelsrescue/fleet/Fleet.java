@@ -2,6 +2,7 @@ package rebelsrescue.fleet;
 
 import ddd.AggregateRoot;
 
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
@@ -11,16 +12,23 @@ import java.util.UUID;
  * Encapsulates business rules and invariants about fleet composition.
  */
 @AggregateRoot
-public record Fleet(UUID id, List<StarShip> starships) {
+public record Fleet(UUID id, List<StarShip> starships, Instant createdAt) {
 
     public Fleet(List<StarShip> starships) {
         this(UUID.randomUUID(), starships);
     }
 
+    public Fleet(UUID id, List<StarShip> starships) {
+        this(id, starships, Instant.now());
+    }
+
     public Fleet {
         if (id == null) {
             throw new IllegalArgumentException("Fleet id cannot be null");
         }
+        if (createdAt == null) {
+            throw new IllegalArgumentException("Fleet creation time cannot be null");
+        }
         if (starships == null || starships.isEmpty()) {
             throw new IllegalArgumentException("Fleet must contain at least one starship");
         }
@@ -4,44 +4,82 @@ import ddd.DomainService;
 import rebelsrescue.fleet.api.AssembleAFleet;
 import rebelsrescue.fleet.events.DomainEventPublisher;
 import rebelsrescue.fleet.events.FleetAssembledEvent;
+import rebelsrescue.fleet.events.InventoryChangedEvent;
+import rebelsrescue.fleet.specifications.RescueRules;
 import rebelsrescue.fleet.spi.Fleets;
 import rebelsrescue.fleet.spi.StarShipInventory;
+import rebelsrescue.fleet.spi.StarShipReservations;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-
-import static java.util.Comparator.comparingInt;
-import static rebelsrescue.fleet.specifications.StarShipSpecifications.*;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Domain Service responsible for assembling rescue fleets.
  * Implements the business logic for selecting optimal starships.
+ * <p>
+ * With {@link StarShipReservations}, fleets are assembled out of the starships no other fleet holds, and claim the
+ * ones they select before being saved: when a concurrent fleet claimed one of them first, the starships are selected
+ * again out of the ones still available.
  */
 @DomainService
 public class FleetAssembler implements AssembleAFleet {
+    private static final int MAX_CLAIM_ATTEMPTS = 16;
+
     private final StarShipInventory starshipsInventory;
     private final Fleets fleets;
     private final DomainEventPublisher eventPublisher;
+    private final FleetSelectionStrategy selectionStrategy;
+    private final StarShipReservations reservations;
+    private final ReentrantLock reindexLock = new ReentrantLock();
+    private volatile IndexedInventory indexedInventory;
 
     public FleetAssembler(StarShipInventory starShipsInventory, Fleets fleets, DomainEventPublisher eventPublisher) {
+        this(starShipsInventory, fleets, eventPublisher, new SmallestFirstSelection());
+    }
+
+    public FleetAssembler(StarShipInventory starShipsInventory, Fleets fleets, DomainEventPublisher eventPublisher,
+                          FleetSelectionStrategy selectionStrategy) {
+        this(starShipsInventory, fleets, eventPublisher, selectionStrategy, StarShipReservations.NONE);
+    }
+
+    public FleetAssembler(StarShipInventory starShipsInventory, Fleets fleets, DomainEventPublisher eventPublisher,
+                          FleetSelectionStrategy selectionStrategy, StarShipReservations reservations) {
         this.starshipsInventory = starShipsInventory;
         this.fleets = fleets;
         this.eventPublisher = eventPublisher;
+        this.selectionStrategy = selectionStrategy;
+        this.reservations = reservations;
     }
 
     @Override
     public Fleet forPassengers(int numberOfPassengers) {
-        PassengerCount passengerCount = new PassengerCount(numberOfPassengers);
-
-        List<StarShip> suitableStarShips = getSuitableStarShips();
+        return forPassengers(numberOfPassengers, RescueRules.DEFAULT);
+    }
 
-        if (suitableStarShips.isEmpty()) {
-            throw new InsufficientStarShipsException(numberOfPassengers, 0);
+    @Override
+    public Fleet forPassengers(int numberOfPassengers, RescueRules rules) {
+        IndexedInventory current = getIndexedInventory();
+        Fleet fleet;
+        if (current.isIndexedFor(rules) || !(selectionStrategy instanceof StreamingFleetSelection streamingSelection)) {
+            RescueEligibleStarShips suitableStarShips = current.suitableStarShips(rules);
+            fleet = claimed(numberOfPassengers, () -> assemble(numberOfPassengers, available(suitableStarShips)));
+        } else {
+            fleet = claimed(numberOfPassengers,
+                    () -> assembleWhileStreaming(numberOfPassengers, current.inventory(), rules, streamingSelection));
+        }
+        Fleet savedFleet;
+        try {
+            savedFleet = fleets.save(fleet);
+        } catch (RuntimeException e) {
+            reservations.release(fleet.id());
+            throw e;
         }
-
-        List<StarShip> selectedStarShips = selectStarShips(passengerCount, suitableStarShips);
-        Fleet fleet = new Fleet(selectedStarShips);
-        Fleet savedFleet = fleets.save(fleet);
 
         // Publish domain event
         publishFleetAssembledEvent(savedFleet, numberOfPassengers);
@@ -49,43 +87,211 @@ public class FleetAssembler implements AssembleAFleet {
         return savedFleet;
     }
 
-    private List<StarShip> selectStarShips(PassengerCount passengerCount, List<StarShip> starShips) {
-        List<StarShip> rescueStarShips = new ArrayList<>();
-        int remainingPassengers = passengerCount.value();
+    @Override
+    public List<FleetAssemblyResult> forPassengers(List<Integer> numbersOfPassengers) {
+        return forPassengers(numbersOfPassengers, RescueRules.DEFAULT);
+    }
+
+    @Override
+    public List<FleetAssemblyResult> forPassengers(List<Integer> numbersOfPassengers, RescueRules rules) {
+        return forRequests(numbersOfPassengers.stream()
+                .map(numberOfPassengers -> new FleetRequest(numberOfPassengers, rules))
+                .toList());
+    }
+
+    @Override
+    public List<FleetAssemblyResult> forRequests(List<FleetRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        IndexedInventory current = getIndexedInventory();
+        // one-off rules are not kept in the snapshot: index them once for all the requests following them
+        Map<RescueRules, RescueEligibleStarShips> suitableStarShipsByRules = new HashMap<>();
+
+        List<FleetAssemblyResult> results = new ArrayList<>(requests.size());
+        List<Fleet> assembledFleets = new ArrayList<>(requests.size());
+        for (FleetRequest request : requests) {
+            Integer numberOfPassengers = request.numberOfPassengers();
+            try {
+                if (numberOfPassengers == null) {
+                    throw new IllegalArgumentException("Number of passengers is required");
+                }
+                RescueEligibleStarShips suitableStarShips =
+                        suitableStarShipsByRules.computeIfAbsent(request.rules(), current::suitableStarShips);
+                Fleet fleet = claimed(numberOfPassengers, () -> assemble(numberOfPassengers, available(suitableStarShips)));
+                assembledFleets.add(fleet);
+                results.add(FleetAssemblyResult.assembled(numberOfPassengers, fleet));
+            } catch (FleetDomainException | IllegalArgumentException e) {
+                results.add(FleetAssemblyResult.failed(numberOfPassengers, e));
+            }
+        }
+        if (assembledFleets.isEmpty()) {
+            return results;
+        }
+
+        List<Fleet> savedFleets;
+        try {
+            savedFleets = fleets.saveAll(assembledFleets);
+        } catch (RuntimeException e) {
+            assembledFleets.forEach(fleet -> reservations.release(fleet.id()));
+            throw e;
+        }
+        List<FleetAssembledEvent> events = new ArrayList<>(savedFleets.size());
+        for (int result = 0, saved = 0; result < results.size(); result++) {
+            FleetAssemblyResult assembly = results.get(result);
+            if (assembly.isAssembled()) {
+                Fleet savedFleet = savedFleets.get(saved++);
+                results.set(result, FleetAssemblyResult.assembled(assembly.requestedPassengers(), savedFleet));
+                events.add(fleetAssembledEvent(savedFleet, assembly.requestedPassengers()));
+            }
+        }
+        eventPublisher.publishAll(events);
 
-        // Sort by passenger capacity (smallest first) for optimal selection
-        List<StarShip> mutableStarShips = new ArrayList<>(starShips);
-        mutableStarShips.sort(comparingInt(StarShip::passengersCapacity));
+        return results;
+    }
 
-        for (StarShip starShip : mutableStarShips) {
-            if (remainingPassengers <= 0) {
-                break;
+    /**
+     * Assemble a fleet whose starships are claimed for it, assembling it again out of the starships still available
+     * as long as a concurrent fleet claimed one of them first: an attempt only fails while another fleet claims them.
+     */
+    private Fleet claimed(int numberOfPassengers, Supplier<Fleet> assembly) {
+        for (int attempt = 1; ; attempt++) {
+            Fleet fleet = assembly.get();
+            if (reservations.claim(fleet.id(), fleet.starships())) {
+                return fleet;
+            }
+            if (attempt == MAX_CLAIM_ATTEMPTS) {
+                throw new StarShipsReservedException(numberOfPassengers, attempt);
             }
-            rescueStarShips.add(starShip);
-            remainingPassengers -= starShip.passengersCapacity();
         }
+    }
+
+    private RescueEligibleStarShips available(RescueEligibleStarShips suitableStarShips) {
+        return reservations.isEmpty() ? suitableStarShips : suitableStarShips.excludingNamed(reservations::isReserved);
+    }
 
-        if (remainingPassengers > 0) {
-            int availableCapacity = StarShip.totalPassengerCapacity(mutableStarShips);
+    private Fleet assemble(int numberOfPassengers, RescueEligibleStarShips suitableStarShips) {
+        PassengerCount passengerCount = new PassengerCount(numberOfPassengers);
+
+        if (suitableStarShips.isEmpty()) {
+            throw new InsufficientStarShipsException(numberOfPassengers, 0);
+        }
+
+        return new Fleet(selectStarShips(passengerCount, suitableStarShips));
+    }
+
+    /**
+     * Assemble a fleet for rules that are not worth indexing, selecting the starships while the inventory is
+     * streamed instead of copying and sorting the ones following the rules.
+     */
+    private Fleet assembleWhileStreaming(int numberOfPassengers, List<StarShip> inventory, RescueRules rules,
+                                         StreamingFleetSelection streamingSelection) {
+        PassengerCount passengerCount = new PassengerCount(numberOfPassengers);
+        return new Fleet(streamingSelection.select(stream(inventory, rules), rules, passengerCount));
+    }
+
+    private Stream<StarShip> stream(List<StarShip> inventory, RescueRules rules) {
+        Stream<StarShip> starShips;
+        if (inventory instanceof StarShipColumns columns) {
+            // the capacities are filtered over whole columns, only the starships following the rules are materialized
+            starShips = rules.compiled().select(columns).stream().mapToObj(columns::get);
+        } else {
+            starShips = inventory.stream();
+        }
+        return reservations.isEmpty() ? starShips : starShips.filter(starShip -> !reservations.isReserved(starShip));
+    }
+
+    private List<StarShip> selectStarShips(PassengerCount passengerCount, RescueEligibleStarShips starShips) {
+        if (starShips.totalPassengerCapacity() < passengerCount.value()) {
+            int availableCapacity = (int) Math.min(starShips.totalPassengerCapacity(), Integer.MAX_VALUE);
             throw new InsufficientStarShipsException(passengerCount.value(), availableCapacity);
         }
 
-        return rescueStarShips;
+        return selectionStrategy.select(starShips, passengerCount);
     }
 
-    private List<StarShip> getSuitableStarShips() {
-        return starshipsInventory.starShips().stream()
-                .filter(isSuitableForRescue())
-                .toList();
+    /**
+     * The indexes are updated only when the inventory hands over a different snapshot of starships, and then
+     * only with the starships that changed since the previous snapshot, which is announced by an
+     * {@link InventoryChangedEvent}. Each distinct rules of a mission get their own index of the snapshot.
+     */
+    private IndexedInventory getIndexedInventory() {
+        List<StarShip> inventory = starshipsInventory.starShips();
+        IndexedInventory current = indexedInventory;
+        if (current == null || current.inventory() != inventory) {
+            current = reindex(inventory);
+        }
+        return current;
+    }
+
+    private IndexedInventory reindex(List<StarShip> inventory) {
+        // publishing blocks while the event buffer is full: with a lock, a virtual thread unmounts meanwhile
+        reindexLock.lock();
+        try {
+            IndexedInventory previous = indexedInventory;
+            if (previous == null) {
+                indexedInventory = new IndexedInventory(inventory);
+            } else if (previous.inventory() != inventory) {
+                InventoryDiff diff = InventoryDiff.between(previous.inventory(), inventory);
+                indexedInventory = previous.updatedWith(inventory, diff);
+                if (!diff.isEmpty()) {
+                    eventPublisher.publish(new InventoryChangedEvent(diff.added(), diff.removed(), diff.changed(), inventory.size()));
+                }
+            }
+            return indexedInventory;
+        } finally {
+            reindexLock.unlock();
+        }
     }
 
     private void publishFleetAssembledEvent(Fleet fleet, int requestedPassengers) {
-        FleetAssembledEvent event = new FleetAssembledEvent(
+        eventPublisher.publish(fleetAssembledEvent(fleet, requestedPassengers));
+    }
+
+    private static FleetAssembledEvent fleetAssembledEvent(Fleet fleet, int requestedPassengers) {
+        return new FleetAssembledEvent(
             fleet.id(),
             fleet.size(),
             fleet.totalPassengerCapacity(),
             requestedPassengers
         );
-        eventPublisher.publish(event);
+    }
+
+    private record IndexedInventory(List<StarShip> inventory, Map<RescueRules, RescueEligibleStarShips> indexes) {
+
+        private static final int MAX_INDEXED_RULES = 64;
+
+        IndexedInventory(List<StarShip> inventory) {
+            this(inventory, new ConcurrentHashMap<>());
+        }
+
+        RescueEligibleStarShips suitableStarShips(RescueRules rules) {
+            RescueEligibleStarShips index = indexes.get(rules);
+            if (index != null) {
+                return index;
+            }
+            if (isOneOff(rules)) {
+                // one-off rules are indexed without being kept, updating them with each snapshot would not pay off
+                return RescueEligibleStarShips.oneOff(inventory, rules);
+            }
+            return indexes.computeIfAbsent(rules, ignored -> RescueEligibleStarShips.of(inventory, rules));
+        }
+
+        /**
+         * Whether the starships following the rules are indexed, or will be as soon as they are asked for.
+         */
+        boolean isIndexedFor(RescueRules rules) {
+            return indexes.containsKey(rules) || !isOneOff(rules);
+        }
+
+        private boolean isOneOff(RescueRules rules) {
+            return indexes.size() >= MAX_INDEXED_RULES && !rules.equals(RescueRules.DEFAULT);
+        }
+
+        IndexedInventory updatedWith(List<StarShip> currentInventory, InventoryDiff diff) {
+            Map<RescueRules, RescueEligibleStarShips> updatedIndexes = new ConcurrentHashMap<>();
+            indexes.forEach((rules, index) -> updatedIndexes.put(rules, index.updatedWith(diff)));
+            return new IndexedInventory(currentInventory, updatedIndexes);
+        }
     }
 }
@@ -0,0 +1,34 @@
+package rebelsrescue.fleet;
+
+import ddd.ValueObject;
+
+import java.util.Optional;
+
+/**
+ * Value Object representing the outcome of one request of a batch of fleet assemblies:
+ * either the assembled fleet, or the reason why it could not be assembled.
+ */
+@ValueObject
+public record FleetAssemblyResult(Integer requestedPassengers, Fleet fleet, RuntimeException failure) {
+    public FleetAssemblyResult {
+        if ((fleet == null) == (failure == null)) {
+            throw new IllegalArgumentException("A fleet assembly either succeeds with a fleet or fails with a cause");
+        }
+    }
+
+    public static FleetAssemblyResult assembled(Integer requestedPassengers, Fleet fleet) {
+        return new FleetAssemblyResult(requestedPassengers, fleet, null);
+    }
+
+    public static FleetAssemblyResult failed(Integer requestedPassengers, RuntimeException failure) {
+        return new FleetAssemblyResult(requestedPassengers, null, failure);
+    }
+
+    public boolean isAssembled() {
+        return fleet != null;
+    }
+
+    public Optional<Fleet> assembledFleet() {
+        return Optional.ofNullable(fleet);
+    }
+}
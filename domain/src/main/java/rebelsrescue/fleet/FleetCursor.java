@@ -0,0 +1,74 @@
+package rebelsrescue.fleet;
+
+import ddd.ValueObject;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * Value Object locating a fleet in the order fleets are listed in: by creation time, then by id for the fleets
+ * created at the same time. Resuming a listing after a cursor never repeats a fleet.
+ * <p>
+ * A fleet is created when it is assembled, not when it is saved: a fleet saved while a listing goes on is only
+ * listed when it was created after the cursor the listing resumes from, it is missed otherwise.
+ */
+@ValueObject
+public record FleetCursor(Instant createdAt, UUID id) implements Comparable<FleetCursor> {
+
+    private static final Comparator<FleetCursor> ORDER =
+            Comparator.comparing(FleetCursor::createdAt).thenComparing(FleetCursor::id);
+    private static final int TOKEN_SIZE = Long.BYTES + Integer.BYTES + 2 * Long.BYTES;
+
+    public FleetCursor {
+        if (createdAt == null || id == null) {
+            throw new IllegalArgumentException("Fleet cursor needs a creation time and an id");
+        }
+    }
+
+    public static FleetCursor of(Fleet fleet) {
+        return new FleetCursor(fleet.createdAt(), fleet.id());
+    }
+
+    /**
+     * Opaque form of the cursor, safe in a URL.
+     */
+    public String asToken() {
+        ByteBuffer bytes = ByteBuffer.allocate(TOKEN_SIZE)
+                .putLong(createdAt.getEpochSecond())
+                .putInt(createdAt.getNano())
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.array());
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token is not the one of a cursor
+     */
+    public static FleetCursor fromToken(String token) {
+        byte[] decoded;
+        try {
+            decoded = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid fleet cursor: " + token, e);
+        }
+        if (decoded.length != TOKEN_SIZE) {
+            throw new IllegalArgumentException("Invalid fleet cursor: " + token);
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(decoded);
+        long seconds = bytes.getLong();
+        int nanos = bytes.getInt();
+        if (seconds < Instant.MIN.getEpochSecond() || seconds > Instant.MAX.getEpochSecond()
+                || nanos < 0 || nanos > 999_999_999) {
+            throw new IllegalArgumentException("Invalid fleet cursor: " + token);
+        }
+        return new FleetCursor(Instant.ofEpochSecond(seconds, nanos), new UUID(bytes.getLong(), bytes.getLong()));
+    }
+
+    @Override
+    public int compareTo(FleetCursor other) {
+        return ORDER.compare(this, other);
+    }
+}
@@ -0,0 +1,30 @@
+package rebelsrescue.fleet;
+
+import ddd.ValueObject;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Value Object holding a page of the fleets matching a {@link FleetQuery}, oldest first, along with the cursor
+ * the next page starts after when there are more fleets.
+ */
+@ValueObject
+public record FleetPage(List<Fleet> fleets, FleetCursor next) {
+
+    public FleetPage {
+        fleets = List.copyOf(fleets);
+    }
+
+    public static FleetPage last(List<Fleet> fleets) {
+        return new FleetPage(fleets, null);
+    }
+
+    public Optional<FleetCursor> nextCursor() {
+        return Optional.ofNullable(next);
+    }
+
+    public boolean isLast() {
+        return next == null;
+    }
+}
@@ -0,0 +1,44 @@
+package rebelsrescue.fleet;
+
+import ddd.ValueObject;
+
+import java.time.Instant;
+
+/**
+ * Value Object selecting fleets by when they were created and by a starship they contain.
+ * A {@code null} criterion selects any fleet.
+ */
+@ValueObject
+public record FleetQuery(Instant createdFrom, Instant createdBefore, String starShipName) {
+
+    /**
+     * Every fleet.
+     */
+    public static final FleetQuery ALL = new FleetQuery(null, null, null);
+
+    public FleetQuery {
+        if (createdFrom != null && createdBefore != null && createdBefore.isBefore(createdFrom)) {
+            throw new IllegalArgumentException("Fleets cannot be created before " + createdBefore + " and from " + createdFrom);
+        }
+        if (starShipName != null && starShipName.isBlank()) {
+            throw new IllegalArgumentException("Starship name cannot be blank");
+        }
+    }
+
+    /**
+     * Fleets created at or after the given time, and before the other one.
+     */
+    public FleetQuery createdBetween(Instant createdFrom, Instant createdBefore) {
+        return new FleetQuery(createdFrom, createdBefore, starShipName);
+    }
+
+    public FleetQuery withStarShip(String starShipName) {
+        return new FleetQuery(createdFrom, createdBefore, starShipName);
+    }
+
+    public boolean matches(Fleet fleet) {
+        return (createdFrom == null || !fleet.createdAt().isBefore(createdFrom))
+                && (createdBefore == null || fleet.createdAt().isBefore(createdBefore))
+                && (starShipName == null || fleet.starships().stream().anyMatch(starShip -> starShip.name().equals(starShipName)));
+    }
+}
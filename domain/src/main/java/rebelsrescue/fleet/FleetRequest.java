@@ -0,0 +1,17 @@
+package rebelsrescue.fleet;
+
+import ddd.ValueObject;
+import rebelsrescue.fleet.specifications.RescueRules;
+
+/**
+ * Value Object representing one request of a batch of fleet assemblies: the number of passengers to carry,
+ * following the rules of its mission.
+ */
+@ValueObject
+public record FleetRequest(Integer numberOfPassengers, RescueRules rules) {
+    public FleetRequest {
+        if (rules == null) {
+            throw new IllegalArgumentException("A fleet request follows the rules of a mission");
+        }
+    }
+}
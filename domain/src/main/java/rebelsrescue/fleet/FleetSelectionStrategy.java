@@ -0,0 +1,17 @@
+package rebelsrescue.fleet;
+
+import java.util.List;
+
+/**
+ * Strategy choosing which of the rescue-eligible starships make up a fleet.
+ *
+ * @see StreamingFleetSelection
+ */
+public interface FleetSelectionStrategy {
+
+    /**
+     * Select starships able to carry the passengers.
+     * Callers guarantee that the eligible starships have enough capacity altogether.
+     */
+    List<StarShip> select(RescueEligibleStarShips starShips, PassengerCount passengerCount);
+}
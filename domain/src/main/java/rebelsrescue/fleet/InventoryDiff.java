@@ -0,0 +1,210 @@
+package rebelsrescue.fleet;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starships added, removed and changed between two loads of the inventory.
+ * <p>
+ * Both loads are walked side by side and only the starships that differ at the same position are hashed
+ * (and materialized, for {@link StarShipColumns}), so comparing two loads that barely changed stays cheap.
+ * After a mismatch, the walk looks a few positions ahead for the starships inserted or removed in between
+ * and resumes in step past them, so that a single insertion does not shift every later starship out of step.
+ * A starship is changed when a starship with the same name but other attributes replaces it. The diff also
+ * maps every position of the previous load to the position of the same starship in the current one, which
+ * lets {@link RescueEligibleStarShips#updatedWith(InventoryDiff)} update an index without rebuilding it.
+ */
+public final class InventoryDiff {
+
+    static final int REMOVED = -1;
+    private static final int LOOKAHEAD = 16;
+
+    private final List<StarShip> current;
+    private final int[] currentPositions;
+    private final int[] insertedPositions;
+    private final List<StarShip> added;
+    private final List<StarShip> removed;
+    private final List<StarShipChange> changed;
+    private final int unmatchedStarShips;
+
+    private InventoryDiff(List<StarShip> current, int[] currentPositions, int[] insertedPositions,
+                          List<StarShip> added, List<StarShip> removed, List<StarShipChange> changed,
+                          int unmatchedStarShips) {
+        this.current = current;
+        this.currentPositions = currentPositions;
+        this.insertedPositions = insertedPositions;
+        this.added = Collections.unmodifiableList(added);
+        this.removed = Collections.unmodifiableList(removed);
+        this.changed = Collections.unmodifiableList(changed);
+        this.unmatchedStarShips = unmatchedStarShips;
+    }
+
+    public static InventoryDiff between(List<StarShip> previousInventory, List<StarShip> currentInventory) {
+        List<StarShip> previous = snapshot(previousInventory);
+        List<StarShip> current = snapshot(currentInventory);
+        int[] currentPositions = new int[previous.size()];
+        Map<StarShip, ArrayDeque<Integer>> unmatchedPrevious = new HashMap<>();
+        Map<StarShip, ArrayDeque<Integer>> unmatchedCurrent = new HashMap<>();
+
+        int unmatchedStarShips = 0;
+
+        int p = 0;
+        int c = 0;
+        while (p < previous.size() || c < current.size()) {
+            if (p < previous.size() && c < current.size() && sameStarShip(previous, p, current, c)) {
+                currentPositions[p++] = c++;
+                continue;
+            }
+            int inserted = 0;
+            int removed = 0;
+            for (int ahead = 1; ahead <= LOOKAHEAD && p < previous.size() && c < current.size(); ahead++) {
+                if (c + ahead < current.size() && sameStarShip(previous, p, current, c + ahead)) {
+                    inserted = ahead;
+                    break;
+                }
+                if (p + ahead < previous.size() && sameStarShip(previous, p + ahead, current, c)) {
+                    removed = ahead;
+                    break;
+                }
+            }
+            // one step on both sides when the loads could not be brought back in step, a changed starship mostly
+            if (inserted == 0 && removed == 0) {
+                inserted = c < current.size() ? 1 : 0;
+                removed = p < previous.size() ? 1 : 0;
+            }
+            for (; inserted > 0; inserted--, c++, unmatchedStarShips++) {
+                StarShip starShip = current.get(c);
+                Integer previousPosition = poll(unmatchedPrevious, starShip);
+                if (previousPosition != null) {
+                    currentPositions[previousPosition] = c;
+                } else {
+                    unmatchedCurrent.computeIfAbsent(starShip, ignored -> new ArrayDeque<>()).add(c);
+                }
+            }
+            for (; removed > 0; removed--, p++, unmatchedStarShips++) {
+                StarShip starShip = previous.get(p);
+                Integer currentPosition = poll(unmatchedCurrent, starShip);
+                if (currentPosition != null) {
+                    currentPositions[p] = currentPosition;
+                } else {
+                    currentPositions[p] = REMOVED;
+                    unmatchedPrevious.computeIfAbsent(starShip, ignored -> new ArrayDeque<>()).add(p);
+                }
+            }
+        }
+
+        int[] insertedPositions = unmatchedCurrent.values().stream()
+                .flatMap(ArrayDeque::stream)
+                .mapToInt(Integer::intValue)
+                .sorted()
+                .toArray();
+        int[] removedPositions = unmatchedPrevious.values().stream()
+                .flatMap(ArrayDeque::stream)
+                .mapToInt(Integer::intValue)
+                .sorted()
+                .toArray();
+
+        Map<String, ArrayDeque<StarShip>> removedByName = new HashMap<>();
+        for (int removedPosition : removedPositions) {
+            StarShip starShip = previous.get(removedPosition);
+            removedByName.computeIfAbsent(starShip.name(), ignored -> new ArrayDeque<>()).add(starShip);
+        }
+        List<StarShip> added = new ArrayList<>();
+        List<StarShipChange> changed = new ArrayList<>();
+        for (int insertedPosition : insertedPositions) {
+            StarShip starShip = current.get(insertedPosition);
+            ArrayDeque<StarShip> sameName = removedByName.get(starShip.name());
+            if (sameName != null && !sameName.isEmpty()) {
+                changed.add(new StarShipChange(sameName.poll(), starShip));
+            } else {
+                added.add(starShip);
+            }
+        }
+        List<StarShip> removed = new ArrayList<>();
+        for (int removedPosition : removedPositions) {
+            StarShip starShip = previous.get(removedPosition);
+            ArrayDeque<StarShip> sameName = removedByName.get(starShip.name());
+            // the starships left over after pairing the changed ones, in inventory order
+            if (sameName.remove(starShip)) {
+                removed.add(starShip);
+            }
+        }
+        return new InventoryDiff(current, currentPositions, insertedPositions, added, removed, changed, unmatchedStarShips);
+    }
+
+    public List<StarShip> added() {
+        return added;
+    }
+
+    public List<StarShip> removed() {
+        return removed;
+    }
+
+    public List<StarShipChange> changed() {
+        return changed;
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+    }
+
+    /**
+     * Number of starships added, removed or changed.
+     */
+    public int churn() {
+        return added.size() + removed.size() + changed.size();
+    }
+
+    /**
+     * Number of starships of both loads that were hashed to be paired up, as they were out of step.
+     */
+    int unmatchedStarShips() {
+        return unmatchedStarShips;
+    }
+
+    /**
+     * The current load of the inventory.
+     */
+    List<StarShip> current() {
+        return current;
+    }
+
+    /**
+     * Position in the current load of the starship at the given position of the previous one, or {@link #REMOVED}.
+     */
+    int currentPosition(int previousPosition) {
+        return currentPositions[previousPosition];
+    }
+
+    /**
+     * Positions in the current load of the starships that were not in the previous one (added or changed), in order.
+     */
+    int[] insertedPositions() {
+        return insertedPositions;
+    }
+
+    private static List<StarShip> snapshot(List<StarShip> inventory) {
+        return inventory instanceof StarShipColumns ? inventory : List.copyOf(inventory);
+    }
+
+    private static boolean sameStarShip(List<StarShip> previous, int p, List<StarShip> current, int c) {
+        if (previous instanceof StarShipColumns previousColumns && current instanceof StarShipColumns currentColumns) {
+            return previousColumns.sameStarShip(p, currentColumns, c);
+        }
+        return previous.get(p).equals(current.get(c));
+    }
+
+    private static Integer poll(Map<StarShip, ArrayDeque<Integer>> positions, StarShip starShip) {
+        ArrayDeque<Integer> samePositions = positions.get(starShip);
+        return samePositions == null ? null : samePositions.poll();
+    }
+
+    @Override
+    public String toString() {
+        return "InventoryDiff[added=" + added.size() + ", removed=" + removed.size() + ", changed=" + changed.size() + "]";
+    }
+}
@@ -0,0 +1,182 @@
+package rebelsrescue.fleet;
+
+import rebelsrescue.fleet.specifications.RescueRules;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Decorator of a {@link FleetSelectionStrategy} remembering the starships it selected for a number of passengers.
+ * <p>
+ * Selections are kept per passenger count and rules of the mission, for the {@link RescueEligibleStarShips#version()}
+ * they were made out of: as soon as a newer index shows up for the same rules, the selections out of the previous
+ * one are dropped. At most {@code maxSize} selections are kept, the least recently used ones being evicted first.
+ * Only the starships are remembered, every fleet assembled out of them still gets its own identity.
+ * <p>
+ * Out of an index {@link RescueEligibleStarShips#excludingNamed excluding} some starships, such as the reserved
+ * ones, a selection is remembered only while none of its starships is excluded, and is not remembered when it is
+ * made out of such an index. Nor is a selection made out of a {@link RescueEligibleStarShips#isOneOff() one-off}
+ * index, which no later call would ask for again.
+ * <p>
+ * Created by {@link #of}, it selects while streaming when its delegate does, without memoizing those selections.
+ */
+public class MemoizingFleetSelection implements FleetSelectionStrategy {
+
+    private final FleetSelectionStrategy delegate;
+    private final int maxSize;
+    private final Map<Key, List<StarShip>> selections;
+    private final Map<RescueRules, RulesVersion> versions = new HashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    MemoizingFleetSelection(FleetSelectionStrategy delegate, int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Memoized selections max size must be positive, got: " + maxSize);
+        }
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.selections = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, List<StarShip>> eldest) {
+                if (size() > MemoizingFleetSelection.this.maxSize) {
+                    evictions.increment();
+                    RulesVersion version = versions.get(eldest.getKey().rules());
+                    if (version != null) {
+                        version.selections--;
+                    }
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Remember the selections of the delegate, a {@link StreamingFleetSelection} itself when the delegate is one.
+     */
+    public static MemoizingFleetSelection of(FleetSelectionStrategy delegate, int maxSize) {
+        return delegate instanceof StreamingFleetSelection streamingDelegate
+                ? new Streaming(streamingDelegate, maxSize)
+                : new MemoizingFleetSelection(delegate, maxSize);
+    }
+
+    @Override
+    public List<StarShip> select(RescueEligibleStarShips starShips, PassengerCount passengerCount) {
+        if (starShips.isOneOff()) {
+            misses.increment();
+            return delegate.select(starShips, passengerCount);
+        }
+        Key key = new Key(starShips.rules(), passengerCount.value());
+        synchronized (selections) {
+            invalidateOlderThan(starShips);
+            List<StarShip> selection = selections.get(key);
+            if (selection != null && isCurrent(starShips) && !starShips.excludesAnyOf(selection)) {
+                hits.increment();
+                return selection;
+            }
+        }
+        misses.increment();
+        List<StarShip> selection = List.copyOf(delegate.select(starShips, passengerCount));
+        synchronized (selections) {
+            // a newer index may have shown up while selecting, the selection must not outlive it
+            if (isCurrent(starShips) && !starShips.isExcluding() && selections.put(key, selection) == null) {
+                versions.get(key.rules()).selections++;
+            }
+        }
+        return selection;
+    }
+
+    private void invalidateOlderThan(RescueEligibleStarShips starShips) {
+        RescueRules rules = starShips.rules();
+        RulesVersion known = versions.get(rules);
+        if (known != null && known.version >= starShips.version()) {
+            return;
+        }
+        versions.put(rules, new RulesVersion(starShips.version()));
+        if (known != null && known.selections > 0) {
+            int size = selections.size();
+            selections.keySet().removeIf(key -> key.rules().equals(rules));
+            invalidations.add(size - selections.size());
+        }
+        if (versions.size() > 2 * maxSize) {
+            // rules without any selection left do not need their version anymore; as at most maxSize rules have
+            // selections, at least half of the versions go and the next pruning is as many calls away
+            versions.entrySet().removeIf(entry -> entry.getValue().selections == 0 && !entry.getKey().equals(rules));
+        }
+    }
+
+    private boolean isCurrent(RescueEligibleStarShips starShips) {
+        RulesVersion known = versions.get(starShips.rules());
+        return known != null && known.version == starShips.version();
+    }
+
+    public int size() {
+        synchronized (selections) {
+            return selections.size();
+        }
+    }
+
+    public int maxSize() {
+        return maxSize;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Selections dropped to keep at most {@code maxSize} of them.
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Selections dropped because a newer index showed up.
+     */
+    public long invalidations() {
+        return invalidations.sum();
+    }
+
+    private record Key(RescueRules rules, int passengers) {
+    }
+
+    private static final class Streaming extends MemoizingFleetSelection implements StreamingFleetSelection {
+        private final StreamingFleetSelection delegate;
+
+        Streaming(StreamingFleetSelection delegate, int maxSize) {
+            super(delegate, maxSize);
+            this.delegate = delegate;
+        }
+
+        /**
+         * Not memoized: without an index, there is no version telling whether the inventory changed since.
+         */
+        @Override
+        public List<StarShip> select(Stream<StarShip> starShips, RescueRules rules, PassengerCount passengerCount) {
+            return delegate.select(starShips, rules, passengerCount);
+        }
+    }
+
+    /**
+     * Current version of the index of some rules, along with the number of selections kept out of it.
+     */
+    private static final class RulesVersion {
+        private final long version;
+        private int selections;
+
+        RulesVersion(long version) {
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package rebelsrescue.fleet;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Selection solving the bounded knapsack over the eligible starships, so that the fleet has the fewest
+ * starships (then the least unused seats), or the least unused seats (then the fewest starships).
+ * <p>
+ * Starships of the same capacity are interchangeable, so they are grouped and split in power-of-two
+ * chunks before running a 0/1 dynamic programming over the reachable passenger capacities. When the
+ * problem does not fit in the memory or time budget, or the capacities to reach are beyond
+ * {@value #MAX_CAPACITY} passengers, the best fleet known without it is used instead.
+ */
+public class OptimalFleetSelection implements FleetSelectionStrategy {
+
+    public enum Objective {
+        FEWEST_STARSHIPS,
+        LEAST_OVERCAPACITY
+    }
+
+    private static final long MAX_DECISION_BITS = 1L << 26;
+    private static final int MAX_CAPACITY = 1 << 22;
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final Objective objective;
+    private final long timeBudgetNanos;
+    private final FleetSelectionStrategy fallback = new SmallestFirstSelection();
+
+    public OptimalFleetSelection(Objective objective, Duration timeBudget) {
+        if (timeBudget.isNegative()) {
+            throw new IllegalArgumentException("Selection time budget cannot be negative: " + timeBudget);
+        }
+        this.objective = objective;
+        this.timeBudgetNanos = timeBudget.toNanos();
+    }
+
+    @Override
+    public List<StarShip> select(RescueEligibleStarShips starShips, PassengerCount passengerCount) {
+        long deadline = System.nanoTime() + timeBudgetNanos;
+        int passengers = passengerCount.value();
+        int singleStarShip = starShips.firstRankWithCapacityAtLeast(passengers);
+        if (objective == Objective.FEWEST_STARSHIPS && singleStarShip >= 0) {
+            return List.of(starShips.starShipAt(singleStarShip));
+        }
+
+        List<StarShip> bestKnown = fallback.select(starShips, passengerCount);
+        long overCapacity = bestKnown.stream().mapToLong(StarShip::passengersCapacity).sum() - passengers;
+        if (singleStarShip >= 0 && starShips.capacityAt(singleStarShip) - passengers < overCapacity) {
+            bestKnown = List.of(starShips.starShipAt(singleStarShip));
+            overCapacity = starShips.capacityAt(singleStarShip) - passengers;
+        }
+
+        // the fewest starships never exceed the passengers by a whole starship, as it could be left out,
+        // and the least over-capacity is at most the one of the best fleet known so far
+        long maxCapacity = objective == Objective.FEWEST_STARSHIPS
+                ? (long) passengers + starShips.capacityAt(starShips.size() - 1) - 1
+                : passengers + overCapacity;
+        if (maxCapacity > MAX_CAPACITY) {
+            return bestKnown;
+        }
+        List<StarShip> optimal = solve(starShips, passengers, (int) maxCapacity, deadline);
+        return optimal != null ? optimal : bestKnown;
+    }
+
+    private List<StarShip> solve(RescueEligibleStarShips starShips, int passengers, int maxCapacity, long deadline) {
+        Chunks chunks = Chunks.of(starShips, maxCapacity);
+        if ((long) chunks.size() * (maxCapacity + 1L) > MAX_DECISION_BITS) {
+            return null;
+        }
+
+        // fewestStarShips[c]: fewest starships reaching exactly the capacity c
+        int[] fewestStarShips = new int[maxCapacity + 1];
+        Arrays.fill(fewestStarShips, UNREACHABLE);
+        fewestStarShips[0] = 0;
+        long[][] taken = new long[chunks.size()][(maxCapacity >> 6) + 1];
+
+        for (int chunk = 0; chunk < chunks.size(); chunk++) {
+            int weight = chunks.capacity[chunk] * chunks.copies[chunk];
+            int copies = chunks.copies[chunk];
+            long[] takenByChunk = taken[chunk];
+            for (int capacity = maxCapacity; capacity >= weight; capacity--) {
+                int previous = fewestStarShips[capacity - weight];
+                if (previous != UNREACHABLE && previous + copies < fewestStarShips[capacity]) {
+                    fewestStarShips[capacity] = previous + copies;
+                    takenByChunk[capacity >> 6] |= 1L << capacity;
+                }
+            }
+            if (System.nanoTime() - deadline > 0) {
+                return null;
+            }
+        }
+
+        int best = bestCapacity(fewestStarShips, passengers, maxCapacity);
+        if (best < 0) {
+            return null;
+        }
+
+        int[] selectedByGroup = new int[chunks.groups()];
+        for (int chunk = chunks.size() - 1, capacity = best; chunk >= 0; chunk--) {
+            if ((taken[chunk][capacity >> 6] & (1L << capacity)) != 0) {
+                capacity -= chunks.capacity[chunk] * chunks.copies[chunk];
+                selectedByGroup[chunks.group[chunk]] += chunks.copies[chunk];
+            }
+        }
+
+        List<StarShip> selected = new ArrayList<>(fewestStarShips[best]);
+        for (int group = 0; group < chunks.groups(); group++) {
+            int firstRank = chunks.groupFirstRank[group];
+            for (int rank = firstRank; rank < firstRank + selectedByGroup[group]; rank++) {
+                selected.add(starShips.starShipAt(rank));
+            }
+        }
+        return selected;
+    }
+
+    private int bestCapacity(int[] fewestStarShips, int passengers, int maxCapacity) {
+        int best = -1;
+        for (int capacity = passengers; capacity <= maxCapacity; capacity++) {
+            if (fewestStarShips[capacity] == UNREACHABLE) {
+                continue;
+            }
+            if (best < 0) {
+                best = capacity;
+                if (objective == Objective.LEAST_OVERCAPACITY) {
+                    break;
+                }
+            } else if (fewestStarShips[capacity] < fewestStarShips[best]) {
+                best = capacity;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Groups of starships with the same capacity, split in chunks of 1, 2, 4... copies so that any number
+     * of copies of a group is a combination of its chunks.
+     */
+    private static final class Chunks {
+        private int[] capacity = new int[16];
+        private int[] copies = new int[16];
+        private int[] group = new int[16];
+        private int[] groupFirstRank = new int[16];
+        private int size;
+        private int groups;
+
+        static Chunks of(RescueEligibleStarShips starShips, int maxCapacity) {
+            Chunks chunks = new Chunks();
+            int rank = 0;
+            while (rank < starShips.size() && starShips.capacityAt(rank) <= maxCapacity) {
+                int capacity = starShips.capacityAt(rank);
+                int firstRank = rank;
+                while (rank < starShips.size() && starShips.capacityAt(rank) == capacity) {
+                    rank++;
+                }
+                int usefulCopies = Math.min(rank - firstRank, maxCapacity / capacity);
+                chunks.addGroup(capacity, usefulCopies, firstRank);
+            }
+            return chunks;
+        }
+
+        private void addGroup(int groupCapacity, int groupCopies, int firstRank) {
+            if (groups == groupFirstRank.length) {
+                groupFirstRank = Arrays.copyOf(groupFirstRank, groups * 2);
+            }
+            groupFirstRank[groups] = firstRank;
+            for (int chunk = 1; groupCopies > 0; chunk <<= 1) {
+                int chunkCopies = Math.min(chunk, groupCopies);
+                add(groupCapacity, chunkCopies, groups);
+                groupCopies -= chunkCopies;
+            }
+            groups++;
+        }
+
+        private void add(int chunkCapacity, int chunkCopies, int chunkGroup) {
+            if (size == capacity.length) {
+                capacity = Arrays.copyOf(capacity, size * 2);
+                copies = Arrays.copyOf(copies, size * 2);
+                group = Arrays.copyOf(group, size * 2);
+            }
+            capacity[size] = chunkCapacity;
+            copies[size] = chunkCopies;
+            group[size] = chunkGroup;
+            size++;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int groups() {
+            return groups;
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package rebelsrescue.fleet;
+
+import rebelsrescue.fleet.specifications.CompiledRescueRules;
+import rebelsrescue.fleet.specifications.RescueRules;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Immutable index of the starships suitable for rescue missions, built once per inventory snapshot.
+ * Ships are kept sorted by passenger capacity (smallest first) along with the running total of
+ * their capacities, so that selecting ships does not need to filter nor sort the inventory again.
+ * <p>
+ * The index only keeps the positions of the ships in the inventory, which are read when they are
+ * selected: the ships of a {@link StarShipColumns} inventory are only materialized at that point.
+ */
+public final class RescueEligibleStarShips {
+
+    private static final AtomicLong versions = new AtomicLong();
+
+    private final long version;
+    private final List<StarShip> inventory;
+    private final CompiledRescueRules rules;
+    private final Predicate<String> excludedNames;
+    private final boolean oneOff;
+    private final int[] positions;
+    private final int[] capacities;
+    private final long[] cumulativeCapacities;
+
+    private RescueEligibleStarShips(List<StarShip> inventory, CompiledRescueRules rules, long[] sortedKeys,
+                                    boolean oneOff) {
+        this(inventory, rules, sortedKeys, versions.incrementAndGet(), null, oneOff);
+    }
+
+    private RescueEligibleStarShips(List<StarShip> inventory, CompiledRescueRules rules, long[] sortedKeys,
+                                    long version, Predicate<String> excludedNames, boolean oneOff) {
+        this.version = version;
+        this.inventory = inventory;
+        this.rules = rules;
+        this.excludedNames = excludedNames;
+        this.oneOff = oneOff;
+        this.positions = new int[sortedKeys.length];
+        this.capacities = new int[sortedKeys.length];
+        for (int i = 0; i < sortedKeys.length; i++) {
+            positions[i] = position(sortedKeys[i]);
+            capacities[i] = capacity(sortedKeys[i]);
+        }
+        this.cumulativeCapacities = cumulate(capacities);
+    }
+
+    /**
+     * Index the starships of an inventory that are suitable for rescue.
+     */
+    public static RescueEligibleStarShips of(List<StarShip> inventory) {
+        return of(inventory, RescueRules.DEFAULT);
+    }
+
+    /**
+     * Index the starships of an inventory that follow the rules of a mission.
+     */
+    public static RescueEligibleStarShips of(List<StarShip> inventory, RescueRules rescueRules) {
+        return index(inventory, rescueRules, false);
+    }
+
+    /**
+     * Index the starships of an inventory that follow the rules of a mission, for a single use: the index is
+     * neither kept nor updated with the next loads of the inventory, see {@link #isOneOff()}.
+     */
+    public static RescueEligibleStarShips oneOff(List<StarShip> inventory, RescueRules rescueRules) {
+        return index(inventory, rescueRules, true);
+    }
+
+    private static RescueEligibleStarShips index(List<StarShip> inventory, RescueRules rescueRules, boolean oneOff) {
+        CompiledRescueRules rules = rescueRules.compiled();
+        if (inventory instanceof StarShipColumns columns) {
+            BitSet suitable = rules.select(columns);
+            long[] keys = new long[suitable.cardinality()];
+            int count = 0;
+            for (int position = suitable.nextSetBit(0); position >= 0; position = suitable.nextSetBit(position + 1)) {
+                keys[count++] = key(columns.passengersCapacityAt(position), position);
+            }
+            Arrays.sort(keys);
+            return new RescueEligibleStarShips(columns, rules, keys, oneOff);
+        }
+        List<StarShip> starShips = List.copyOf(inventory);
+        long[] keys = new long[starShips.size()];
+        int count = 0;
+        for (int position = 0; position < starShips.size(); position++) {
+            StarShip starShip = starShips.get(position);
+            if (rules.test(starShip)) {
+                keys[count++] = key(starShip.passengersCapacity(), position);
+            }
+        }
+        keys = Arrays.copyOf(keys, count);
+        Arrays.sort(keys);
+        return new RescueEligibleStarShips(starShips, rules, keys, oneOff);
+    }
+
+    /**
+     * Index of the current load of the inventory, obtained by applying the diff to this index of the previous load:
+     * the ships still there are moved to their new position, the removed ones are dropped and only the inserted
+     * ones are checked and merged into the sorted capacities.
+     */
+    public RescueEligibleStarShips updatedWith(InventoryDiff diff) {
+        long[] keptKeys = new long[positions.length];
+        int kept = 0;
+        boolean sorted = true;
+        for (int rank = 0; rank < positions.length; rank++) {
+            int position = diff.currentPosition(positions[rank]);
+            if (position != InventoryDiff.REMOVED) {
+                keptKeys[kept] = key(capacities[rank], position);
+                sorted &= kept == 0 || keptKeys[kept - 1] < keptKeys[kept];
+                kept++;
+            }
+        }
+        if (!sorted) {
+            // ships swapped places in the inventory, their order among ships of the same capacity changes
+            Arrays.sort(keptKeys, 0, kept);
+        }
+
+        List<StarShip> current = diff.current();
+        long[] insertedKeys = new long[diff.insertedPositions().length];
+        int inserted = 0;
+        for (int position : diff.insertedPositions()) {
+            StarShip starShip = current.get(position);
+            if (rules.test(starShip)) {
+                insertedKeys[inserted++] = key(starShip.passengersCapacity(), position);
+            }
+        }
+        Arrays.sort(insertedKeys, 0, inserted);
+
+        long[] keys = new long[kept + inserted];
+        for (int i = 0, k = 0, n = 0; i < keys.length; i++) {
+            keys[i] = n == inserted || (k < kept && keptKeys[k] < insertedKeys[n]) ? keptKeys[k++] : insertedKeys[n++];
+        }
+        return new RescueEligibleStarShips(current, rules, keys, oneOff);
+    }
+
+    /**
+     * Index of the eligible ships left once the ones with an excluded name are dropped, which keeps them sorted:
+     * this index itself if none of its ships is excluded. Only the names are read, the ships of a
+     * {@link StarShipColumns} inventory are not materialized.
+     * <p>
+     * The index keeps the {@link #version()} of this one, the ships being the same ones but for the excluded ones:
+     * a selection out of this index stays valid out of the other one unless it {@link #excludesAnyOf excludes} any
+     * of its ships.
+     */
+    public RescueEligibleStarShips excludingNamed(Predicate<String> excludedName) {
+        long[] keys = null;
+        int kept = 0;
+        for (int rank = 0; rank < positions.length; rank++) {
+            if (excludedName.test(nameAt(positions[rank]))) {
+                if (keys == null) {
+                    keys = new long[positions.length - 1];
+                    for (kept = 0; kept < rank; kept++) {
+                        keys[kept] = key(capacities[kept], positions[kept]);
+                    }
+                }
+            } else if (keys != null) {
+                keys[kept++] = key(capacities[rank], positions[rank]);
+            }
+        }
+        if (keys == null) {
+            return this;
+        }
+        Predicate<String> allExcludedNames = excludedNames == null ? excludedName : excludedNames.or(excludedName);
+        return new RescueEligibleStarShips(inventory, rules, Arrays.copyOf(keys, kept), version, allExcludedNames, oneOff);
+    }
+
+    /**
+     * Whether any of the ships is excluded from this index, as they are checked now.
+     */
+    public boolean excludesAnyOf(List<StarShip> starShips) {
+        if (excludedNames == null) {
+            return false;
+        }
+        for (StarShip starShip : starShips) {
+            if (excludedNames.test(starShip.name())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether ships were dropped from the index of the eligible ships, see {@link #excludingNamed}.
+     */
+    public boolean isExcluding() {
+        return excludedNames != null;
+    }
+
+    /**
+     * Whether the index was built for a single use: no later index of the same rules will carry on its
+     * {@link #version()}, so results computed out of it are not worth keeping.
+     */
+    public boolean isOneOff() {
+        return oneOff;
+    }
+
+    private String nameAt(int position) {
+        return inventory instanceof StarShipColumns columns ? columns.nameAt(position) : inventory.get(position).name();
+    }
+
+    /**
+     * Capacity in the high half and position in the low half: sorting the keys sorts by capacity,
+     * ties keeping the inventory order.
+     */
+    private static long key(int capacity, int position) {
+        return (long) capacity << 32 | position;
+    }
+
+    private static int capacity(long key) {
+        return (int) (key >>> 32);
+    }
+
+    private static int position(long key) {
+        return (int) key;
+    }
+
+    private static long[] cumulate(int[] capacities) {
+        long[] cumulativeCapacities = new long[capacities.length];
+        long total = 0;
+        for (int i = 0; i < capacities.length; i++) {
+            total += capacities[i];
+            cumulativeCapacities[i] = total;
+        }
+        return cumulativeCapacities;
+    }
+
+    /**
+     * The rules followed by the indexed starships.
+     */
+    public RescueRules rules() {
+        return rules.rules();
+    }
+
+    /**
+     * Version of the indexed starships, greater for every new index but the ones {@link #excludingNamed excluding}
+     * ships from another: results computed out of an index stay valid as long as its version is the one of the
+     * current index for the same rules.
+     */
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return capacities.length;
+    }
+
+    public boolean isEmpty() {
+        return capacities.length == 0;
+    }
+
+    /**
+     * Passenger capacity of the ship at the given rank, smallest first.
+     */
+    public int capacityAt(int rank) {
+        return capacities[rank];
+    }
+
+    public StarShip starShipAt(int rank) {
+        return inventory.get(positions[rank]);
+    }
+
+    /**
+     * Total passenger capacity of all the eligible ships.
+     */
+    public long totalPassengerCapacity() {
+        return capacities.length == 0 ? 0 : cumulativeCapacities[capacities.length - 1];
+    }
+
+    /**
+     * Number of ships needed, taking them smallest first, to carry the given passengers;
+     * or -1 if all the eligible ships together cannot carry them.
+     */
+    public int smallestFirstCountFor(int passengers) {
+        if (totalPassengerCapacity() < passengers) {
+            return -1;
+        }
+        int low = 0;
+        int high = capacities.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulativeCapacities[middle] >= passengers) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low + 1;
+    }
+
+    /**
+     * Rank of the smallest eligible ship carrying at least the given passengers, or -1 if there is none.
+     */
+    public int firstRankWithCapacityAtLeast(int passengers) {
+        int low = 0;
+        int high = capacities.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (capacities[middle] >= passengers) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low == capacities.length ? -1 : low;
+    }
+
+    /**
+     * The {@code count} smallest eligible ships.
+     */
+    public List<StarShip> smallestFirst(int count) {
+        StarShip[] smallest = new StarShip[count];
+        for (int rank = 0; rank < count; rank++) {
+            smallest[rank] = inventory.get(positions[rank]);
+        }
+        return Collections.unmodifiableList(Arrays.asList(smallest));
+    }
+}
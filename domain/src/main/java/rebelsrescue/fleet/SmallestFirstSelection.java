@@ -0,0 +1,136 @@
+package rebelsrescue.fleet;
+
+import rebelsrescue.fleet.specifications.CompiledRescueRules;
+import rebelsrescue.fleet.specifications.RescueRules;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Greedy selection taking the smallest starships first until the passengers are covered.
+ * <p>
+ * While the inventory is streamed, only the smallest starships covering the passengers seen so far are kept, in a
+ * heap whose largest starship is dropped as soon as the others cover the passengers without it: the heap never
+ * holds more than one starship beyond the ones needed, and the inventory is neither copied nor sorted. The stream
+ * is read no further once the kept starships all have the minimal capacity of the rules, as no starship coming
+ * later could replace any of them.
+ */
+public class SmallestFirstSelection implements StreamingFleetSelection {
+
+    @Override
+    public List<StarShip> select(RescueEligibleStarShips starShips, PassengerCount passengerCount) {
+        return starShips.smallestFirst(starShips.smallestFirstCountFor(passengerCount.value()));
+    }
+
+    @Override
+    public List<StarShip> select(Stream<StarShip> starShips, RescueRules rules, PassengerCount passengerCount) {
+        CompiledRescueRules compiledRules = rules.compiled();
+        int passengers = passengerCount.value();
+        int minimalCapacity = rules.minimalPassengersCapacity();
+        var largestFirst = new LargestFirstHeap();
+        long coveredPassengers = 0;
+        int position = 0;
+        for (Iterator<StarShip> inventory = starShips.iterator(); inventory.hasNext(); position++) {
+            StarShip starShip = inventory.next();
+            long key = key(starShip.passengersCapacity(), position);
+            // once the passengers are covered, a larger starship would not be selected whatever the rules
+            if (coveredPassengers >= passengers && key > largestFirst.largestKey() || !compiledRules.test(starShip)) {
+                continue;
+            }
+            largestFirst.add(key, starShip);
+            coveredPassengers += starShip.passengersCapacity();
+            while (coveredPassengers - capacity(largestFirst.largestKey()) >= passengers) {
+                coveredPassengers -= capacity(largestFirst.removeLargest());
+            }
+            if (coveredPassengers >= passengers && capacity(largestFirst.largestKey()) <= minimalCapacity) {
+                break;
+            }
+        }
+        if (coveredPassengers < passengers) {
+            throw new InsufficientStarShipsException(passengers, (int) Math.min(coveredPassengers, Integer.MAX_VALUE));
+        }
+        return largestFirst.smallestFirst();
+    }
+
+    /**
+     * Same order as {@link RescueEligibleStarShips}: capacity in the high half and position in the low half,
+     * so that ties keep the inventory order.
+     */
+    private static long key(int capacity, int position) {
+        return (long) capacity << 32 | position;
+    }
+
+    private static int capacity(long key) {
+        return (int) (key >>> 32);
+    }
+
+    /**
+     * Binary heap of starships by key, the largest one on top, growing with the number of starships kept.
+     */
+    private static final class LargestFirstHeap {
+        private long[] keys = new long[16];
+        private StarShip[] starShips = new StarShip[16];
+        private int size;
+
+        long largestKey() {
+            return keys[0];
+        }
+
+        void add(long key, StarShip starShip) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                starShips = Arrays.copyOf(starShips, size * 2);
+            }
+            int slot = size++;
+            while (slot > 0 && keys[(slot - 1) / 2] < key) {
+                int parent = (slot - 1) / 2;
+                move(parent, slot);
+                slot = parent;
+            }
+            keys[slot] = key;
+            starShips[slot] = starShip;
+        }
+
+        long removeLargest() {
+            long largest = keys[0];
+            long key = keys[--size];
+            StarShip starShip = starShips[size];
+            starShips[size] = null;
+            int slot = 0;
+            for (int child = 1; child < size; child = 2 * slot + 1) {
+                if (child + 1 < size && keys[child + 1] > keys[child]) {
+                    child++;
+                }
+                if (keys[child] <= key) {
+                    break;
+                }
+                move(child, slot);
+                slot = child;
+            }
+            if (size > 0) {
+                keys[slot] = key;
+                starShips[slot] = starShip;
+            }
+            return largest;
+        }
+
+        /**
+         * Empties the heap, taking the largest starship out first.
+         */
+        List<StarShip> smallestFirst() {
+            StarShip[] smallestFirst = new StarShip[size];
+            for (int rank = size - 1; rank >= 0; rank--) {
+                smallestFirst[rank] = starShips[0];
+                removeLargest();
+            }
+            return List.of(smallestFirst);
+        }
+
+        private void move(int from, int to) {
+            keys[to] = keys[from];
+            starShips[to] = starShips[from];
+        }
+    }
+}
@@ -24,6 +24,9 @@ public record StarShip(String name, int passengersCapacity, CargoCapacity cargoC
      * Calculate total passenger capacity of multiple starships.
      */
     public static int totalPassengerCapacity(Iterable<StarShip> starShips) {
+        if (starShips instanceof StarShipColumns columns) {
+            return (int) columns.totalPassengerCapacity();
+        }
         int total = 0;
         for (StarShip starShip : starShips) {
             total += starShip.passengersCapacity;
@@ -0,0 +1,15 @@
+package rebelsrescue.fleet;
+
+import ddd.ValueObject;
+
+/**
+ * A starship of the inventory whose attributes changed between two loads, identified by its name.
+ */
+@ValueObject
+public record StarShipChange(StarShip previous, StarShip current) {
+    public StarShipChange {
+        if (!previous.name().equals(current.name())) {
+            throw new IllegalArgumentException("A changed starship keeps its name: " + previous.name() + " became " + current.name());
+        }
+    }
+}
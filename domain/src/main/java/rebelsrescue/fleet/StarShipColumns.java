@@ -0,0 +1,259 @@
+package rebelsrescue.fleet;
+
+import java.math.BigDecimal;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+
+/**
+ * Immutable snapshot of a starship inventory stored column by column.
+ * <p>
+ * Passenger capacities are kept in an {@code int[]}, whole cargo capacities in a {@code long[]} and names
+ * as indexes in a dictionary of the distinct names, so that going through the whole inventory reads
+ * contiguous primitive arrays instead of chasing a pointer per starship. {@link StarShip}s are only
+ * materialized when an element is read, typically for the few ships selected into a fleet.
+ */
+public final class StarShipColumns extends AbstractList<StarShip> implements RandomAccess {
+
+    /**
+     * Marks a cargo capacity that is not a whole long, kept in {@link #decimalCargoCapacities} instead.
+     */
+    private static final long DECIMAL_CARGO = -1;
+
+    private final String[] names;
+    private final int[] nameIndexes;
+    private final int[] passengersCapacities;
+    private final long[] cargoCapacities;
+    private final BigDecimal[] decimalCargoCapacities;
+
+    private StarShipColumns(String[] names, int[] nameIndexes, int[] passengersCapacities,
+                            long[] cargoCapacities, BigDecimal[] decimalCargoCapacities) {
+        this.names = names;
+        this.nameIndexes = nameIndexes;
+        this.passengersCapacities = passengersCapacities;
+        this.cargoCapacities = cargoCapacities;
+        this.decimalCargoCapacities = decimalCargoCapacities;
+    }
+
+    public static StarShipColumns of(List<StarShip> starShips) {
+        if (starShips instanceof StarShipColumns columns) {
+            return columns;
+        }
+        Builder builder = new Builder(starShips.size());
+        for (StarShip starShip : starShips) {
+            builder.add(starShip);
+        }
+        return builder.build();
+    }
+
+    public static Builder builder() {
+        return new Builder(16);
+    }
+
+    @Override
+    public StarShip get(int index) {
+        return new StarShip(names[nameIndexes[index]], passengersCapacities[index], cargoCapacityAt(index));
+    }
+
+    @Override
+    public int size() {
+        return passengersCapacities.length;
+    }
+
+    public String nameAt(int index) {
+        return names[nameIndexes[index]];
+    }
+
+    public int passengersCapacityAt(int index) {
+        return passengersCapacities[index];
+    }
+
+    public CargoCapacity cargoCapacityAt(int index) {
+        long cargoCapacity = cargoCapacities[index];
+        return cargoCapacity == DECIMAL_CARGO
+                ? new CargoCapacity(decimalCargoCapacities[index])
+                : CargoCapacity.of(cargoCapacity);
+    }
+
+    /**
+     * Whether the starship at {@code index} equals the one at {@code otherIndex} of other columns, without materializing them.
+     */
+    public boolean sameStarShip(int index, StarShipColumns other, int otherIndex) {
+        long cargoCapacity = cargoCapacities[index];
+        if (passengersCapacities[index] != other.passengersCapacities[otherIndex]
+                || cargoCapacity != other.cargoCapacities[otherIndex]) {
+            return false;
+        }
+        if (cargoCapacity == DECIMAL_CARGO && !decimalCargoCapacities[index].equals(other.decimalCargoCapacities[otherIndex])) {
+            return false;
+        }
+        return names[nameIndexes[index]].equals(other.names[other.nameIndexes[otherIndex]]);
+    }
+
+    /**
+     * Total passenger capacity of all the starships.
+     */
+    public long totalPassengerCapacity() {
+        long total = 0;
+        for (int passengersCapacity : passengersCapacities) {
+            total += passengersCapacity;
+        }
+        return total;
+    }
+
+    /**
+     * Total passenger capacity of the starships at the given indexes.
+     */
+    public long totalPassengerCapacity(BitSet indexes) {
+        long total = 0;
+        for (int index = indexes.nextSetBit(0); index >= 0; index = indexes.nextSetBit(index + 1)) {
+            total += passengersCapacities[index];
+        }
+        return total;
+    }
+
+    /**
+     * Running totals of the passenger capacities: element {@code i} is the capacity of the first {@code i + 1} starships.
+     */
+    public long[] cumulativePassengerCapacities() {
+        long[] cumulative = new long[passengersCapacities.length];
+        long total = 0;
+        for (int index = 0; index < passengersCapacities.length; index++) {
+            total += passengersCapacities[index];
+            cumulative[index] = total;
+        }
+        return cumulative;
+    }
+
+    /**
+     * Indexes of the starships carrying at least the given passengers and cargo.
+     */
+    public BitSet withCapacitiesAtLeast(int minPassengersCapacity, CargoCapacity minCargoCapacity) {
+        return withCapacitiesWithin(minPassengersCapacity, Integer.MAX_VALUE, minCargoCapacity);
+    }
+
+    /**
+     * Indexes of the starships carrying between the given passengers, bounds included, and at least the given cargo.
+     */
+    public BitSet withCapacitiesWithin(int minPassengersCapacity, int maxPassengersCapacity, CargoCapacity minCargoCapacity) {
+        long[] words = new long[(passengersCapacities.length + 63) >> 6];
+        if (decimalCargoCapacities == null && minCargoCapacity.isWhole()) {
+            long minCargo = minCargoCapacity.units();
+            for (int index = 0; index < passengersCapacities.length; index++) {
+                int passengersCapacity = passengersCapacities[index];
+                long matches = passengersCapacity >= minPassengersCapacity & passengersCapacity <= maxPassengersCapacity
+                        & cargoCapacities[index] >= minCargo ? 1 : 0;
+                words[index >> 6] |= matches << index;
+            }
+        } else {
+            for (int index = 0; index < passengersCapacities.length; index++) {
+                int passengersCapacity = passengersCapacities[index];
+                if (passengersCapacity >= minPassengersCapacity && passengersCapacity <= maxPassengersCapacity
+                        && cargoCapacityAt(index).isSufficientFor(minCargoCapacity)) {
+                    words[index >> 6] |= 1L << index;
+                }
+            }
+        }
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * Clear the indexes of the starships whose name does not match, testing each distinct name once.
+     */
+    public void retainNamed(BitSet indexes, Predicate<String> namePredicate) {
+        byte[] matches = new byte[names.length];
+        for (int index = indexes.nextSetBit(0); index >= 0; index = indexes.nextSetBit(index + 1)) {
+            int nameIndex = nameIndexes[index];
+            if (matches[nameIndex] == 0) {
+                matches[nameIndex] = namePredicate.test(names[nameIndex]) ? (byte) 1 : (byte) -1;
+            }
+            if (matches[nameIndex] < 0) {
+                indexes.clear(index);
+            }
+        }
+    }
+
+    /**
+     * Appends starships column by column, without materializing them.
+     */
+    public static final class Builder {
+        private final Map<String, Integer> nameDictionary = new HashMap<>();
+        private String[] names;
+        private int[] nameIndexes;
+        private int[] passengersCapacities;
+        private long[] cargoCapacities;
+        private BigDecimal[] decimalCargoCapacities;
+        private int size;
+
+        private Builder(int initialCapacity) {
+            int capacity = Math.max(initialCapacity, 1);
+            names = new String[Math.min(capacity, 1024)];
+            nameIndexes = new int[capacity];
+            passengersCapacities = new int[capacity];
+            cargoCapacities = new long[capacity];
+        }
+
+        public Builder add(StarShip starShip) {
+            return add(starShip.name(), starShip.passengersCapacity(), starShip.cargoCapacity());
+        }
+
+        public Builder add(String name, int passengersCapacity, CargoCapacity cargoCapacity) {
+            // validated the same way as a starship, since the columns stand for starships
+            new StarShip(name, passengersCapacity, cargoCapacity);
+            if (size == passengersCapacities.length) {
+                grow();
+            }
+            nameIndexes[size] = nameIndex(name);
+            passengersCapacities[size] = passengersCapacity;
+            if (cargoCapacity.isWhole()) {
+                cargoCapacities[size] = cargoCapacity.units();
+            } else {
+                if (decimalCargoCapacities == null) {
+                    decimalCargoCapacities = new BigDecimal[cargoCapacities.length];
+                }
+                cargoCapacities[size] = DECIMAL_CARGO;
+                decimalCargoCapacities[size] = cargoCapacity.value();
+            }
+            size++;
+            return this;
+        }
+
+        public StarShipColumns build() {
+            return new StarShipColumns(
+                    Arrays.copyOf(names, nameDictionary.size()),
+                    Arrays.copyOf(nameIndexes, size),
+                    Arrays.copyOf(passengersCapacities, size),
+                    Arrays.copyOf(cargoCapacities, size),
+                    decimalCargoCapacities == null ? null : Arrays.copyOf(decimalCargoCapacities, size));
+        }
+
+        private int nameIndex(String name) {
+            Integer index = nameDictionary.get(name);
+            if (index != null) {
+                return index;
+            }
+            int newIndex = nameDictionary.size();
+            if (newIndex == names.length) {
+                names = Arrays.copyOf(names, names.length * 2);
+            }
+            names[newIndex] = name;
+            nameDictionary.put(name, newIndex);
+            return newIndex;
+        }
+
+        private void grow() {
+            int capacity = passengersCapacities.length * 2;
+            nameIndexes = Arrays.copyOf(nameIndexes, capacity);
+            passengersCapacities = Arrays.copyOf(passengersCapacities, capacity);
+            cargoCapacities = Arrays.copyOf(cargoCapacities, capacity);
+            if (decimalCargoCapacities != null) {
+                decimalCargoCapacities = Arrays.copyOf(decimalCargoCapacities, capacity);
+            }
+        }
+    }
+}
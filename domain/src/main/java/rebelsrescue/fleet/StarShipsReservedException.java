@@ -0,0 +1,11 @@
+package rebelsrescue.fleet;
+
+/**
+ * Exception thrown when the starships selected for a fleet keep being reserved by concurrent fleets.
+ */
+public class StarShipsReservedException extends FleetDomainException {
+    public StarShipsReservedException(int requiredPassengers, int attempts) {
+        super(String.format("Cannot assemble fleet for %d passengers: the starships selected were reserved by other fleets %d times in a row",
+            requiredPassengers, attempts));
+    }
+}
@@ -0,0 +1,22 @@
+package rebelsrescue.fleet;
+
+import rebelsrescue.fleet.specifications.RescueRules;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Strategy that can also select the starships while the inventory is streamed, for rules that are not worth indexing.
+ */
+public interface StreamingFleetSelection extends FleetSelectionStrategy {
+
+    /**
+     * Select starships able to carry the passengers out of the starships following the rules, read once and in
+     * the order of the inventory, without indexing them: the same starships as out of their
+     * {@link RescueEligibleStarShips} index.
+     *
+     * @param starShips the starships of the inventory in order, some of them possibly not following the rules
+     * @throws InsufficientStarShipsException if the starships following the rules cannot carry the passengers
+     */
+    List<StarShip> select(Stream<StarShip> starShips, RescueRules rules, PassengerCount passengerCount);
+}
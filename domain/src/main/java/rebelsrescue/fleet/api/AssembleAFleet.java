@@ -1,7 +1,34 @@
 package rebelsrescue.fleet.api;
 
 import rebelsrescue.fleet.Fleet;
+import rebelsrescue.fleet.FleetAssemblyResult;
+import rebelsrescue.fleet.FleetRequest;
+import rebelsrescue.fleet.specifications.RescueRules;
+
+import java.util.List;
 
 public interface AssembleAFleet {
     Fleet forPassengers(int numberOfPassengers);
+
+    /**
+     * Assemble a fleet out of the starships following the rules of the mission.
+     */
+    Fleet forPassengers(int numberOfPassengers, RescueRules rules);
+
+    /**
+     * Assemble a fleet for each number of passengers, out of the same snapshot of the inventory.
+     * A request that cannot be satisfied is reported in its result and does not prevent the others.
+     */
+    List<FleetAssemblyResult> forPassengers(List<Integer> numbersOfPassengers);
+
+    /**
+     * Assemble a fleet for each number of passengers, all following the same rules of the mission.
+     */
+    List<FleetAssemblyResult> forPassengers(List<Integer> numbersOfPassengers, RescueRules rules);
+
+    /**
+     * Assemble a fleet for each request, following the rules of its own mission, out of the same snapshot of the
+     * inventory. The fleets are saved together, then announced together.
+     */
+    List<FleetAssemblyResult> forRequests(List<FleetRequest> requests);
 }
@@ -1,10 +1,21 @@
 package rebelsrescue.fleet.events;
 
+import java.util.List;
+
 /**
  * Port for publishing domain events.
  * Implementations might use Spring Events, messaging systems, etc.
  */
 public interface DomainEventPublisher {
     void publish(Object event);
+
+    /**
+     * Publish events in order, as a whole when the implementation is able to.
+     */
+    default void publishAll(List<?> events) {
+        for (Object event : events) {
+            publish(event);
+        }
+    }
 }
 
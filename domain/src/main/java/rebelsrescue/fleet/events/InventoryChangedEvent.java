@@ -0,0 +1,26 @@
+package rebelsrescue.fleet.events;
+
+import ddd.DomainEvent;
+import rebelsrescue.fleet.StarShip;
+import rebelsrescue.fleet.StarShipChange;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Domain Event fired when a new load of the starship inventory differs from the previous one.
+ */
+@DomainEvent
+public record InventoryChangedEvent(
+    UUID eventId,
+    List<StarShip> added,
+    List<StarShip> removed,
+    List<StarShipChange> changed,
+    int inventorySize,
+    Instant occurredAt
+) {
+    public InventoryChangedEvent(List<StarShip> added, List<StarShip> removed, List<StarShipChange> changed, int inventorySize) {
+        this(UUID.randomUUID(), List.copyOf(added), List.copyOf(removed), List.copyOf(changed), inventorySize, Instant.now());
+    }
+}
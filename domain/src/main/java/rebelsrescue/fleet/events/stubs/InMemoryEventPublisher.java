@@ -20,6 +20,11 @@ public class InMemoryEventPublisher implements DomainEventPublisher {
         publishedEvents.add(event);
     }
 
+    @Override
+    public void publishAll(List<?> events) {
+        publishedEvents.addAll(events);
+    }
+
     public List<Object> getPublishedEvents() {
         return new ArrayList<>(publishedEvents);
     }
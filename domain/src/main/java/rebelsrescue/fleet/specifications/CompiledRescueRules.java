@@ -0,0 +1,97 @@
+package rebelsrescue.fleet.specifications;
+
+import rebelsrescue.fleet.CargoCapacity;
+import rebelsrescue.fleet.StarShip;
+import rebelsrescue.fleet.StarShipColumns;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * {@link RescueRules} flattened into a single evaluator over the fields of the starships.
+ * <p>
+ * Checks that a rule does not need are skipped instead of being evaluated as always true, and the most
+ * selective ones come first: an inclusion list keeps only a few names, so it is checked before the
+ * capacities; capacities are compared as primitives before looking names up in the exclusion list.
+ * Compiled rules are cached per distinct {@link RescueRules}.
+ */
+public final class CompiledRescueRules implements Predicate<StarShip> {
+
+    private static final int MAX_CACHED_RULES = 1024;
+    private static final Map<RescueRules, CompiledRescueRules> cache = new ConcurrentHashMap<>();
+
+    private final RescueRules rules;
+    private final int minimalPassengersCapacity;
+    private final int maximalPassengersCapacity;
+    private final CargoCapacity minimalCargoCapacity;
+    private final Set<String> includedNames;
+    private final Set<String> excludedNames;
+    private final boolean checksIncludedNames;
+    private final boolean checksExcludedNames;
+
+    private CompiledRescueRules(RescueRules rules) {
+        this.rules = rules;
+        this.minimalPassengersCapacity = rules.minimalPassengersCapacity();
+        this.maximalPassengersCapacity = rules.maximalPassengersCapacity();
+        this.minimalCargoCapacity = rules.minimalCargoCapacity();
+        this.includedNames = rules.includedNames();
+        this.excludedNames = rules.excludedNames();
+        this.checksIncludedNames = !includedNames.isEmpty();
+        this.checksExcludedNames = !excludedNames.isEmpty();
+    }
+
+    static CompiledRescueRules of(RescueRules rules) {
+        CompiledRescueRules compiled = cache.get(rules);
+        if (compiled != null) {
+            return compiled;
+        }
+        if (cache.size() >= MAX_CACHED_RULES) {
+            // rules are cheap to compile, a burst of one-off rules must not grow the cache forever
+            cache.clear();
+        }
+        return cache.computeIfAbsent(rules, CompiledRescueRules::new);
+    }
+
+    public RescueRules rules() {
+        return rules;
+    }
+
+    @Override
+    public boolean test(StarShip starShip) {
+        return test(starShip.name(), starShip.passengersCapacity(), starShip.cargoCapacity());
+    }
+
+    public boolean test(String name, int passengersCapacity, CargoCapacity cargoCapacity) {
+        if (checksIncludedNames && !includedNames.contains(name)) {
+            return false;
+        }
+        return passengersCapacity >= minimalPassengersCapacity
+                && passengersCapacity <= maximalPassengersCapacity
+                && cargoCapacity.isSufficientFor(minimalCargoCapacity)
+                && !(checksExcludedNames && excludedNames.contains(name));
+    }
+
+    /**
+     * Indexes of the starships following the rules, capacities being filtered over whole columns
+     * before names are checked, once per distinct name, on the remaining starships.
+     */
+    public BitSet select(StarShipColumns starShips) {
+        BitSet selected = starShips.withCapacitiesWithin(minimalPassengersCapacity, maximalPassengersCapacity, minimalCargoCapacity);
+        if (checksIncludedNames || checksExcludedNames) {
+            starShips.retainNamed(selected, this::acceptsName);
+        }
+        return selected;
+    }
+
+    private boolean acceptsName(String name) {
+        return (!checksIncludedNames || includedNames.contains(name)) && !(checksExcludedNames && excludedNames.contains(name));
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledRescueRules[" + rules + "]";
+    }
+}
@@ -0,0 +1,108 @@
+package rebelsrescue.fleet.specifications;
+
+import ddd.ValueObject;
+import rebelsrescue.fleet.CargoCapacity;
+import rebelsrescue.fleet.StarShip;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Value Object gathering the rules a starship must follow to take part in a rescue mission.
+ * <p>
+ * Rules combine with {@link #and(RescueRules)}, and are evaluated through their {@link #compiled()} form.
+ * An empty {@code includedNames} accepts any name.
+ */
+@ValueObject
+public record RescueRules(
+    CargoCapacity minimalCargoCapacity,
+    int minimalPassengersCapacity,
+    int maximalPassengersCapacity,
+    Set<String> includedNames,
+    Set<String> excludedNames
+) {
+    /**
+     * The rules of every rescue mission: carrying passengers and at least {@link StarShipSpecifications#MINIMAL_CARGO_CAPACITY}.
+     */
+    public static final RescueRules DEFAULT = new RescueRules(
+            StarShipSpecifications.MINIMAL_CARGO_CAPACITY, 1, Integer.MAX_VALUE, Set.of(), Set.of());
+
+    public RescueRules {
+        if (minimalCargoCapacity == null) {
+            throw new IllegalArgumentException("Minimal cargo capacity cannot be null");
+        }
+        if (minimalPassengersCapacity < 1) {
+            throw new IllegalArgumentException("Minimal passengers capacity must be at least 1, got: " + minimalPassengersCapacity);
+        }
+        if (maximalPassengersCapacity < minimalPassengersCapacity) {
+            throw new IllegalArgumentException("Maximal passengers capacity " + maximalPassengersCapacity
+                    + " cannot be lower than the minimal one " + minimalPassengersCapacity);
+        }
+        includedNames = names(includedNames);
+        excludedNames = names(excludedNames);
+    }
+
+    public RescueRules withMinimalCargoCapacity(CargoCapacity minimalCargoCapacity) {
+        return new RescueRules(minimalCargoCapacity, minimalPassengersCapacity, maximalPassengersCapacity, includedNames, excludedNames);
+    }
+
+    public RescueRules withPassengersCapacityBetween(int minimalPassengersCapacity, int maximalPassengersCapacity) {
+        return new RescueRules(minimalCargoCapacity, minimalPassengersCapacity, maximalPassengersCapacity, includedNames, excludedNames);
+    }
+
+    public RescueRules withIncludedNames(Set<String> includedNames) {
+        return new RescueRules(minimalCargoCapacity, minimalPassengersCapacity, maximalPassengersCapacity, includedNames, excludedNames);
+    }
+
+    public RescueRules withExcludedNames(Set<String> excludedNames) {
+        return new RescueRules(minimalCargoCapacity, minimalPassengersCapacity, maximalPassengersCapacity, includedNames, excludedNames);
+    }
+
+    /**
+     * Rules followed by the starships following both these rules and the other ones.
+     */
+    public RescueRules and(RescueRules other) {
+        CargoCapacity cargoCapacity = minimalCargoCapacity.isSufficientFor(other.minimalCargoCapacity)
+                ? minimalCargoCapacity
+                : other.minimalCargoCapacity;
+        Set<String> included;
+        if (includedNames.isEmpty() || other.includedNames.isEmpty()) {
+            included = includedNames.isEmpty() ? other.includedNames : includedNames;
+        } else {
+            included = new HashSet<>(includedNames);
+            included.retainAll(other.includedNames);
+            if (included.isEmpty()) {
+                throw new IllegalArgumentException("Rescue rules include no common starship name");
+            }
+        }
+        Set<String> excluded = new HashSet<>(excludedNames);
+        excluded.addAll(other.excludedNames);
+        return new RescueRules(cargoCapacity,
+                Math.max(minimalPassengersCapacity, other.minimalPassengersCapacity),
+                Math.min(maximalPassengersCapacity, other.maximalPassengersCapacity),
+                included, excluded);
+    }
+
+    public boolean isSatisfiedBy(StarShip starShip) {
+        return compiled().test(starShip);
+    }
+
+    /**
+     * The evaluator of these rules, compiled once per distinct rules.
+     */
+    public CompiledRescueRules compiled() {
+        return CompiledRescueRules.of(this);
+    }
+
+    private static Set<String> names(Set<String> names) {
+        if (names == null) {
+            return Set.of();
+        }
+        for (String name : names) {
+            if (name == null || name.isBlank()) {
+                throw new IllegalArgumentException("Starship names in rescue rules cannot be blank");
+            }
+        }
+        return Set.copyOf(names);
+    }
+}
@@ -2,36 +2,51 @@ package rebelsrescue.fleet.specifications;
 
 import rebelsrescue.fleet.CargoCapacity;
 import rebelsrescue.fleet.StarShip;
+import rebelsrescue.fleet.StarShipColumns;
 
+import java.util.BitSet;
 import java.util.function.Predicate;
 
 /**
  * Specification pattern for StarShip selection rules.
  * This encapsulates business rules in a reusable and testable way.
+ * <p>
+ * The rules of a mission are gathered in {@link RescueRules}; these specifications are the default ones.
  */
 public class StarShipSpecifications {
 
     public static final CargoCapacity MINIMAL_CARGO_CAPACITY = CargoCapacity.of(100_000L);
 
+    private static final Predicate<StarShip> HAS_PASSENGER_CAPACITY = starShip -> starShip.passengersCapacity() > 0;
+    private static final Predicate<StarShip> HAS_SUFFICIENT_CARGO_CAPACITY =
+            starShip -> starShip.cargoCapacity().isSufficientFor(MINIMAL_CARGO_CAPACITY);
+
     /**
      * StarShip must have passenger capacity greater than zero.
      */
     public static Predicate<StarShip> hasPassengerCapacity() {
-        return starShip -> starShip.passengersCapacity() > 0;
+        return HAS_PASSENGER_CAPACITY;
     }
 
     /**
      * StarShip must have sufficient cargo capacity for rescue missions.
      */
     public static Predicate<StarShip> hasSufficientCargoCapacity() {
-        return starShip -> starShip.cargoCapacity().isSufficientFor(MINIMAL_CARGO_CAPACITY);
+        return HAS_SUFFICIENT_CARGO_CAPACITY;
     }
 
     /**
      * StarShip is suitable for rescue missions (combines multiple criteria).
      */
     public static Predicate<StarShip> isSuitableForRescue() {
-        return hasPassengerCapacity().and(hasSufficientCargoCapacity());
+        return RescueRules.DEFAULT.compiled();
     }
-}
 
+    /**
+     * Indexes of the starships suitable for rescue missions, same rules as {@link #isSuitableForRescue()}
+     * evaluated over whole columns.
+     */
+    public static BitSet suitableForRescue(StarShipColumns starShips) {
+        return RescueRules.DEFAULT.compiled().select(starShips);
+    }
+}
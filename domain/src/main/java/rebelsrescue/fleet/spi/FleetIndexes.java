@@ -0,0 +1,143 @@
+package rebelsrescue.fleet.spi;
+
+import rebelsrescue.fleet.Fleet;
+import rebelsrescue.fleet.FleetCursor;
+import rebelsrescue.fleet.FleetPage;
+import rebelsrescue.fleet.FleetQuery;
+import rebelsrescue.fleet.StarShip;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+
+/**
+ * Thread-safe secondary indexes of stored fleets, by creation time and by the names of their starships, for
+ * {@link Fleets} adapters to answer {@link Fleets#find} with.
+ * <p>
+ * Only the {@link FleetCursor} of each fleet is indexed, in sorted sets: a page is read by walking the set from the
+ * cursor on, the fleets being looked up in the store one at a time. The fleets looked up are checked against the
+ * query, so that a fleet saved again or removed while it was read is skipped rather than listed with stale criteria.
+ */
+public final class FleetIndexes {
+
+    private static final UUID FIRST_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+
+    private final NavigableSet<FleetCursor> byCreation = new ConcurrentSkipListSet<>();
+    private final ConcurrentMap<String, NavigableSet<FleetCursor>> byStarShip = new ConcurrentHashMap<>();
+    private final ConcurrentMap<UUID, IndexedFleet> fleets = new ConcurrentHashMap<>();
+
+    /**
+     * Index a saved fleet, replacing what was indexed for a previous save of the same fleet.
+     */
+    public void add(Fleet fleet) {
+        IndexedFleet indexed = new IndexedFleet(FleetCursor.of(fleet),
+                fleet.starships().stream().map(StarShip::name).distinct().toArray(String[]::new));
+        fleets.compute(fleet.id(), (id, previous) -> {
+            if (previous != null) {
+                unindex(previous);
+            }
+            byCreation.add(indexed.cursor());
+            for (String name : indexed.starShipNames()) {
+                byStarShip.compute(name, (ignored, cursors) -> {
+                    NavigableSet<FleetCursor> starShipCursors = cursors == null ? new ConcurrentSkipListSet<>() : cursors;
+                    starShipCursors.add(indexed.cursor());
+                    return starShipCursors;
+                });
+            }
+            return indexed;
+        });
+    }
+
+    /**
+     * Drop a removed fleet from the indexes, unless it was saved again since.
+     */
+    public void remove(Fleet fleet) {
+        FleetCursor cursor = FleetCursor.of(fleet);
+        fleets.computeIfPresent(fleet.id(), (id, indexed) -> {
+            if (!indexed.cursor().equals(cursor)) {
+                return indexed;
+            }
+            unindex(indexed);
+            return null;
+        });
+    }
+
+    private void unindex(IndexedFleet indexed) {
+        byCreation.remove(indexed.cursor());
+        for (String name : indexed.starShipNames()) {
+            byStarShip.computeIfPresent(name, (ignored, cursors) -> {
+                cursors.remove(indexed.cursor());
+                return cursors.isEmpty() ? null : cursors;
+            });
+        }
+    }
+
+    /**
+     * Number of fleets indexed.
+     */
+    public int size() {
+        return fleets.size();
+    }
+
+    /**
+     * A page of the fleets matching the query, following the cursor when there is one.
+     *
+     * @param lookup finds a fleet of the store by its id, empty once it is removed
+     */
+    public FleetPage page(FleetQuery query, FleetCursor after, int limit, Function<UUID, Optional<Fleet>> lookup) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page limit must be positive, got: " + limit);
+        }
+        List<Fleet> page = new ArrayList<>(Math.min(limit, 64));
+        for (FleetCursor cursor : candidates(query, after)) {
+            Fleet fleet = lookup.apply(cursor.id()).orElse(null);
+            if (fleet == null || !cursor.equals(FleetCursor.of(fleet)) || !query.matches(fleet)) {
+                continue;
+            }
+            if (page.size() == limit) {
+                return new FleetPage(page, FleetCursor.of(page.get(limit - 1)));
+            }
+            page.add(fleet);
+        }
+        return FleetPage.last(page);
+    }
+
+    private NavigableSet<FleetCursor> candidates(FleetQuery query, FleetCursor after) {
+        NavigableSet<FleetCursor> cursors = query.starShipName() == null
+                ? byCreation
+                : byStarShip.getOrDefault(query.starShipName(), Collections.emptyNavigableSet());
+        FleetCursor from = query.createdFrom() == null ? null : first(query.createdFrom());
+        boolean fromInclusive = after == null || from != null && from.compareTo(after) > 0;
+        if (!fromInclusive || from == null) {
+            from = after;
+        }
+        FleetCursor before = query.createdBefore() == null ? null : first(query.createdBefore());
+        if (from != null && before != null) {
+            return from.compareTo(before) < 0
+                    ? cursors.subSet(from, fromInclusive, before, false)
+                    : Collections.emptyNavigableSet();
+        }
+        if (from != null) {
+            return cursors.tailSet(from, fromInclusive);
+        }
+        return before != null ? cursors.headSet(before, false) : cursors;
+    }
+
+    /**
+     * The cursor coming before the ones of all the fleets created at the given time.
+     */
+    private static FleetCursor first(Instant createdAt) {
+        return new FleetCursor(createdAt, FIRST_ID);
+    }
+
+    private record IndexedFleet(FleetCursor cursor, String[] starShipNames) {
+    }
+}
@@ -2,8 +2,12 @@ package rebelsrescue.fleet.spi;
 
 import ddd.Repository;
 import rebelsrescue.fleet.Fleet;
+import rebelsrescue.fleet.FleetCursor;
 import rebelsrescue.fleet.FleetNotFoundException;
+import rebelsrescue.fleet.FleetPage;
+import rebelsrescue.fleet.FleetQuery;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -30,8 +34,26 @@ public interface Fleets {
      */
     Fleet save(Fleet fleet);
 
+    /**
+     * Save fleets at once, returning them in the same order.
+     */
+    default List<Fleet> saveAll(List<Fleet> fleets) {
+        for (Fleet fleet : fleets) {
+            save(fleet);
+        }
+        return fleets;
+    }
+
     /**
      * Check if a fleet exists.
      */
     boolean exists(UUID id);
+
+    /**
+     * Find the fleets matching the query, oldest first: at most {@code limit} of them, following the cursor when
+     * there is one. Across pages, the fleets saved before the first page, and neither saved again nor removed
+     * meanwhile, are listed exactly once. A fleet saved in between pages may be missed, see {@link FleetCursor}.
+     * @throws IllegalArgumentException if the limit is not positive
+     */
+    FleetPage find(FleetQuery query, FleetCursor after, int limit);
 }
@@ -0,0 +1,68 @@
+package rebelsrescue.fleet.spi;
+
+import rebelsrescue.fleet.StarShip;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Availability of the starships, keyed by their name: a starship belongs to at most one fleet at a time, from the
+ * moment it is claimed for the fleet until the fleet releases it or its reservation expires.
+ */
+public interface StarShipReservations {
+
+    /**
+     * No reservations: every starship is always available, fleets may share them.
+     */
+    StarShipReservations NONE = new StarShipReservations() {
+        @Override
+        public boolean claim(UUID fleetId, List<StarShip> starShips) {
+            return true;
+        }
+
+        @Override
+        public boolean isReserved(String starShipName) {
+            return false;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return true;
+        }
+
+        @Override
+        public void release(UUID fleetId) {
+        }
+    };
+
+    /**
+     * Atomically claim the starships for a fleet: either all of them are reserved for the fleet, or none of them
+     * when any is already reserved by another fleet.
+     *
+     * @return whether the starships are now reserved for the fleet
+     * @throws IllegalArgumentException if the fleet already claimed its starships
+     */
+    boolean claim(UUID fleetId, List<StarShip> starShips);
+
+    /**
+     * Whether the starship of that name is reserved by a fleet, or being claimed for one.
+     */
+    boolean isReserved(String starShipName);
+
+    /**
+     * Whether the starship is reserved by a fleet, or being claimed for one.
+     */
+    default boolean isReserved(StarShip starShip) {
+        return isReserved(starShip.name());
+    }
+
+    /**
+     * Whether no starship is reserved, in which case there is no need to ask for each of them.
+     */
+    boolean isEmpty();
+
+    /**
+     * Make the starships of the fleet available again, if it still holds them.
+     */
+    void release(UUID fleetId);
+}
@@ -2,21 +2,87 @@ package rebelsrescue.fleet.spi.stubs;
 
 import ddd.Stub;
 import rebelsrescue.fleet.Fleet;
+import rebelsrescue.fleet.FleetCursor;
 import rebelsrescue.fleet.FleetNotFoundException;
+import rebelsrescue.fleet.FleetPage;
+import rebelsrescue.fleet.FleetQuery;
+import rebelsrescue.fleet.spi.FleetIndexes;
 import rebelsrescue.fleet.spi.Fleets;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
+/**
+ * Thread-safe in-memory repository of fleets.
+ * <p>
+ * Reads never lock. Optionally the number of fleets is bounded, evicting the least recently used ones
+ * first (approximated with a second-chance queue), and fleets expire after a time to live. The fleets are
+ * found by query through {@link FleetIndexes}, which fleets leave as they are evicted or expire. The ids of the
+ * evicted and expired fleets are handed to a removal listener, e.g. to release their starship reservations.
+ */
 @Stub
 public class InMemoryFleets implements Fleets {
-    private final Map<UUID, Fleet> fleets = new HashMap<>();
+
+    public static final int UNBOUNDED = 0;
+
+    private static final int SAVES_BETWEEN_EXPIRY_SWEEPS = 1024;
+
+    private final ConcurrentMap<UUID, Entry> fleets = new ConcurrentHashMap<>();
+    private final FleetIndexes indexes = new FleetIndexes();
+    private final Queue<UUID> evictionQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicLong saves = new AtomicLong();
+    private final int maxFleets;
+    private final long timeToLiveMillis;
+    private final Consumer<UUID> onRemoval;
+    private final Clock clock;
+
+    public InMemoryFleets() {
+        this(UNBOUNDED, Duration.ZERO);
+    }
+
+    /**
+     * @param maxFleets  maximum number of fleets kept, or {@link #UNBOUNDED}
+     * @param timeToLive how long a fleet is kept after being saved, or {@link Duration#ZERO} to keep it forever
+     */
+    public InMemoryFleets(int maxFleets, Duration timeToLive) {
+        this(maxFleets, timeToLive, id -> { });
+    }
+
+    /**
+     * @param onRemoval called with the id of each fleet evicted or expired, once it can no longer be found
+     */
+    public InMemoryFleets(int maxFleets, Duration timeToLive, Consumer<UUID> onRemoval) {
+        this(maxFleets, timeToLive, onRemoval, Clock.systemUTC());
+    }
+
+    InMemoryFleets(int maxFleets, Duration timeToLive, Clock clock) {
+        this(maxFleets, timeToLive, id -> { }, clock);
+    }
+
+    InMemoryFleets(int maxFleets, Duration timeToLive, Consumer<UUID> onRemoval, Clock clock) {
+        if (maxFleets < 0) {
+            throw new IllegalArgumentException("Max fleets cannot be negative: " + maxFleets);
+        }
+        if (timeToLive.isNegative()) {
+            throw new IllegalArgumentException("Fleets time to live cannot be negative: " + timeToLive);
+        }
+        this.maxFleets = maxFleets;
+        this.timeToLiveMillis = timeToLive.toMillis();
+        this.onRemoval = onRemoval;
+        this.clock = clock;
+    }
 
     @Override
     public Fleet getById(UUID id) {
-        Fleet fleet = fleets.get(id);
+        Fleet fleet = lookup(id);
         if (fleet == null) {
             throw new FleetNotFoundException(id.toString());
         }
@@ -25,17 +91,128 @@ public class InMemoryFleets implements Fleets {
 
     @Override
     public Optional<Fleet> findById(UUID id) {
-        return Optional.ofNullable(fleets.get(id));
+        return Optional.ofNullable(lookup(id));
     }
 
     @Override
     public Fleet save(Fleet fleet) {
-        fleets.put(fleet.id(), fleet);
+        long expiresAt = timeToLiveMillis == 0 ? Long.MAX_VALUE : clock.millis() + timeToLiveMillis;
+        Entry previous = fleets.put(fleet.id(), new Entry(fleet, expiresAt));
+        indexes.add(fleet);
+        if (isBounded() && previous == null) {
+            evictionQueue.add(fleet.id());
+            evictExtraFleets();
+        }
+        if (timeToLiveMillis != 0 && saves.incrementAndGet() % SAVES_BETWEEN_EXPIRY_SWEEPS == 0) {
+            long now = clock.millis();
+            fleets.forEach((id, entry) -> {
+                if (entry.isExpiredAt(now)) {
+                    remove(id, entry);
+                }
+            });
+            // the fleets expired here or on a lookup would otherwise wait in the queue until there are too many fleets
+            if (isBounded()) {
+                evictionQueue.removeIf(id -> !fleets.containsKey(id));
+            }
+        }
         return fleet;
     }
 
     @Override
     public boolean exists(UUID id) {
-        return fleets.containsKey(id);
+        return lookup(id) != null;
+    }
+
+    /**
+     * Listing the fleets does not count as using them: they are not spared from eviction for being listed.
+     */
+    @Override
+    public FleetPage find(FleetQuery query, FleetCursor after, int limit) {
+        return indexes.page(query, after, limit, id -> {
+            Entry entry = fleets.get(id);
+            boolean live = entry != null && (timeToLiveMillis == 0 || !entry.isExpiredAt(clock.millis()));
+            return live ? Optional.of(entry.fleet) : Optional.empty();
+        });
+    }
+
+    /**
+     * Number of fleets currently kept, expired ones included until they are swept.
+     */
+    public int size() {
+        return fleets.size();
+    }
+
+    /**
+     * Number of ids waiting in the eviction queue, the ones of removed fleets included until they are purged.
+     */
+    int evictionQueueSize() {
+        return evictionQueue.size();
+    }
+
+    private Fleet lookup(UUID id) {
+        Entry entry = fleets.get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (timeToLiveMillis != 0 && entry.isExpiredAt(clock.millis())) {
+            remove(id, entry);
+            return null;
+        }
+        if (isBounded() && !entry.referenced) {
+            entry.referenced = true;
+        }
+        return entry.fleet;
+    }
+
+    private boolean remove(UUID id, Entry entry) {
+        if (!fleets.remove(id, entry)) {
+            return false;
+        }
+        indexes.remove(entry.fleet);
+        onRemoval.accept(id);
+        return true;
+    }
+
+    private boolean isBounded() {
+        return maxFleets != UNBOUNDED;
+    }
+
+    /**
+     * Second-chance eviction: fleets read since they were last considered go back to the tail of the queue once.
+     */
+    private void evictExtraFleets() {
+        int considered = 0;
+        while (fleets.size() > maxFleets) {
+            UUID id = evictionQueue.poll();
+            if (id == null) {
+                return;
+            }
+            Entry entry = fleets.get(id);
+            if (entry == null) {
+                continue;
+            }
+            // give up second chances when concurrent reads keep flagging the fleets
+            if (entry.referenced && considered++ < 2 * maxFleets) {
+                entry.referenced = false;
+                evictionQueue.add(id);
+            } else if (!remove(id, entry)) {
+                evictionQueue.add(id);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final Fleet fleet;
+        private final long expiresAt;
+        private volatile boolean referenced;
+
+        private Entry(Fleet fleet, long expiresAt) {
+            this.fleet = fleet;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpiredAt(long now) {
+            return now >= expiresAt;
+        }
     }
 }
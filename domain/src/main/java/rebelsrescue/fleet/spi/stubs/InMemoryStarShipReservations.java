@@ -0,0 +1,172 @@
+package rebelsrescue.fleet.spi.stubs;
+
+import ddd.Stub;
+import rebelsrescue.fleet.StarShip;
+import rebelsrescue.fleet.spi.StarShipReservations;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe in-memory table of the starships reserved by fleets, without any lock of its own.
+ * <p>
+ * A starship is claimed by atomically mapping its name to the reservation of a fleet, so that it is never reserved
+ * by two fleets at once: a fleet claims its starships one at a time, in the order of their names, and gives back the
+ * ones it got as soon as another fleet holds one of them. Claims of distinct starships only meet within the bins of
+ * the map, which lets them scale with the cores. Optionally reservations expire after a time to live, an expired
+ * reservation being taken over by the next fleet claiming one of its starships.
+ */
+@Stub
+public class InMemoryStarShipReservations implements StarShipReservations {
+
+    private static final int CLAIMS_BETWEEN_EXPIRY_SWEEPS = 1024;
+
+    private final ConcurrentMap<String, Reservation> starShips = new ConcurrentHashMap<>();
+    private final ConcurrentMap<UUID, Reservation> fleets = new ConcurrentHashMap<>();
+    private final AtomicLong claims = new AtomicLong();
+    private final long timeToLiveMillis;
+    private final Clock clock;
+
+    public InMemoryStarShipReservations() {
+        this(Duration.ZERO);
+    }
+
+    /**
+     * @param timeToLive how long starships stay reserved once claimed, or {@link Duration#ZERO} until released
+     */
+    public InMemoryStarShipReservations(Duration timeToLive) {
+        this(timeToLive, Clock.systemUTC());
+    }
+
+    InMemoryStarShipReservations(Duration timeToLive, Clock clock) {
+        if (timeToLive.isNegative()) {
+            throw new IllegalArgumentException("Reservations time to live cannot be negative: " + timeToLive);
+        }
+        this.timeToLiveMillis = timeToLive.toMillis();
+        this.clock = clock;
+    }
+
+    @Override
+    public boolean claim(UUID fleetId, List<StarShip> starShips) {
+        long now = now();
+        String[] names = sortedDistinctNames(starShips);
+        Reservation reservation = new Reservation(fleetId, names, timeToLiveMillis == 0 ? Long.MAX_VALUE : now + timeToLiveMillis);
+        Reservation previous = fleets.putIfAbsent(fleetId, reservation);
+        if (previous != null && !previous.isExpiredAt(now)) {
+            throw new IllegalArgumentException("Fleet " + fleetId + " already claimed its starships");
+        }
+        if (previous != null && !fleets.replace(fleetId, previous, reservation)) {
+            throw new IllegalArgumentException("Fleet " + fleetId + " is claiming its starships concurrently");
+        }
+        for (int claimed = 0; claimed < names.length; claimed++) {
+            if (!claim(names[claimed], reservation, now)) {
+                for (int rollback = 0; rollback < claimed; rollback++) {
+                    this.starShips.remove(names[rollback], reservation);
+                }
+                fleets.remove(fleetId, reservation);
+                return false;
+            }
+        }
+        if (timeToLiveMillis != 0 && claims.incrementAndGet() % CLAIMS_BETWEEN_EXPIRY_SWEEPS == 0) {
+            this.starShips.values().removeIf(held -> held.isExpiredAt(now));
+            fleets.values().removeIf(held -> held.isExpiredAt(now));
+        }
+        return true;
+    }
+
+    private static String[] sortedDistinctNames(List<StarShip> starShips) {
+        String[] names = new String[starShips.size()];
+        for (int starShip = 0; starShip < names.length; starShip++) {
+            names[starShip] = starShips.get(starShip).name();
+        }
+        Arrays.sort(names);
+        int distinct = 0;
+        for (String name : names) {
+            if (distinct == 0 || !name.equals(names[distinct - 1])) {
+                names[distinct++] = name;
+            }
+        }
+        return distinct == names.length ? names : Arrays.copyOf(names, distinct);
+    }
+
+    private boolean claim(String name, Reservation reservation, long now) {
+        Reservation held = starShips.putIfAbsent(name, reservation);
+        while (held != null) {
+            if (!held.isExpiredAt(now)) {
+                return false;
+            }
+            // the expired reservation is taken over, unless another fleet took it over first
+            if (starShips.replace(name, held, reservation)) {
+                fleets.remove(held.fleetId(), held);
+                return true;
+            }
+            held = starShips.putIfAbsent(name, reservation);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isReserved(String starShipName) {
+        Reservation held = starShips.get(starShipName);
+        return held != null && !held.isExpiredAt(now());
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return starShips.isEmpty();
+    }
+
+    @Override
+    public void release(UUID fleetId) {
+        Reservation reservation = fleets.remove(fleetId);
+        if (reservation != null) {
+            for (String name : reservation.names()) {
+                starShips.remove(name, reservation);
+            }
+        }
+    }
+
+    /**
+     * Number of starships currently reserved, expired reservations included until they are swept or taken over.
+     */
+    public int size() {
+        return starShips.size();
+    }
+
+    private long now() {
+        return timeToLiveMillis == 0 ? 0 : clock.millis();
+    }
+
+    /**
+     * Compared by identity: a starship is released only by the reservation still holding it.
+     */
+    private static final class Reservation {
+        private final UUID fleetId;
+        private final String[] names;
+        private final long expiresAt;
+
+        private Reservation(UUID fleetId, String[] names, long expiresAt) {
+            this.fleetId = fleetId;
+            this.names = names;
+            this.expiresAt = expiresAt;
+        }
+
+        UUID fleetId() {
+            return fleetId;
+        }
+
+        String[] names() {
+            return names;
+        }
+
+        boolean isExpiredAt(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
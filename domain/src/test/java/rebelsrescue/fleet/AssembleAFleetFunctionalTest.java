@@ -4,13 +4,30 @@ import org.assertj.core.api.Condition;
 import org.junit.jupiter.api.Test;
 import rebelsrescue.fleet.api.AssembleAFleet;
 import rebelsrescue.fleet.events.FleetAssembledEvent;
+import rebelsrescue.fleet.events.InventoryChangedEvent;
 import rebelsrescue.fleet.events.stubs.InMemoryEventPublisher;
+import rebelsrescue.fleet.specifications.RescueRules;
 import rebelsrescue.fleet.spi.Fleets;
 import rebelsrescue.fleet.spi.StarShipInventory;
 import rebelsrescue.fleet.spi.stubs.InMemoryFleets;
+import rebelsrescue.fleet.spi.stubs.InMemoryStarShipReservations;
 import rebelsrescue.fleet.spi.stubs.StarShipInventoryStub;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -90,6 +107,41 @@ class AssembleAFleetFunctionalTest {
                 .hasMessageContaining("Passenger count must be positive");
     }
 
+    @Test
+    void should_assemble_a_batch_of_fleets_out_of_a_single_inventory_snapshot() {
+        var starShips = List.of(
+                new StarShip("s", 50, CargoCapacity.of("150000")),
+                new StarShip("m", 200, CargoCapacity.of("170000")),
+                new StarShip("l", 800, CargoCapacity.of("150000")));
+        var inventoryLoads = new AtomicInteger();
+        StarShipInventory starShipsInventory = () -> {
+            inventoryLoads.incrementAndGet();
+            return starShips;
+        };
+        Fleets fleets = new InMemoryFleets();
+        InMemoryEventPublisher eventPublisher = new InMemoryEventPublisher();
+        AssembleAFleet assembleAFleet = new FleetAssembler(starShipsInventory, fleets, eventPublisher);
+
+        List<FleetAssemblyResult> results = assembleAFleet.forPassengers(Arrays.asList(40, 5_000, 900, 0, null));
+
+        assertThat(inventoryLoads).hasValue(1);
+        assertThat(results).extracting(FleetAssemblyResult::requestedPassengers).containsExactly(40, 5_000, 900, 0, null);
+        assertThat(results).extracting(FleetAssemblyResult::isAssembled).containsExactly(true, false, true, false, false);
+        assertThat(results.get(1).failure()).isInstanceOf(InsufficientStarShipsException.class);
+        assertThat(results.get(3).failure()).isInstanceOf(IllegalArgumentException.class);
+        assertThat(results.get(4).failure()).isInstanceOf(IllegalArgumentException.class);
+
+        Fleet first = results.get(0).fleet();
+        Fleet third = results.get(2).fleet();
+        assertThat(first.canAccommodate(40)).isTrue();
+        assertThat(third.canAccommodate(900)).isTrue();
+        assertThat(fleets.getById(first.id())).isEqualTo(first);
+        assertThat(fleets.getById(third.id())).isEqualTo(third);
+        assertThat(eventPublisher.getEventsOfType(FleetAssembledEvent.class))
+                .extracting(FleetAssembledEvent::fleetId)
+                .containsExactly(first.id(), third.id());
+    }
+
     private Predicate<? super StarShip> hasPassengerCapacity() {
         return starShip -> starShip.passengersCapacity() > 0;
     }
@@ -104,4 +156,161 @@ class AssembleAFleetFunctionalTest {
                 "passengersCapacity check");
     }
 
+
+    @Test
+    void should_assemble_fleets_out_of_the_reloaded_inventory_and_announce_its_changes() {
+        var small = new StarShip("s", 50, CargoCapacity.of("150000"));
+        var medium = new StarShip("m", 200, CargoCapacity.of("170000"));
+        var large = new StarShip("l", 800, CargoCapacity.of("150000"));
+        var inventory = new AtomicReference<List<StarShip>>(List.of(small, medium));
+        InMemoryEventPublisher eventPublisher = new InMemoryEventPublisher();
+        AssembleAFleet assembleAFleet = new FleetAssembler(inventory::get, new InMemoryFleets(), eventPublisher);
+        assembleAFleet.forPassengers(40);
+
+        var enlargedMedium = new StarShip("m", 400, CargoCapacity.of("170000"));
+        inventory.set(List.of(large, enlargedMedium));
+        Fleet fleet = assembleAFleet.forPassengers(1_000);
+
+        assertThat(fleet.starships()).containsExactly(enlargedMedium, large);
+        List<InventoryChangedEvent> events = eventPublisher.getEventsOfType(InventoryChangedEvent.class);
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).added()).containsExactly(large);
+        assertThat(events.get(0).removed()).containsExactly(small);
+        assertThat(events.get(0).changed()).containsExactly(new StarShipChange(medium, enlargedMedium));
+        assertThat(events.get(0).inventorySize()).isEqualTo(2);
+    }
+
+    @Test
+    void should_assemble_a_fleet_out_of_the_starships_following_the_rules_of_the_mission() {
+        var small = new StarShip("s", 50, CargoCapacity.of("150000"));
+        var medium = new StarShip("m", 200, CargoCapacity.of("170000"));
+        var large = new StarShip("l", 800, CargoCapacity.of("150000"));
+        AssembleAFleet assembleAFleet = new FleetAssembler(
+                new StarShipInventoryStub(List.of(small, medium, large)), new InMemoryFleets(), new InMemoryEventPublisher());
+
+        var rules = RescueRules.DEFAULT.withMinimalCargoCapacity(CargoCapacity.of("160000"));
+
+        assertThat(assembleAFleet.forPassengers(100).starships()).containsExactly(small, medium);
+        assertThat(assembleAFleet.forPassengers(100, rules).starships()).containsExactly(medium);
+        assertThat(assembleAFleet.forPassengers(List.of(100, 300), rules))
+                .extracting(FleetAssemblyResult::isAssembled)
+                .containsExactly(true, false);
+    }
+
+    @Test
+    void should_assemble_the_fleets_of_requests_following_different_rules_out_of_a_single_load() {
+        var small = new StarShip("s", 50, CargoCapacity.of("150000"));
+        var medium = new StarShip("m", 200, CargoCapacity.of("170000"));
+        var large = new StarShip("l", 800, CargoCapacity.of("150000"));
+        var loads = new AtomicInteger();
+        List<StarShip> inventory = List.of(small, medium, large);
+        InMemoryEventPublisher eventPublisher = new InMemoryEventPublisher();
+        AssembleAFleet assembleAFleet = new FleetAssembler(() -> {
+            loads.incrementAndGet();
+            return inventory;
+        }, new InMemoryFleets(), eventPublisher);
+        var rules = RescueRules.DEFAULT.withMinimalCargoCapacity(CargoCapacity.of("160000"));
+
+        var results = assembleAFleet.forRequests(List.of(
+                new FleetRequest(100, RescueRules.DEFAULT),
+                new FleetRequest(100, rules),
+                new FleetRequest(null, rules),
+                new FleetRequest(300, rules)));
+
+        assertThat(results)
+                .extracting(result -> result.isAssembled() ? result.fleet().starships() : List.of())
+                .containsExactly(List.of(small, medium), List.of(medium), List.of(), List.of());
+        assertThat(loads).hasValue(1);
+        assertThat(eventPublisher.getEventsOfType(FleetAssembledEvent.class))
+                .extracting(FleetAssembledEvent::requestedPassengers)
+                .containsExactly(100, 100);
+    }
+
+    @Test
+    void should_assemble_fleets_for_one_off_rules_while_streaming_the_inventory() {
+        var inventory = StarShipColumns.of(List.of(
+                new StarShip("s", 50, CargoCapacity.of("150000")),
+                new StarShip("m", 200, CargoCapacity.of("170000")),
+                new StarShip("l", 800, CargoCapacity.of("150000")),
+                new StarShip("xs", 20, CargoCapacity.of("150000"))));
+        var indexingAssembler = new FleetAssembler(new StarShipInventoryStub(inventory), new InMemoryFleets(), new InMemoryEventPublisher());
+        var streamingAssembler = new FleetAssembler(new StarShipInventoryStub(inventory), new InMemoryFleets(), new InMemoryEventPublisher());
+        // past this many distinct rules, the starships following other rules are no longer indexed
+        for (int maximalPassengersCapacity = 1_000; maximalPassengersCapacity < 1_064; maximalPassengersCapacity++) {
+            streamingAssembler.forPassengers(1, RescueRules.DEFAULT.withPassengersCapacityBetween(1, maximalPassengersCapacity));
+        }
+
+        var rules = RescueRules.DEFAULT.withPassengersCapacityBetween(30, 900);
+
+        assertThat(streamingAssembler.forPassengers(240, rules).starships())
+                .containsExactlyElementsOf(indexingAssembler.forPassengers(240, rules).starships())
+                .extracting(StarShip::name)
+                .containsExactly("s", "m");
+        assertThatThrownBy(() -> streamingAssembler.forPassengers(1_100, rules))
+                .isInstanceOf(InsufficientStarShipsException.class)
+                .hasMessageContaining("1050 available");
+    }
+
+    @Test
+    void should_assemble_fleets_out_of_the_starships_no_other_fleet_reserved() {
+        var small = new StarShip("s", 50, CargoCapacity.of("150000"));
+        var medium = new StarShip("m", 200, CargoCapacity.of("170000"));
+        var large = new StarShip("l", 800, CargoCapacity.of("150000"));
+        var reservations = new InMemoryStarShipReservations();
+        AssembleAFleet assembleAFleet = new FleetAssembler(new StarShipInventoryStub(List.of(small, medium, large)),
+                new InMemoryFleets(), new InMemoryEventPublisher(), new SmallestFirstSelection(), reservations);
+
+        Fleet first = assembleAFleet.forPassengers(100);
+        assertThat(first.starships()).containsExactly(small, medium);
+        assertThat(assembleAFleet.forPassengers(100).starships()).containsExactly(large);
+        assertThatThrownBy(() -> assembleAFleet.forPassengers(1))
+                .isInstanceOf(InsufficientStarShipsException.class)
+                .hasMessageContaining("0 available");
+
+        reservations.release(first.id());
+        assertThat(assembleAFleet.forPassengers(List.of(40, 40, 40)))
+                .extracting(result -> result.isAssembled() ? result.fleet().starships() : List.of())
+                .containsExactly(List.of(small), List.of(medium), List.of());
+    }
+
+    @Test
+    void should_never_assemble_concurrent_fleets_sharing_a_starship() throws Exception {
+        List<StarShip> inventory = new ArrayList<>();
+        for (int ship = 0; ship < 2_000; ship++) {
+            inventory.add(new StarShip("ship-" + ship, 10 + ship % 90, CargoCapacity.of("150000")));
+        }
+        AssembleAFleet assembleAFleet = new FleetAssembler(new StarShipInventoryStub(inventory), new InMemoryFleets(),
+                new InMemoryEventPublisher(), new SmallestFirstSelection(), new InMemoryStarShipReservations());
+        Queue<Fleet> fleets = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        var start = new CountDownLatch(1);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int fleet = 0; fleet < 50; fleet++) {
+                        fleets.add(assembleAFleet.forPassengers(1 + ThreadLocalRandom.current().nextInt(200)));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Set<String> reservedStarShips = new HashSet<>();
+        for (Fleet fleet : fleets) {
+            for (StarShip starShip : fleet.starships()) {
+                assertThat(reservedStarShips.add(starShip.name()))
+                        .as("%s reserved by two fleets", starShip.name())
+                        .isTrue();
+            }
+        }
+        assertThat(fleets).hasSize(400);
+    }
 }
@@ -2,6 +2,8 @@ package rebelsrescue.fleet;
 
 import org.junit.jupiter.api.Test;
 
+import java.math.BigDecimal;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -34,5 +36,44 @@ class CargoCapacityTest {
         assertThat(capacity1.isSufficientFor(capacity2)).isTrue();
         assertThat(capacity2.isSufficientFor(capacity1)).isFalse();
     }
-}
 
+    @Test
+    void should_compare_whole_and_decimal_cargo_capacities() {
+        CargoCapacity whole = CargoCapacity.of(100000L);
+        CargoCapacity fraction = CargoCapacity.of("99999.5");
+        CargoCapacity huge = CargoCapacity.of("100000000000000000000000");
+
+        assertThat(whole.isSufficientFor(fraction)).isTrue();
+        assertThat(fraction.isSufficientFor(whole)).isFalse();
+        assertThat(huge.isSufficientFor(whole)).isTrue();
+        assertThat(whole.isSufficientFor(huge)).isFalse();
+        assertThat(CargoCapacity.of("100000.0").isSufficientFor(whole)).isTrue();
+    }
+
+    @Test
+    void should_be_equal_when_values_are_equal_with_the_same_scale() {
+        assertThat(CargoCapacity.of("100000")).isEqualTo(CargoCapacity.of(100000L))
+                .hasSameHashCodeAs(CargoCapacity.of(100000L));
+        assertThat(CargoCapacity.of("2.50")).isEqualTo(new CargoCapacity(new BigDecimal("2.50")));
+        assertThat(CargoCapacity.of("100000.0")).isNotEqualTo(CargoCapacity.of(100000L));
+        assertThat(CargoCapacity.of("1E+5")).isNotEqualTo(CargoCapacity.of(100000L));
+        assertThat(CargoCapacity.of(Long.MAX_VALUE).value()).isEqualTo(BigDecimal.valueOf(Long.MAX_VALUE));
+        assertThat(CargoCapacity.of("9223372036854775808").value()).isEqualTo(new BigDecimal("9223372036854775808"));
+    }
+
+    @Test
+    void should_describe_the_cargo_capacity() {
+        assertThat(CargoCapacity.of(100000L)).hasToString("CargoCapacity[value=100000]");
+        assertThat(CargoCapacity.of("2.50")).hasToString("CargoCapacity[value=2.50]");
+    }
+
+    @Test
+    void should_reject_negative_capacity() {
+        assertThatThrownBy(() -> CargoCapacity.of(-1L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Cargo capacity cannot be negative");
+        assertThatThrownBy(() -> CargoCapacity.of("-0.5"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Cargo capacity cannot be negative");
+    }
+}
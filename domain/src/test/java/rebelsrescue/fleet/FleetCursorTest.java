@@ -0,0 +1,41 @@
+package rebelsrescue.fleet;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FleetCursorTest {
+
+    private static final Instant CREATED_AT = Instant.parse("2024-01-01T12:34:56.789012345Z");
+
+    @Test
+    void should_read_a_cursor_back_from_its_token() {
+        var cursor = new FleetCursor(CREATED_AT, UUID.randomUUID());
+
+        assertThat(cursor.asToken()).matches("[A-Za-z0-9_-]+");
+        assertThat(FleetCursor.fromToken(cursor.asToken())).isEqualTo(cursor);
+    }
+
+    @Test
+    void should_order_cursors_by_creation_time_then_id() {
+        var first = new FleetCursor(CREATED_AT, new UUID(0, 2));
+        var second = new FleetCursor(CREATED_AT, new UUID(0, 3));
+        var third = new FleetCursor(CREATED_AT.plusNanos(1), new UUID(0, 1));
+
+        assertThat(first).isLessThan(second);
+        assertThat(second).isLessThan(third);
+    }
+
+    @Test
+    void should_reject_a_token_that_is_not_a_cursor() {
+        assertThatThrownBy(() -> FleetCursor.fromToken("not a cursor"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid fleet cursor");
+        assertThatThrownBy(() -> FleetCursor.fromToken("AAAA"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,125 @@
+package rebelsrescue.fleet;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InventoryDiffTest {
+
+    private static final StarShip X_WING = new StarShip("X-Wing", 0, CargoCapacity.of(100_000L));
+    private static final StarShip FALCON = new StarShip("Millennium Falcon", 6, CargoCapacity.of(100_000L));
+    private static final StarShip CORVETTE = new StarShip("CR90 corvette", 600, CargoCapacity.of(300_000L));
+    private static final StarShip CRUISER = new StarShip("Mon Calamari Star Cruisers", 1200, CargoCapacity.of(200_000L));
+
+    private final Random random = new Random(1977);
+
+    @Test
+    void should_find_no_difference_between_equal_loads() {
+        var diff = InventoryDiff.between(List.of(X_WING, FALCON, CORVETTE), StarShipColumns.of(List.of(X_WING, FALCON, CORVETTE)));
+
+        assertThat(diff.isEmpty()).isTrue();
+        assertThat(diff.churn()).isZero();
+    }
+
+    @Test
+    void should_find_the_added_removed_and_changed_starships() {
+        var refitCorvette = new StarShip("CR90 corvette", 650, CargoCapacity.of(300_000L));
+
+        var diff = InventoryDiff.between(List.of(X_WING, FALCON, CORVETTE), List.of(CRUISER, refitCorvette, X_WING));
+
+        assertThat(diff.added()).containsExactly(CRUISER);
+        assertThat(diff.removed()).containsExactly(FALCON);
+        assertThat(diff.changed()).containsExactly(new StarShipChange(CORVETTE, refitCorvette));
+        assertThat(diff.churn()).isEqualTo(3);
+    }
+
+    @Test
+    void should_count_the_starships_listed_several_times() {
+        var diff = InventoryDiff.between(List.of(FALCON, FALCON, CRUISER), List.of(FALCON, CRUISER, CRUISER));
+
+        assertThat(diff.added()).containsExactly(CRUISER);
+        assertThat(diff.removed()).containsExactly(FALCON);
+        assertThat(diff.changed()).isEmpty();
+    }
+
+    @Test
+    void should_pair_up_only_the_starships_around_an_insertion_at_the_head() {
+        List<StarShip> previous = randomInventory(100_000);
+        List<StarShip> current = new ArrayList<>(previous);
+        current.add(0, CRUISER);
+
+        var diff = InventoryDiff.between(StarShipColumns.of(previous), StarShipColumns.of(current));
+
+        assertThat(diff.added()).containsExactly(CRUISER);
+        assertThat(diff.removed()).isEmpty();
+        assertThat(diff.changed()).isEmpty();
+        assertThat(diff.unmatchedStarShips()).isEqualTo(diff.churn());
+    }
+
+    @Test
+    void should_keep_the_work_proportional_to_the_churn() {
+        List<StarShip> previous = randomInventory(100_000);
+        for (int reload = 0; reload < 20; reload++) {
+            List<StarShip> current = churned(previous);
+
+            var diff = InventoryDiff.between(StarShipColumns.of(previous), StarShipColumns.of(current));
+
+            assertThat(diff.unmatchedStarShips()).isLessThanOrEqualTo(2 * diff.churn());
+            previous = current;
+        }
+    }
+
+    @Test
+    void should_update_the_eligible_starships_like_a_new_index() {
+        List<StarShip> previous = randomInventory(2_000);
+        var index = RescueEligibleStarShips.of(StarShipColumns.of(previous));
+        for (int reload = 0; reload < 50; reload++) {
+            List<StarShip> current = reload % 10 == 9 ? shuffled(previous) : churned(previous);
+            var diff = InventoryDiff.between(reload % 2 == 0 ? StarShipColumns.of(previous) : previous, StarShipColumns.of(current));
+
+            index = index.updatedWith(diff);
+
+            var expected = RescueEligibleStarShips.of(current);
+            assertThat(index.size()).isEqualTo(expected.size());
+            assertThat(index.smallestFirst(index.size())).isEqualTo(expected.smallestFirst(expected.size()));
+            assertThat(index.totalPassengerCapacity()).isEqualTo(expected.totalPassengerCapacity());
+            previous = current;
+        }
+    }
+
+    private List<StarShip> randomInventory(int size) {
+        List<StarShip> inventory = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            inventory.add(randomStarShip("Ship " + i));
+        }
+        return inventory;
+    }
+
+    private StarShip randomStarShip(String name) {
+        return new StarShip(name, random.nextInt(10) * 10, CargoCapacity.of(random.nextInt(200_000)));
+    }
+
+    private List<StarShip> churned(List<StarShip> inventory) {
+        List<StarShip> churned = new ArrayList<>(inventory);
+        for (int change = random.nextInt(20); change > 0; change--) {
+            int position = random.nextInt(churned.size());
+            switch (random.nextInt(3)) {
+                case 0 -> churned.add(position, randomStarShip("New ship " + random.nextInt()));
+                case 1 -> churned.remove(position);
+                default -> churned.set(position, randomStarShip(churned.get(position).name()));
+            }
+        }
+        return churned;
+    }
+
+    private List<StarShip> shuffled(List<StarShip> inventory) {
+        List<StarShip> shuffled = new ArrayList<>(inventory);
+        Collections.shuffle(shuffled, random);
+        return shuffled;
+    }
+}
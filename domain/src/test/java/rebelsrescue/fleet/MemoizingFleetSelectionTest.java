@@ -0,0 +1,163 @@
+package rebelsrescue.fleet;
+
+import org.junit.jupiter.api.Test;
+import rebelsrescue.fleet.events.FleetAssembledEvent;
+import rebelsrescue.fleet.events.stubs.InMemoryEventPublisher;
+import rebelsrescue.fleet.specifications.RescueRules;
+import rebelsrescue.fleet.spi.stubs.InMemoryFleets;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemoizingFleetSelectionTest {
+
+    private static final StarShip FALCON = new StarShip("Millennium Falcon", 6, CargoCapacity.of(100_000L));
+    private static final StarShip CORVETTE = new StarShip("CR90 corvette", 600, CargoCapacity.of(300_000L));
+    private static final StarShip CRUISER = new StarShip("Mon Calamari Star Cruisers", 1200, CargoCapacity.of(200_000L));
+
+    private final AtomicInteger selections = new AtomicInteger();
+    private final FleetSelectionStrategy countingSelection = (starShips, passengerCount) -> {
+        selections.incrementAndGet();
+        return new SmallestFirstSelection().select(starShips, passengerCount);
+    };
+
+    @Test
+    void should_select_the_starships_once_per_passenger_count() {
+        var memoizing = new MemoizingFleetSelection(countingSelection, 10);
+        var index = RescueEligibleStarShips.of(List.of(FALCON, CORVETTE, CRUISER));
+
+        var first = memoizing.select(index, new PassengerCount(500));
+        var second = memoizing.select(index, new PassengerCount(500));
+        memoizing.select(index, new PassengerCount(5));
+
+        assertThat(second).isEqualTo(first).containsExactly(FALCON, CORVETTE);
+        assertThat(selections).hasValue(2);
+        assertThat(memoizing.hits()).isEqualTo(1);
+        assertThat(memoizing.misses()).isEqualTo(2);
+        assertThat(memoizing.size()).isEqualTo(2);
+    }
+
+    @Test
+    void should_keep_the_selections_apart_per_rules_of_the_mission() {
+        var memoizing = new MemoizingFleetSelection(countingSelection, 10);
+        var inventory = List.of(FALCON, CORVETTE, CRUISER);
+
+        var byDefault = memoizing.select(RescueEligibleStarShips.of(inventory), new PassengerCount(5));
+        var withoutFalcon = memoizing.select(RescueEligibleStarShips.of(inventory,
+                RescueRules.DEFAULT.withPassengersCapacityBetween(10, Integer.MAX_VALUE)), new PassengerCount(5));
+
+        assertThat(byDefault).containsExactly(FALCON);
+        assertThat(withoutFalcon).containsExactly(CORVETTE);
+        assertThat(memoizing.misses()).isEqualTo(2);
+    }
+
+    @Test
+    void should_drop_the_selections_out_of_a_previous_index() {
+        var memoizing = new MemoizingFleetSelection(countingSelection, 10);
+        var previous = RescueEligibleStarShips.of(List.of(FALCON, CORVETTE, CRUISER));
+        memoizing.select(previous, new PassengerCount(5));
+        memoizing.select(previous, new PassengerCount(500));
+
+        var current = RescueEligibleStarShips.of(List.of(CORVETTE, CRUISER));
+        var selection = memoizing.select(current, new PassengerCount(5));
+
+        assertThat(selection).containsExactly(CORVETTE);
+        assertThat(memoizing.invalidations()).isEqualTo(2);
+        assertThat(memoizing.size()).isEqualTo(1);
+        assertThat(memoizing.select(previous, new PassengerCount(5))).containsExactly(FALCON);
+        assertThat(memoizing.size()).isEqualTo(1);
+    }
+
+    @Test
+    void should_keep_the_selections_while_starships_are_excluded() {
+        var memoizing = new MemoizingFleetSelection(countingSelection, 10);
+        var index = RescueEligibleStarShips.of(List.of(FALCON, CORVETTE, CRUISER));
+        memoizing.select(index, new PassengerCount(5));
+        memoizing.select(index, new PassengerCount(500));
+
+        var withoutFalcon = index.excludingNamed(FALCON.name()::equals);
+
+        assertThat(memoizing.select(withoutFalcon, new PassengerCount(5))).containsExactly(CORVETTE);
+        assertThat(memoizing.select(withoutFalcon, new PassengerCount(1000))).containsExactly(CORVETTE, CRUISER);
+        assertThat(memoizing.invalidations()).isZero();
+        assertThat(memoizing.size()).isEqualTo(2);
+        assertThat(memoizing.select(index.excludingNamed(CRUISER.name()::equals), new PassengerCount(500))).containsExactly(FALCON, CORVETTE);
+        assertThat(memoizing.select(index, new PassengerCount(5))).containsExactly(FALCON);
+        assertThat(memoizing.hits()).isEqualTo(2);
+        assertThat(selections).hasValue(4);
+    }
+
+    @Test
+    void should_not_remember_the_selections_out_of_a_one_off_index() {
+        var memoizing = new MemoizingFleetSelection(countingSelection, 10);
+        var inventory = List.of(FALCON, CORVETTE, CRUISER);
+        var rules = RescueRules.DEFAULT.withPassengersCapacityBetween(10, Integer.MAX_VALUE);
+        var index = RescueEligibleStarShips.of(inventory);
+        memoizing.select(index, new PassengerCount(5));
+
+        memoizing.select(RescueEligibleStarShips.oneOff(inventory, rules), new PassengerCount(5));
+        memoizing.select(RescueEligibleStarShips.oneOff(inventory, rules), new PassengerCount(5));
+
+        assertThat(memoizing.size()).isEqualTo(1);
+        assertThat(memoizing.select(index, new PassengerCount(5))).containsExactly(FALCON);
+        assertThat(memoizing.hits()).isEqualTo(1);
+        assertThat(selections).hasValue(3);
+    }
+
+    @Test
+    void should_evict_the_least_recently_used_selections() {
+        var memoizing = new MemoizingFleetSelection(countingSelection, 2);
+        var index = RescueEligibleStarShips.of(List.of(FALCON, CORVETTE, CRUISER));
+        memoizing.select(index, new PassengerCount(1));
+        memoizing.select(index, new PassengerCount(2));
+        memoizing.select(index, new PassengerCount(1));
+
+        memoizing.select(index, new PassengerCount(3));
+        memoizing.select(index, new PassengerCount(1));
+
+        assertThat(memoizing.size()).isEqualTo(2);
+        assertThat(memoizing.evictions()).isEqualTo(1);
+        assertThat(memoizing.hits()).isEqualTo(2);
+    }
+
+    @Test
+    void should_assemble_a_new_fleet_out_of_a_memoized_selection() {
+        var inventory = new AtomicReference<List<StarShip>>(List.of(FALCON, CORVETTE, CRUISER));
+        var eventPublisher = new InMemoryEventPublisher();
+        var memoizing = new MemoizingFleetSelection(countingSelection, 10);
+        var fleetAssembler = new FleetAssembler(inventory::get, new InMemoryFleets(), eventPublisher, memoizing);
+
+        Fleet first = fleetAssembler.forPassengers(500);
+        Fleet second = fleetAssembler.forPassengers(500);
+        inventory.set(List.of(CORVETTE, CRUISER));
+        Fleet third = fleetAssembler.forPassengers(500);
+
+        assertThat(second.id()).isNotEqualTo(first.id());
+        assertThat(second.starships()).isEqualTo(first.starships());
+        assertThat(third.starships()).containsExactly(CORVETTE);
+        assertThat(selections).hasValue(2);
+        assertThat(eventPublisher.getEventsOfType(FleetAssembledEvent.class))
+                .extracting(FleetAssembledEvent::fleetId)
+                .containsExactly(first.id(), second.id(), third.id());
+    }
+
+    @Test
+    void should_select_while_streaming_only_when_its_delegate_does() {
+        var streaming = MemoizingFleetSelection.of(new SmallestFirstSelection(), 10);
+
+        assertThat(streaming).isInstanceOf(StreamingFleetSelection.class);
+        assertThat(((StreamingFleetSelection) streaming).select(List.of(CRUISER, FALCON).stream(), RescueRules.DEFAULT,
+                new PassengerCount(5))).containsExactly(FALCON);
+        assertThat(streaming.size()).isZero();
+        assertThat(MemoizingFleetSelection.of(countingSelection, 10)).isNotInstanceOf(StreamingFleetSelection.class);
+    }
+
+    @Test
+    void should_reject_a_non_positive_size() {
+        assertThatThrownBy(() -> new MemoizingFleetSelection(countingSelection, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
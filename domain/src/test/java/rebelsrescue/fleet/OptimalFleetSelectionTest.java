@@ -0,0 +1,137 @@
+package rebelsrescue.fleet;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static rebelsrescue.fleet.OptimalFleetSelection.Objective.FEWEST_STARSHIPS;
+import static rebelsrescue.fleet.OptimalFleetSelection.Objective.LEAST_OVERCAPACITY;
+
+class OptimalFleetSelectionTest {
+
+    private static final StarShip FALCON = starShip("Millennium Falcon", 6);
+    private static final StarShip CORVETTE = starShip("CR90 corvette", 600);
+    private static final StarShip FRIGATE = starShip("EF76 Nebulon-B escort frigate", 800);
+    private static final StarShip CRUISER = starShip("Mon Calamari Star Cruisers", 1200);
+
+    private final RescueEligibleStarShips rebelStarShips = RescueEligibleStarShips.of(List.of(FALCON, CORVETTE, FRIGATE, CRUISER));
+
+    @Test
+    void should_pick_the_single_starship_able_to_carry_everyone() {
+        var selection = new OptimalFleetSelection(FEWEST_STARSHIPS, Duration.ofSeconds(1));
+
+        assertThat(selection.select(rebelStarShips, new PassengerCount(1000))).containsExactly(CRUISER);
+        assertThat(new SmallestFirstSelection().select(rebelStarShips, new PassengerCount(1000)))
+                .containsExactly(FALCON, CORVETTE, FRIGATE);
+    }
+
+    @Test
+    void should_assemble_the_fewest_starships_then_the_least_overcapacity() {
+        var selection = new OptimalFleetSelection(FEWEST_STARSHIPS, Duration.ofSeconds(1));
+
+        assertThat(selection.select(rebelStarShips, new PassengerCount(1400))).containsExactly(CORVETTE, FRIGATE);
+        assertThat(selection.select(rebelStarShips, new PassengerCount(2000))).containsExactly(FRIGATE, CRUISER);
+    }
+
+    @Test
+    void should_assemble_the_least_overcapacity_then_the_fewest_starships() {
+        var starShips = RescueEligibleStarShips.of(List.of(
+                starShip("a", 500), starShip("b", 500), starShip("c", 500), starShip("d", 1400), starShip("e", 1600)));
+        var selection = new OptimalFleetSelection(LEAST_OVERCAPACITY, Duration.ofSeconds(1));
+
+        assertThat(selection.select(starShips, new PassengerCount(1500)))
+                .extracting(StarShip::passengersCapacity)
+                .containsExactly(500, 500, 500);
+        assertThat(new OptimalFleetSelection(FEWEST_STARSHIPS, Duration.ofSeconds(1)).select(starShips, new PassengerCount(1500)))
+                .extracting(StarShip::passengersCapacity)
+                .containsExactly(1600);
+    }
+
+    @Test
+    void should_match_an_exhaustive_search_on_small_inventories() {
+        var random = new Random(66);
+        for (int round = 0; round < 200; round++) {
+            int[] capacities = new int[1 + random.nextInt(12)];
+            List<StarShip> inventory = new ArrayList<>();
+            for (int ship = 0; ship < capacities.length; ship++) {
+                capacities[ship] = 1 + random.nextInt(50);
+                inventory.add(starShip("ship-" + ship, capacities[ship]));
+            }
+            var starShips = RescueEligibleStarShips.of(inventory);
+            int passengers = 1 + random.nextInt((int) starShips.totalPassengerCapacity());
+
+            int fewestShips = Integer.MAX_VALUE;
+            int leastCapacity = Integer.MAX_VALUE;
+            for (int subset = 1; subset < 1 << capacities.length; subset++) {
+                int capacity = 0;
+                for (int ship = 0; ship < capacities.length; ship++) {
+                    capacity += (subset >> ship & 1) * capacities[ship];
+                }
+                if (capacity >= passengers) {
+                    fewestShips = Math.min(fewestShips, Integer.bitCount(subset));
+                    leastCapacity = Math.min(leastCapacity, capacity);
+                }
+            }
+
+            var fewest = new OptimalFleetSelection(FEWEST_STARSHIPS, Duration.ofSeconds(1)).select(starShips, new PassengerCount(passengers));
+            var leastOverCapacity = new OptimalFleetSelection(LEAST_OVERCAPACITY, Duration.ofSeconds(1)).select(starShips, new PassengerCount(passengers));
+
+            assertThat(fewest).hasSize(fewestShips);
+            assertThat(StarShip.totalPassengerCapacity(leastOverCapacity)).isEqualTo(leastCapacity);
+        }
+    }
+
+    @Test
+    void should_never_do_worse_than_smallest_first() {
+        var random = new Random(1977);
+        for (int round = 0; round < 200; round++) {
+            List<StarShip> inventory = new ArrayList<>();
+            for (int ship = 0; ship < 1 + random.nextInt(30); ship++) {
+                inventory.add(starShip("ship-" + ship, 1 + random.nextInt(300)));
+            }
+            var starShips = RescueEligibleStarShips.of(inventory);
+            var passengers = new PassengerCount(1 + random.nextInt((int) starShips.totalPassengerCapacity()));
+
+            var greedy = new SmallestFirstSelection().select(starShips, passengers);
+            var fewest = new OptimalFleetSelection(FEWEST_STARSHIPS, Duration.ofSeconds(1)).select(starShips, passengers);
+            var leastOverCapacity = new OptimalFleetSelection(LEAST_OVERCAPACITY, Duration.ofSeconds(1)).select(starShips, passengers);
+
+            assertThat(StarShip.totalPassengerCapacity(fewest)).isGreaterThanOrEqualTo(passengers.value());
+            assertThat(StarShip.totalPassengerCapacity(leastOverCapacity)).isGreaterThanOrEqualTo(passengers.value());
+            assertThat(fewest.size()).isLessThanOrEqualTo(greedy.size());
+            assertThat(StarShip.totalPassengerCapacity(leastOverCapacity)).isLessThanOrEqualTo(StarShip.totalPassengerCapacity(greedy));
+            assertThat(inventory).containsAll(fewest).containsAll(leastOverCapacity);
+            assertThat(fewest).doesNotHaveDuplicates();
+            assertThat(leastOverCapacity).doesNotHaveDuplicates();
+        }
+    }
+
+    @Test
+    void should_keep_the_best_known_fleet_beyond_the_capacities_worth_solving() {
+        var huge = starShip("Death Star", Integer.MAX_VALUE);
+        var large = starShip("Executor", 5_000_000);
+
+        assertThat(new OptimalFleetSelection(LEAST_OVERCAPACITY, Duration.ofSeconds(1))
+                .select(RescueEligibleStarShips.of(List.of(FALCON, huge)), new PassengerCount(7)))
+                .containsExactly(huge);
+        assertThat(new OptimalFleetSelection(LEAST_OVERCAPACITY, Duration.ofSeconds(1))
+                .select(RescueEligibleStarShips.of(List.of(FALCON, FALCON, large)), new PassengerCount(13)))
+                .containsExactly(large);
+    }
+
+    @Test
+    void should_fall_back_to_smallest_first_when_the_time_budget_is_exhausted() {
+        var selection = new OptimalFleetSelection(LEAST_OVERCAPACITY, Duration.ZERO);
+
+        assertThat(selection.select(rebelStarShips, new PassengerCount(1400)))
+                .isEqualTo(new SmallestFirstSelection().select(rebelStarShips, new PassengerCount(1400)));
+    }
+
+    private static StarShip starShip(String name, int passengersCapacity) {
+        return new StarShip(name, passengersCapacity, CargoCapacity.of(100_000L));
+    }
+}
@@ -0,0 +1,80 @@
+package rebelsrescue.fleet;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RescueEligibleStarShipsTest {
+
+    private static final StarShip X_WING = new StarShip("X-Wing", 0, CargoCapacity.of(100_000L));
+    private static final StarShip FALCON = new StarShip("Millennium Falcon", 6, CargoCapacity.of(100_000L));
+    private static final StarShip TRANSPORT = new StarShip("Rebel transport", 90, CargoCapacity.of(80_000L));
+    private static final StarShip CORVETTE = new StarShip("CR90 corvette", 600, CargoCapacity.of(300_000L));
+    private static final StarShip CRUISER = new StarShip("Mon Calamari Star Cruisers", 1200, CargoCapacity.of(200_000L));
+
+    private final RescueEligibleStarShips index =
+            RescueEligibleStarShips.of(List.of(CRUISER, X_WING, TRANSPORT, CORVETTE, FALCON));
+
+    @Test
+    void should_keep_only_the_ships_suitable_for_rescue_sorted_by_capacity() {
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.smallestFirst(3)).containsExactly(FALCON, CORVETTE, CRUISER);
+        assertThat(index.capacityAt(1)).isEqualTo(600);
+        assertThat(index.starShipAt(2)).isEqualTo(CRUISER);
+    }
+
+    @Test
+    void should_compute_the_total_capacity_of_the_eligible_ships() {
+        assertThat(index.totalPassengerCapacity()).isEqualTo(1806);
+    }
+
+    @Test
+    void should_count_the_smallest_ships_needed_for_the_passengers() {
+        assertThat(index.smallestFirstCountFor(1)).isEqualTo(1);
+        assertThat(index.smallestFirstCountFor(6)).isEqualTo(1);
+        assertThat(index.smallestFirstCountFor(7)).isEqualTo(2);
+        assertThat(index.smallestFirstCountFor(606)).isEqualTo(2);
+        assertThat(index.smallestFirstCountFor(1806)).isEqualTo(3);
+    }
+
+    @Test
+    void should_not_find_enough_ships_beyond_the_total_capacity() {
+        assertThat(index.smallestFirstCountFor(1807)).isEqualTo(-1);
+        assertThat(RescueEligibleStarShips.of(List.of(X_WING)).smallestFirstCountFor(1)).isEqualTo(-1);
+    }
+
+    @Test
+    void should_keep_the_inventory_order_of_ships_with_the_same_capacity() {
+        var twin = new StarShip("Millennium Falcon twin", 6, CargoCapacity.of(100_000L));
+
+        var index = RescueEligibleStarShips.of(List.of(CORVETTE, twin, FALCON));
+
+        assertThat(index.smallestFirst(2)).containsExactly(twin, FALCON);
+    }
+
+    @Test
+    void should_drop_the_excluded_ships_from_a_copy_of_the_index() {
+        var withoutCorvette = index.excludingNamed(CORVETTE.name()::equals);
+
+        assertThat(withoutCorvette.smallestFirst(2)).containsExactly(FALCON, CRUISER);
+        assertThat(withoutCorvette.totalPassengerCapacity()).isEqualTo(1206);
+        assertThat(withoutCorvette.version()).isEqualTo(index.version());
+        assertThat(withoutCorvette.excludesAnyOf(List.of(FALCON, CORVETTE))).isTrue();
+        assertThat(withoutCorvette.excludesAnyOf(List.of(FALCON))).isFalse();
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.excludingNamed(X_WING.name()::equals)).isSameAs(index);
+    }
+
+    @Test
+    void should_drop_the_excluded_ships_of_a_columns_inventory() {
+        var columns = StarShipColumns.of(List.of(CORVETTE, X_WING, FALCON, CRUISER));
+        var columnsIndex = RescueEligibleStarShips.of(columns);
+
+        var withoutCorvette = columnsIndex.excludingNamed(CORVETTE.name()::equals);
+
+        assertThat(withoutCorvette.smallestFirst(2)).containsExactly(FALCON, CRUISER);
+        assertThat(withoutCorvette.version()).isEqualTo(columnsIndex.version());
+    }
+}
@@ -0,0 +1,85 @@
+package rebelsrescue.fleet;
+
+import org.junit.jupiter.api.Test;
+import rebelsrescue.fleet.specifications.RescueRules;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SmallestFirstSelectionTest {
+
+    private static final StarShip FALCON = starShip("Millennium Falcon", 6);
+    private static final StarShip CORVETTE = starShip("CR90 corvette", 600);
+    private static final StarShip FRIGATE = starShip("EF76 Nebulon-B escort frigate", 800);
+    private static final StarShip CRUISER = starShip("Mon Calamari Star Cruisers", 1200);
+
+    private final SmallestFirstSelection selection = new SmallestFirstSelection();
+
+    @Test
+    void should_select_the_smallest_starships_while_streaming_them() {
+        var inventory = List.of(CRUISER, FALCON, FRIGATE, CORVETTE);
+
+        assertThat(selection.select(inventory.stream(), RescueRules.DEFAULT, new PassengerCount(1000)))
+                .containsExactly(FALCON, CORVETTE, FRIGATE);
+        assertThat(selection.select(inventory.stream(), RescueRules.DEFAULT.withExcludedNames(Set.of(FALCON.name())),
+                new PassengerCount(600)))
+                .containsExactly(CORVETTE);
+    }
+
+    @Test
+    void should_select_the_same_starships_as_out_of_the_index() {
+        var random = new Random(23);
+        for (int round = 0; round < 500; round++) {
+            List<StarShip> inventory = new ArrayList<>();
+            for (int ship = 0, size = 1 + random.nextInt(200); ship < size; ship++) {
+                // few distinct capacities, so that ties have to keep the inventory order
+                inventory.add(starShip("ship-" + ship, random.nextInt(20)));
+            }
+            var rules = RescueRules.DEFAULT.withPassengersCapacityBetween(1 + random.nextInt(5), 15 + random.nextInt(10));
+            var index = RescueEligibleStarShips.of(inventory, rules);
+            if (index.isEmpty()) {
+                continue;
+            }
+            var passengerCount = new PassengerCount(1 + random.nextInt((int) index.totalPassengerCapacity()));
+
+            assertThat(selection.select(inventory.stream(), rules, passengerCount))
+                    .containsExactlyElementsOf(selection.select(index, passengerCount));
+        }
+    }
+
+    @Test
+    void should_stop_reading_once_no_later_starship_can_replace_the_selected_ones() {
+        var rules = RescueRules.DEFAULT.withPassengersCapacityBetween(10, 1000);
+        var read = new AtomicInteger();
+        Stream<StarShip> endlessInventory = Stream.iterate(0, ship -> ship + 1)
+                .peek(ship -> read.incrementAndGet())
+                .map(ship -> starShip("ship-" + ship, ship % 3 == 0 ? 10 : 500));
+
+        assertThat(selection.select(endlessInventory, rules, new PassengerCount(25)))
+                .extracting(StarShip::name)
+                .containsExactly("ship-0", "ship-3", "ship-6");
+        assertThat(read).hasValue(7);
+    }
+
+    @Test
+    void should_report_the_capacity_of_the_starships_following_the_rules_when_insufficient() {
+        var rules = RescueRules.DEFAULT.withExcludedNames(Set.of(CRUISER.name()));
+
+        assertThatThrownBy(() -> selection.select(Stream.of(CRUISER, FALCON, FRIGATE), rules, new PassengerCount(1000)))
+                .isInstanceOf(InsufficientStarShipsException.class)
+                .hasMessageContaining("806");
+        assertThatThrownBy(() -> selection.select(Stream.of(CRUISER), rules, new PassengerCount(1)))
+                .isInstanceOf(InsufficientStarShipsException.class);
+    }
+
+    private static StarShip starShip(String name, int passengersCapacity) {
+        return new StarShip(name, passengersCapacity, CargoCapacity.of(100_000L));
+    }
+}
@@ -0,0 +1,90 @@
+package rebelsrescue.fleet;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static rebelsrescue.fleet.specifications.StarShipSpecifications.isSuitableForRescue;
+import static rebelsrescue.fleet.specifications.StarShipSpecifications.suitableForRescue;
+
+class StarShipColumnsTest {
+
+    private static final StarShip X_WING = new StarShip("X-Wing", 0, CargoCapacity.of(100_000L));
+    private static final StarShip FALCON = new StarShip("Millennium Falcon", 6, CargoCapacity.of(100_000L));
+    private static final StarShip TRANSPORT = new StarShip("Rebel transport", 90, CargoCapacity.of("99999.5"));
+    private static final StarShip CORVETTE = new StarShip("CR90 corvette", 600, CargoCapacity.of("3E+5"));
+    private static final StarShip CRUISER = new StarShip("Mon Calamari Star Cruisers", 1200, CargoCapacity.of(200_000L));
+
+    private final List<StarShip> starShips = List.of(CRUISER, X_WING, TRANSPORT, CORVETTE, FALCON, CRUISER);
+    private final StarShipColumns columns = StarShipColumns.of(starShips);
+
+    @Test
+    void should_materialize_the_same_starships() {
+        assertThat(columns).containsExactlyElementsOf(starShips);
+        assertThat(columns).isEqualTo(starShips);
+        assertThat(columns.cargoCapacityAt(3)).isEqualTo(CargoCapacity.of("3E+5"));
+    }
+
+    @Test
+    void should_compute_the_passenger_capacities_from_the_columns() {
+        assertThat(columns.totalPassengerCapacity()).isEqualTo(3096);
+        assertThat(columns.cumulativePassengerCapacities()).containsExactly(1200, 1200, 1290, 1890, 1896, 3096);
+        assertThat(StarShip.totalPassengerCapacity(columns)).isEqualTo(StarShip.totalPassengerCapacity(starShips));
+    }
+
+    @Test
+    void should_find_the_starships_suitable_for_rescue() {
+        var suitable = suitableForRescue(columns);
+
+        assertThat(suitable.stream()).containsExactly(0, 3, 4, 5);
+        assertThat(columns.totalPassengerCapacity(suitable)).isEqualTo(3006);
+    }
+
+    @Test
+    void should_find_the_same_suitable_starships_as_the_specification() {
+        Random random = new Random(1977);
+        List<StarShip> inventory = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            CargoCapacity cargoCapacity = random.nextInt(10) == 0
+                    ? new CargoCapacity(BigDecimal.valueOf(random.nextInt(20_000_000), 2))
+                    : CargoCapacity.of(random.nextInt(200_000));
+            inventory.add(new StarShip("Ship " + random.nextInt(50), random.nextInt(3), cargoCapacity));
+        }
+        var columns = StarShipColumns.of(inventory);
+
+        var suitable = suitableForRescue(columns);
+
+        for (int i = 0; i < inventory.size(); i++) {
+            assertThat(suitable.get(i)).isEqualTo(isSuitableForRescue().test(inventory.get(i)));
+        }
+        assertThat(columns).isEqualTo(inventory);
+    }
+
+    @Test
+    void should_index_the_eligible_starships_like_a_list() {
+        var fromColumns = RescueEligibleStarShips.of(columns);
+        var fromList = RescueEligibleStarShips.of(starShips);
+
+        assertThat(fromColumns.size()).isEqualTo(fromList.size());
+        assertThat(fromColumns.smallestFirst(fromColumns.size())).containsExactly(FALCON, CORVETTE, CRUISER, CRUISER);
+        assertThat(fromColumns.smallestFirst(fromColumns.size())).isEqualTo(fromList.smallestFirst(fromList.size()));
+        assertThat(fromColumns.totalPassengerCapacity()).isEqualTo(fromList.totalPassengerCapacity());
+    }
+
+    @Test
+    void should_be_immutable() {
+        assertThatThrownBy(() -> columns.add(FALCON)).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> columns.set(0, FALCON)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void should_reject_invalid_starships() {
+        assertThatThrownBy(() -> StarShipColumns.builder().add(" ", 1, CargoCapacity.of(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
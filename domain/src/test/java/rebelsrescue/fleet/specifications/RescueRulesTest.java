@@ -0,0 +1,106 @@
+package rebelsrescue.fleet.specifications;
+
+import org.junit.jupiter.api.Test;
+import rebelsrescue.fleet.CargoCapacity;
+import rebelsrescue.fleet.StarShip;
+import rebelsrescue.fleet.StarShipColumns;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static rebelsrescue.fleet.specifications.StarShipSpecifications.hasPassengerCapacity;
+import static rebelsrescue.fleet.specifications.StarShipSpecifications.hasSufficientCargoCapacity;
+
+class RescueRulesTest {
+
+    private static final StarShip FALCON = new StarShip("Millennium Falcon", 6, CargoCapacity.of(100_000L));
+    private static final StarShip TRANSPORT = new StarShip("Rebel transport", 90, CargoCapacity.of(80_000L));
+    private static final StarShip CORVETTE = new StarShip("CR90 corvette", 600, CargoCapacity.of(3_000_000L));
+    private static final StarShip CRUISER = new StarShip("Mon Calamari Star Cruisers", 1200, CargoCapacity.of(200_000L));
+
+    private final Random random = new Random(1977);
+
+    @Test
+    void should_follow_the_default_specifications_by_default() {
+        for (StarShip starShip : randomInventory(1_000)) {
+            assertThat(RescueRules.DEFAULT.isSatisfiedBy(starShip))
+                    .isEqualTo(hasPassengerCapacity().and(hasSufficientCargoCapacity()).test(starShip));
+        }
+    }
+
+    @Test
+    void should_apply_the_rules_of_a_mission() {
+        var rules = RescueRules.DEFAULT
+                .withMinimalCargoCapacity(CargoCapacity.of(50_000L))
+                .withPassengersCapacityBetween(10, 1000)
+                .withExcludedNames(Set.of("CR90 corvette"));
+
+        assertThat(List.of(FALCON, TRANSPORT, CORVETTE, CRUISER)).filteredOn(rules::isSatisfiedBy).containsExactly(TRANSPORT);
+        assertThat(RescueRules.DEFAULT.withIncludedNames(Set.of("Millennium Falcon", "Rebel transport")).isSatisfiedBy(FALCON)).isTrue();
+        assertThat(RescueRules.DEFAULT.withIncludedNames(Set.of("Millennium Falcon", "Rebel transport")).isSatisfiedBy(CRUISER)).isFalse();
+    }
+
+    @Test
+    void should_combine_rules() {
+        var bigCargo = RescueRules.DEFAULT.withMinimalCargoCapacity(CargoCapacity.of(1_000_000L));
+        var notTheCorvette = RescueRules.DEFAULT.withExcludedNames(Set.of("CR90 corvette"));
+        var combined = bigCargo.and(notTheCorvette).and(RescueRules.DEFAULT.withPassengersCapacityBetween(2, 700));
+
+        assertThat(combined).isEqualTo(new RescueRules(CargoCapacity.of(1_000_000L), 2, 700, Set.of(), Set.of("CR90 corvette")));
+        for (StarShip starShip : randomInventory(1_000)) {
+            assertThat(combined.isSatisfiedBy(starShip))
+                    .isEqualTo(bigCargo.isSatisfiedBy(starShip) && notTheCorvette.isSatisfiedBy(starShip)
+                            && starShip.passengersCapacity() >= 2 && starShip.passengersCapacity() <= 700);
+        }
+    }
+
+    @Test
+    void should_select_the_same_starships_over_columns() {
+        List<StarShip> inventory = randomInventory(5_000);
+        var columns = StarShipColumns.of(inventory);
+        var rules = List.of(
+                RescueRules.DEFAULT,
+                RescueRules.DEFAULT.withPassengersCapacityBetween(3, 7).withMinimalCargoCapacity(new CargoCapacity(new BigDecimal("150000.5"))),
+                RescueRules.DEFAULT.withIncludedNames(Set.of("Ship 1", "Ship 2")),
+                RescueRules.DEFAULT.withExcludedNames(Set.of("Ship 1", "Ship 3")));
+
+        for (RescueRules rule : rules) {
+            var selected = rule.compiled().select(columns);
+            for (int i = 0; i < inventory.size(); i++) {
+                assertThat(selected.get(i)).isEqualTo(rule.isSatisfiedBy(inventory.get(i)));
+            }
+        }
+    }
+
+    @Test
+    void should_compile_equal_rules_once() {
+        var rules = RescueRules.DEFAULT.withIncludedNames(Set.of("X-wing", "Y-wing"));
+
+        assertThat(rules.compiled()).isSameAs(RescueRules.DEFAULT.withIncludedNames(Set.of("Y-wing", "X-wing")).compiled());
+    }
+
+    @Test
+    void should_reject_invalid_rules() {
+        assertThatThrownBy(() -> RescueRules.DEFAULT.withPassengersCapacityBetween(0, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RescueRules.DEFAULT.withPassengersCapacityBetween(10, 9)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RescueRules.DEFAULT.withExcludedNames(Set.of(" "))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RescueRules.DEFAULT.withIncludedNames(Set.of("X-wing"))
+                .and(RescueRules.DEFAULT.withIncludedNames(Set.of("Y-wing")))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<StarShip> randomInventory(int size) {
+        List<StarShip> inventory = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            CargoCapacity cargoCapacity = random.nextInt(10) == 0
+                    ? new CargoCapacity(BigDecimal.valueOf(random.nextInt(40_000_000), 2))
+                    : CargoCapacity.of(random.nextInt(2_000_000));
+            inventory.add(new StarShip("Ship " + random.nextInt(5), random.nextInt(10), cargoCapacity));
+        }
+        return inventory;
+    }
+}
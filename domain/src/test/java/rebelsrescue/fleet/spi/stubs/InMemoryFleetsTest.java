@@ -0,0 +1,279 @@
+package rebelsrescue.fleet.spi.stubs;
+
+import org.junit.jupiter.api.Test;
+import rebelsrescue.fleet.CargoCapacity;
+import rebelsrescue.fleet.Fleet;
+import rebelsrescue.fleet.FleetCursor;
+import rebelsrescue.fleet.FleetNotFoundException;
+import rebelsrescue.fleet.FleetPage;
+import rebelsrescue.fleet.FleetQuery;
+import rebelsrescue.fleet.MutableClock;
+import rebelsrescue.fleet.StarShip;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InMemoryFleetsTest {
+
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 20_000;
+
+    @Test
+    void should_find_a_saved_fleet() {
+        var fleets = new InMemoryFleets();
+        var fleet = aFleet();
+
+        fleets.save(fleet);
+
+        assertThat(fleets.getById(fleet.id())).isEqualTo(fleet);
+        assertThat(fleets.findById(fleet.id())).contains(fleet);
+        assertThat(fleets.exists(fleet.id())).isTrue();
+    }
+
+    @Test
+    void should_not_find_an_unknown_fleet() {
+        var fleets = new InMemoryFleets();
+        var id = UUID.randomUUID();
+
+        assertThat(fleets.findById(id)).isEmpty();
+        assertThat(fleets.exists(id)).isFalse();
+        assertThatThrownBy(() -> fleets.getById(id)).isInstanceOf(FleetNotFoundException.class);
+    }
+
+    @Test
+    void should_evict_the_least_recently_used_fleets_beyond_the_capacity() {
+        var fleets = new InMemoryFleets(2, Duration.ZERO);
+        var first = fleets.save(aFleet());
+        var second = fleets.save(aFleet());
+
+        fleets.getById(first.id());
+        var third = fleets.save(aFleet());
+
+        assertThat(fleets.size()).isEqualTo(2);
+        assertThat(fleets.exists(first.id())).isTrue();
+        assertThat(fleets.exists(second.id())).isFalse();
+        assertThat(fleets.exists(third.id())).isTrue();
+    }
+
+    @Test
+    void should_expire_fleets_after_their_time_to_live() {
+        var clock = new MutableClock();
+        var fleets = new InMemoryFleets(InMemoryFleets.UNBOUNDED, Duration.ofHours(1), clock);
+        var fleet = fleets.save(aFleet());
+
+        clock.advance(Duration.ofMinutes(59));
+        assertThat(fleets.exists(fleet.id())).isTrue();
+
+        clock.advance(Duration.ofMinutes(1));
+        assertThat(fleets.findById(fleet.id())).isEmpty();
+        assertThat(fleets.size()).isZero();
+    }
+
+    @Test
+    void should_not_keep_the_expired_fleets_in_the_eviction_queue() {
+        var clock = new MutableClock();
+        var fleets = new InMemoryFleets(100_000, Duration.ofMinutes(1), clock);
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 2_048; i++) {
+                fleets.save(aFleet());
+            }
+            clock.advance(Duration.ofMinutes(2));
+        }
+
+        assertThat(fleets.size()).isEqualTo(2_048);
+        assertThat(fleets.evictionQueueSize()).isEqualTo(fleets.size());
+    }
+
+    @Test
+    void should_release_the_reservations_of_the_fleets_evicted_or_expired() {
+        var clock = new MutableClock();
+        var reservations = new InMemoryStarShipReservations();
+        var fleets = new InMemoryFleets(2, Duration.ofHours(1), reservations::release, clock);
+        var evicted = reserved(reservations, fleets.save(aFleetCreatedAt(clock.instant(), "CR90 corvette")));
+        var expiring = reserved(reservations, fleets.save(aFleetCreatedAt(clock.instant(), "X-Wing")));
+        clock.advance(Duration.ofMinutes(30));
+        var kept = reserved(reservations, fleets.save(aFleetCreatedAt(clock.instant(), "Slave 1")));
+
+        assertThat(reservations.isReserved(evicted.starships().get(0))).isFalse();
+        assertThat(reservations.isReserved(expiring.starships().get(0))).isTrue();
+
+        clock.advance(Duration.ofMinutes(30));
+        assertThat(fleets.exists(expiring.id())).isFalse();
+        assertThat(reservations.isReserved(expiring.starships().get(0))).isFalse();
+        assertThat(reservations.isReserved(kept.starships().get(0))).isTrue();
+    }
+
+    @Test
+    void should_find_the_fleets_created_within_a_period_page_by_page() {
+        var fleets = new InMemoryFleets();
+        var start = Instant.parse("2024-01-01T00:00:00Z");
+        List<Fleet> saved = new ArrayList<>();
+        for (int minute = 4; minute >= 0; minute--) {
+            saved.add(0, fleets.save(aFleetCreatedAt(start.plus(Duration.ofMinutes(minute)), "Millennium Falcon")));
+        }
+        var query = FleetQuery.ALL.createdBetween(start.plus(Duration.ofMinutes(1)), start.plus(Duration.ofMinutes(4)));
+
+        FleetPage firstPage = fleets.find(query, null, 2);
+        assertThat(firstPage.fleets()).containsExactly(saved.get(1), saved.get(2));
+        assertThat(firstPage.nextCursor()).contains(FleetCursor.of(saved.get(2)));
+
+        FleetPage lastPage = fleets.find(query, firstPage.next(), 2);
+        assertThat(lastPage.fleets()).containsExactly(saved.get(3));
+        assertThat(lastPage.isLast()).isTrue();
+    }
+
+    @Test
+    void should_find_the_fleets_containing_a_starship() {
+        var fleets = new InMemoryFleets();
+        var start = Instant.parse("2024-01-01T00:00:00Z");
+        var withCorvette = fleets.save(aFleetCreatedAt(start, "CR90 corvette", "Millennium Falcon"));
+        fleets.save(aFleetCreatedAt(start.plusSeconds(1), "Millennium Falcon"));
+        var onlyCorvette = fleets.save(aFleetCreatedAt(start.plusSeconds(2), "CR90 corvette"));
+
+        assertThat(fleets.find(FleetQuery.ALL.withStarShip("CR90 corvette"), null, 10).fleets())
+                .containsExactly(withCorvette, onlyCorvette);
+        assertThat(fleets.find(FleetQuery.ALL.withStarShip("CR90 corvette").createdBetween(start.plusSeconds(1), null), null, 10).fleets())
+                .containsExactly(onlyCorvette);
+        assertThat(fleets.find(FleetQuery.ALL.withStarShip("X-Wing"), null, 10).fleets()).isEmpty();
+    }
+
+    @Test
+    void should_no_longer_find_the_fleets_saved_again_evicted_or_expired() {
+        var clock = new MutableClock();
+        var fleets = new InMemoryFleets(2, Duration.ofHours(1), clock);
+        var evicted = fleets.save(aFleet());
+        var expiring = fleets.save(aFleetCreatedAt(Instant.parse("2024-01-01T00:00:00Z"), "CR90 corvette"));
+        clock.advance(Duration.ofMinutes(30));
+        var kept = fleets.save(aFleet());
+        var savedAgain = fleets.save(new Fleet(kept.id(), List.of(new StarShip("X-Wing", 1, CargoCapacity.of(110L)))));
+
+        assertThat(fleets.find(FleetQuery.ALL, null, 10).fleets()).containsExactly(expiring, savedAgain);
+        assertThat(fleets.find(FleetQuery.ALL.withStarShip("Millennium Falcon"), null, 10).fleets()).isEmpty();
+
+        clock.advance(Duration.ofMinutes(30));
+        assertThat(fleets.find(FleetQuery.ALL, null, 10).fleets()).containsExactly(savedAgain);
+        assertThat(fleets.exists(evicted.id())).isFalse();
+    }
+
+    @Test
+    void should_list_the_fleets_once_while_fleets_are_saved_between_pages() {
+        var fleets = new InMemoryFleets();
+        var start = Instant.parse("2024-01-01T00:00:00Z");
+        List<Fleet> saved = new ArrayList<>();
+        for (int second = 0; second < 10; second++) {
+            saved.add(fleets.save(aFleetCreatedAt(start.plusSeconds(second), "Millennium Falcon")));
+        }
+
+        List<Fleet> listed = new ArrayList<>();
+        FleetCursor cursor = null;
+        int later = 0;
+        do {
+            FleetPage page = fleets.find(FleetQuery.ALL, cursor, 3);
+            listed.addAll(page.fleets());
+            cursor = page.next();
+            fleets.save(aFleetCreatedAt(start.minusSeconds(1), "Millennium Falcon"));
+            fleets.save(aFleetCreatedAt(start.plusSeconds(100 + later++), "Millennium Falcon"));
+        } while (cursor != null && later < 100);
+
+        assertThat(listed.subList(0, 10)).containsExactlyElementsOf(saved);
+        assertThat(listed).doesNotHaveDuplicates().allMatch(fleet -> !fleet.createdAt().isBefore(start));
+    }
+
+    @Test
+    void should_reject_pages_without_fleets() {
+        assertThatThrownBy(() -> new InMemoryFleets().find(FleetQuery.ALL, null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void should_not_lose_fleets_under_concurrent_saves_and_reads() throws Exception {
+        var fleets = new InMemoryFleets();
+        Queue<Fleet> savedFleets = new ConcurrentLinkedQueue<>();
+
+        hammer(fleets, savedFleets);
+
+        assertThat(fleets.size()).isEqualTo(savedFleets.size());
+        for (Fleet fleet : savedFleets) {
+            assertThat(fleets.getById(fleet.id())).isEqualTo(fleet);
+        }
+    }
+
+    @Test
+    void should_stay_within_its_capacity_under_concurrent_saves_and_reads() throws Exception {
+        int maxFleets = 1_000;
+        var fleets = new InMemoryFleets(maxFleets, Duration.ZERO);
+
+        hammer(fleets, new ConcurrentLinkedQueue<>());
+
+        assertThat(fleets.size()).isLessThanOrEqualTo(maxFleets);
+    }
+
+    /**
+     * Every thread saves fleets while reading and probing fleets saved by all the threads.
+     */
+    private static void hammer(InMemoryFleets fleets, Queue<Fleet> savedFleets) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        var start = new CountDownLatch(1);
+        List<Fleet> sharedFleets = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            sharedFleets.add(fleets.save(aFleet()));
+        }
+        savedFleets.addAll(sharedFleets);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    var random = ThreadLocalRandom.current();
+                    for (int operation = 0; operation < OPERATIONS_PER_THREAD; operation++) {
+                        var known = sharedFleets.get(random.nextInt(sharedFleets.size()));
+                        switch (random.nextInt(3)) {
+                            case 0 -> savedFleets.add(fleets.save(aFleet()));
+                            case 1 -> fleets.findById(known.id()).ifPresent(fleet -> assertThat(fleet).isEqualTo(known));
+                            default -> fleets.exists(UUID.randomUUID());
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Fleet reserved(InMemoryStarShipReservations reservations, Fleet fleet) {
+        assertThat(reservations.claim(fleet.id(), fleet.starships())).isTrue();
+        return fleet;
+    }
+
+    private static Fleet aFleet() {
+        return new Fleet(singletonList(new StarShip("Millennium Falcon", 6, CargoCapacity.of(100_000L))));
+    }
+
+    private static Fleet aFleetCreatedAt(Instant createdAt, String... starShipNames) {
+        List<StarShip> starShips = new ArrayList<>();
+        for (String name : starShipNames) {
+            starShips.add(new StarShip(name, 6, CargoCapacity.of(100_000L)));
+        }
+        return new Fleet(UUID.randomUUID(), starShips, createdAt);
+    }
+}
@@ -0,0 +1,141 @@
+package rebelsrescue.fleet.spi.stubs;
+
+import org.junit.jupiter.api.Test;
+import rebelsrescue.fleet.CargoCapacity;
+import rebelsrescue.fleet.MutableClock;
+import rebelsrescue.fleet.StarShip;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InMemoryStarShipReservationsTest {
+
+    private static final int THREADS = 8;
+    private static final int CLAIMS_PER_THREAD = 20_000;
+
+    private static final StarShip FALCON = starShip("Millennium Falcon", 6);
+    private static final StarShip CORVETTE = starShip("CR90 corvette", 600);
+    private static final StarShip FRIGATE = starShip("EF76 Nebulon-B escort frigate", 800);
+
+    @Test
+    void should_claim_all_the_starships_of_a_fleet_or_none() {
+        var reservations = new InMemoryStarShipReservations();
+
+        assertThat(reservations.claim(UUID.randomUUID(), List.of(FALCON, CORVETTE))).isTrue();
+        assertThat(reservations.claim(UUID.randomUUID(), List.of(FRIGATE, CORVETTE))).isFalse();
+
+        assertThat(reservations.isReserved(FALCON)).isTrue();
+        assertThat(reservations.isReserved(CORVETTE)).isTrue();
+        assertThat(reservations.isReserved(FRIGATE)).isFalse();
+        assertThat(reservations.size()).isEqualTo(2);
+    }
+
+    @Test
+    void should_make_the_starships_of_a_released_fleet_available_again() {
+        var reservations = new InMemoryStarShipReservations();
+        var fleetId = UUID.randomUUID();
+        reservations.claim(fleetId, List.of(FALCON, CORVETTE));
+
+        reservations.release(fleetId);
+
+        assertThat(reservations.isEmpty()).isTrue();
+        assertThat(reservations.claim(UUID.randomUUID(), List.of(CORVETTE, FRIGATE))).isTrue();
+        reservations.release(fleetId);
+        assertThat(reservations.isReserved(CORVETTE)).isTrue();
+    }
+
+    @Test
+    void should_expire_reservations_after_their_time_to_live() {
+        var clock = new MutableClock();
+        var reservations = new InMemoryStarShipReservations(Duration.ofHours(1), clock);
+        reservations.claim(UUID.randomUUID(), List.of(FALCON, CORVETTE));
+
+        clock.advance(Duration.ofMinutes(59));
+        assertThat(reservations.isReserved(CORVETTE)).isTrue();
+        assertThat(reservations.claim(UUID.randomUUID(), List.of(CORVETTE))).isFalse();
+
+        clock.advance(Duration.ofMinutes(1));
+        assertThat(reservations.isReserved(FALCON)).isFalse();
+        assertThat(reservations.claim(UUID.randomUUID(), List.of(CORVETTE, FRIGATE))).isTrue();
+        assertThat(reservations.isReserved(CORVETTE)).isTrue();
+    }
+
+    @Test
+    void should_reject_a_fleet_claiming_starships_twice() {
+        var reservations = new InMemoryStarShipReservations();
+        var fleetId = UUID.randomUUID();
+        reservations.claim(fleetId, List.of(FALCON));
+
+        assertThatThrownBy(() -> reservations.claim(fleetId, List.of(FRIGATE)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(reservations.isReserved(FRIGATE)).isFalse();
+    }
+
+    @Test
+    void should_never_reserve_a_starship_for_two_fleets_under_concurrent_claims() throws Exception {
+        var reservations = new InMemoryStarShipReservations();
+        List<StarShip> starShips = new ArrayList<>();
+        for (int ship = 0; ship < 32; ship++) {
+            starShips.add(starShip("ship-" + ship, 10));
+        }
+        ConcurrentMap<String, UUID> owners = new ConcurrentHashMap<>();
+        var overlaps = new AtomicInteger();
+        var successfulClaims = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        var start = new CountDownLatch(1);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    var random = ThreadLocalRandom.current();
+                    for (int claim = 0; claim < CLAIMS_PER_THREAD; claim++) {
+                        var fleetId = UUID.randomUUID();
+                        var fleet = List.of(starShips.get(random.nextInt(32)), starShips.get(random.nextInt(32)),
+                                starShips.get(random.nextInt(32)));
+                        if (!reservations.claim(fleetId, fleet)) {
+                            continue;
+                        }
+                        successfulClaims.incrementAndGet();
+                        fleet.stream().map(StarShip::name).distinct().forEach(name -> {
+                            if (owners.putIfAbsent(name, fleetId) != null) {
+                                overlaps.incrementAndGet();
+                            }
+                        });
+                        fleet.forEach(starShip -> owners.remove(starShip.name(), fleetId));
+                        reservations.release(fleetId);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(overlaps).hasValue(0);
+        assertThat(successfulClaims.get()).isPositive();
+        assertThat(reservations.isEmpty()).isTrue();
+    }
+
+    private static StarShip starShip(String name, int passengersCapacity) {
+        return new StarShip(name, passengersCapacity, CargoCapacity.of(100_000L));
+    }
+}
@@ -2,16 +2,85 @@ package rebelsrescue.configuration;
 
 import ddd.DomainService;
 import ddd.Stub;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.FilterType;
 import rebelsrescue.fleet.Fleet;
+import rebelsrescue.fleet.FleetAssembler;
+import rebelsrescue.fleet.FleetSelectionStrategy;
+import rebelsrescue.fleet.MemoizingFleetSelection;
+import rebelsrescue.fleet.OptimalFleetSelection;
+import rebelsrescue.fleet.SmallestFirstSelection;
+import rebelsrescue.fleet.api.AssembleAFleet;
+import rebelsrescue.fleet.events.DomainEventPublisher;
+import rebelsrescue.fleet.spi.Fleets;
+import rebelsrescue.fleet.spi.StarShipInventory;
+import rebelsrescue.fleet.spi.StarShipReservations;
+import rebelsrescue.fleet.spi.stubs.InMemoryFleets;
+import rebelsrescue.fleet.spi.stubs.InMemoryStarShipReservations;
 import rebelsrescue.fleet.spi.stubs.StarShipInventoryStub;
+import rebelsrescue.metrics.MeteredAssembleAFleet;
+import rebelsrescue.metrics.TimedDomainEventPublisher;
+import rebelsrescue.metrics.TimedFleetSelection;
+import rebelsrescue.metrics.TimedStarShipInventory;
+
+import java.time.Duration;
+
+import static rebelsrescue.fleet.OptimalFleetSelection.Objective.FEWEST_STARSHIPS;
+import static rebelsrescue.fleet.OptimalFleetSelection.Objective.LEAST_OVERCAPACITY;
 
 @Configuration
 @ComponentScan(
         basePackageClasses = {Fleet.class},
         includeFilters = {@ComponentScan.Filter(type = FilterType.ANNOTATION, classes = {DomainService.class, Stub.class})},
-        excludeFilters = {@ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = {StarShipInventoryStub.class})})
+        excludeFilters = {@ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = {StarShipInventoryStub.class, InMemoryFleets.class, InMemoryStarShipReservations.class, FleetAssembler.class})})
 public class DomainConfiguration {
+
+    @Bean
+    public FleetSelectionStrategy fleetSelectionStrategy(
+            @Value("${rescue.fleet.selection-strategy:smallest-first}") String selectionStrategy,
+            @Value("${rescue.fleet.selection-time-budget:PT0.05S}") Duration timeBudget,
+            @Value("${rescue.fleet.selection-cache-size:0}") int selectionCacheSize) {
+        FleetSelectionStrategy strategy = switch (selectionStrategy) {
+            case "smallest-first" -> new SmallestFirstSelection();
+            case "fewest-starships" -> new OptimalFleetSelection(FEWEST_STARSHIPS, timeBudget);
+            case "least-overcapacity" -> new OptimalFleetSelection(LEAST_OVERCAPACITY, timeBudget);
+            default -> throw new IllegalArgumentException("Unknown fleet selection strategy: " + selectionStrategy);
+        };
+        return selectionCacheSize > 0 ? MemoizingFleetSelection.of(strategy, selectionCacheSize) : strategy;
+    }
+
+    /**
+     * When enabled, a starship belongs to a single fleet at a time, for as long as the fleets are kept unless the
+     * reservations get their own time to live.
+     */
+    @Bean
+    public StarShipReservations starShipReservations(
+            @Value("${rescue.fleets.reservations.enabled:false}") boolean enabled,
+            @Value("${rescue.fleets.reservations.time-to-live:${rescue.fleets.time-to-live:PT0S}}") Duration timeToLive) {
+        return enabled ? new InMemoryStarShipReservations(timeToLive) : StarShipReservations.NONE;
+    }
+
+    /**
+     * The fleet assembler, timed along with the ports it goes through. The fleets are timed by their own bean,
+     * which the controllers read as well. The reactive stack assembles its fleets out of its own snapshots of the
+     * starships, see {@link ReactiveConfiguration}.
+     */
+    @Bean
+    @Conditional(OnBlockingStackCondition.class)
+    public AssembleAFleet fleetAssembler(StarShipInventory starShipInventory, Fleets fleets,
+                                         DomainEventPublisher eventPublisher, FleetSelectionStrategy selectionStrategy,
+                                         StarShipReservations starShipReservations, MeterRegistry meterRegistry) {
+        FleetAssembler fleetAssembler = new FleetAssembler(
+                new TimedStarShipInventory(starShipInventory, meterRegistry),
+                fleets,
+                new TimedDomainEventPublisher(eventPublisher, meterRegistry),
+                TimedFleetSelection.of(selectionStrategy, meterRegistry),
+                starShipReservations);
+        return new MeteredAssembleAFleet(fleetAssembler, meterRegistry);
+    }
 }
@@ -0,0 +1,35 @@
+package rebelsrescue.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import rebelsrescue.events.AsyncDomainEventPublisher;
+import rebelsrescue.events.BackpressurePolicy;
+import rebelsrescue.events.SpringDomainEventPublisher;
+import rebelsrescue.fleet.events.DomainEventPublisher;
+
+/**
+ * Chooses how domain events reach their listeners: on a dispatcher thread (the default) or on the publishing thread.
+ * The dispatcher is a virtual thread when {@code spring.threads.virtual.enabled} is set.
+ */
+@Configuration
+public class EventsConfiguration {
+
+    @Bean
+    @Primary
+    public DomainEventPublisher domainEventPublisher(
+            SpringDomainEventPublisher springDomainEventPublisher,
+            @Value("${rescue.events.dispatch:async}") String dispatch,
+            @Value("${rescue.events.buffer-size:8192}") int bufferSize,
+            @Value("${rescue.events.backpressure:block}") BackpressurePolicy backpressurePolicy,
+            @Value("${rescue.events.max-batch-size:256}") int maxBatchSize,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        return switch (dispatch) {
+            case "async" -> new AsyncDomainEventPublisher(springDomainEventPublisher, bufferSize, backpressurePolicy, maxBatchSize,
+                    virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon());
+            case "sync" -> springDomainEventPublisher;
+            default -> throw new IllegalArgumentException("Unknown domain events dispatch: " + dispatch);
+        };
+    }
+}
@@ -0,0 +1,37 @@
+package rebelsrescue.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import rebelsrescue.inventory.CachingStarShipInventory;
+import rebelsrescue.metrics.TimedStarShipInventory;
+import rebelsrescue.swapi.SwapiClient;
+
+import java.time.Duration;
+
+/**
+ * Puts a refresh-ahead cache in front of SWAPI so that fleet assembly does not hit the upstream on every request,
+ * unless {@code swapi.cache.enabled} is false.
+ */
+@Configuration
+@Conditional(OnBlockingStackCondition.class)
+public class InventoryConfiguration {
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "swapi.cache.enabled", havingValue = "true", matchIfMissing = true)
+    public CachingStarShipInventory cachingStarShipInventory(
+            SwapiClient swapiClient,
+            @Value("${swapi.cache.ttl:PT10M}") Duration ttl,
+            @Value("${swapi.cache.refresh-ahead:PT2M}") Duration refreshAhead,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            MeterRegistry meterRegistry) {
+        // the SWAPI fetches are timed on their own, most of them happening in the background
+        return new CachingStarShipInventory(new TimedStarShipInventory(swapiClient, meterRegistry), ttl, refreshAhead,
+                virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon());
+    }
+}
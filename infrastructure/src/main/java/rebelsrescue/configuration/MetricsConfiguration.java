@@ -0,0 +1,59 @@
+package rebelsrescue.configuration;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import rebelsrescue.events.AsyncDomainEventPublisher;
+import rebelsrescue.fleet.FleetSelectionStrategy;
+import rebelsrescue.fleet.MemoizingFleetSelection;
+import rebelsrescue.fleet.events.DomainEventPublisher;
+import rebelsrescue.fleet.spi.StarShipReservations;
+import rebelsrescue.fleet.spi.stubs.InMemoryStarShipReservations;
+import rebelsrescue.metrics.AsyncDomainEventPublisherMetrics;
+import rebelsrescue.metrics.MemoizingFleetSelectionMetrics;
+import rebelsrescue.metrics.SwapiHttpTransportMetrics;
+import rebelsrescue.swapi.SwapiHttpTransport;
+
+/**
+ * Exposes the internal state of the adapters that keep one: the domain events buffer, the remembered selections,
+ * the reserved starships and the SWAPI connection pool, when they are configured. The ports are timed where they are wired.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    @Bean
+    public MeterBinder domainEventsMetrics(DomainEventPublisher domainEventPublisher) {
+        return registry -> {
+            if (domainEventPublisher instanceof AsyncDomainEventPublisher asyncPublisher) {
+                new AsyncDomainEventPublisherMetrics(asyncPublisher).bindTo(registry);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder fleetSelectionsMetrics(FleetSelectionStrategy selectionStrategy) {
+        return registry -> {
+            if (selectionStrategy instanceof MemoizingFleetSelection memoizingSelection) {
+                new MemoizingFleetSelectionMetrics(memoizingSelection).bindTo(registry);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder starShipReservationsMetrics(StarShipReservations starShipReservations) {
+        return registry -> {
+            if (starShipReservations instanceof InMemoryStarShipReservations inMemoryReservations) {
+                Gauge.builder("rescue.reservations.starships", inMemoryReservations, InMemoryStarShipReservations::size)
+                        .description("Starships reserved by fleets, expired reservations included until they are swept")
+                        .register(registry);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder swapiHttpMetrics(ObjectProvider<SwapiHttpTransport> swapiHttpTransport) {
+        return registry -> swapiHttpTransport.ifAvailable(transport -> new SwapiHttpTransportMetrics(transport).bindTo(registry));
+    }
+}
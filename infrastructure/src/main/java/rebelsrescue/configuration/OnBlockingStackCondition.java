@@ -0,0 +1,19 @@
+package rebelsrescue.configuration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.NoneNestedConditions;
+
+/**
+ * Matches unless the application runs the reactive stack, which does not fetch SWAPI with a
+ * {@link org.springframework.web.client.RestTemplate}.
+ */
+public class OnBlockingStackCondition extends NoneNestedConditions {
+
+    OnBlockingStackCondition() {
+        super(ConfigurationPhase.REGISTER_BEAN);
+    }
+
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    static class OnReactiveStack {
+    }
+}
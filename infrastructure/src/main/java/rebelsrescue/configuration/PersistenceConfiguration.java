@@ -0,0 +1,40 @@
+package rebelsrescue.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import rebelsrescue.fleet.spi.Fleets;
+import rebelsrescue.fleet.spi.StarShipReservations;
+import rebelsrescue.fleet.spi.stubs.InMemoryFleets;
+import rebelsrescue.metrics.TimedFleets;
+import rebelsrescue.persistence.FileFleets;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Chooses where fleets are stored: in memory (the default) or in an append-only log file, the operations being timed.
+ * The fleets evicted or expired from memory release their starship reservations.
+ */
+@Configuration
+public class PersistenceConfiguration {
+
+    @Bean
+    public Fleets fleets(
+            @Value("${rescue.fleets.store:memory}") String store,
+            @Value("${rescue.fleets.max-fleets:0}") int maxFleets,
+            @Value("${rescue.fleets.time-to-live:PT0S}") Duration timeToLive,
+            @Value("${rescue.fleets.file.path:data/fleets.log}") Path logFile,
+            @Value("${rescue.fleets.file.sync-on-write:false}") boolean syncOnWrite,
+            @Value("${rescue.fleets.file.compaction-interval:PT1M}") Duration compactionInterval,
+            StarShipReservations starShipReservations,
+            MeterRegistry meterRegistry) {
+        Fleets fleets = switch (store) {
+            case "memory" -> new InMemoryFleets(maxFleets, timeToLive, starShipReservations::release);
+            case "file" -> new FileFleets(logFile, syncOnWrite, compactionInterval);
+            default -> throw new IllegalArgumentException("Unknown fleets store: " + store);
+        };
+        return new TimedFleets(fleets, meterRegistry);
+    }
+}
@@ -0,0 +1,96 @@
+package rebelsrescue.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import rebelsrescue.fleet.FleetAssembler;
+import rebelsrescue.fleet.FleetSelectionStrategy;
+import rebelsrescue.fleet.events.DomainEventPublisher;
+import rebelsrescue.fleet.spi.Fleets;
+import rebelsrescue.fleet.spi.StarShipReservations;
+import rebelsrescue.metrics.MeteredAssembleAFleet;
+import rebelsrescue.metrics.TimedDomainEventPublisher;
+import rebelsrescue.metrics.TimedFleetSelection;
+import rebelsrescue.reactive.ReactiveAssembleAFleet;
+import rebelsrescue.reactive.ReactiveFleetAssembler;
+import rebelsrescue.reactive.ReactiveFleets;
+import rebelsrescue.reactive.StarShipSnapshots;
+import rebelsrescue.swapi.ReactiveSwapiClient;
+import rebelsrescue.swapi.SwapiFetchMode;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * The reactive stack, served on WebFlux when {@code spring.main.web-application-type} is reactive: SWAPI is
+ * fetched with a {@link WebClient} sharing the {@code swapi.http.*} settings of the blocking transport, and the
+ * fleets are assembled by the domain out of snapshots of the starships kept for {@code swapi.cache.ttl}, the next
+ * one being loaded {@code swapi.cache.refresh-ahead} before.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfiguration {
+
+    @Bean
+    public ReactiveSwapiClient reactiveSwapiClient(
+            WebClient.Builder webClientBuilder,
+            @Value("${swapi.base-uri}") String swapiBaseUri,
+            @Value("${swapi.fetch-mode:sequential}") SwapiFetchMode fetchMode,
+            @Value("${swapi.max-concurrent-pages:4}") int maxConcurrentPages,
+            @Value("${swapi.http.max-connections-per-route:10}") int maxConnections,
+            @Value("${swapi.http.connect-timeout:PT2S}") Duration connectTimeout,
+            @Value("${swapi.http.connection-request-timeout:PT5S}") Duration connectionRequestTimeout,
+            @Value("${swapi.http.read-timeout:PT10S}") Duration readTimeout,
+            @Value("${swapi.http.keep-alive:PT30S}") Duration keepAlive,
+            @Value("${swapi.http.compression:true}") boolean compression) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("swapi")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(connectionRequestTimeout)
+                .maxIdleTime(keepAlive)
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Math.toIntExact(connectTimeout.toMillis()))
+                .responseTimeout(readTimeout)
+                .compress(compression);
+        return new ReactiveSwapiClient(webClientBuilder.clientConnector(new ReactorClientHttpConnector(httpClient)),
+                swapiBaseUri, fetchMode, maxConcurrentPages);
+    }
+
+    /**
+     * The in-memory store is called right away, the file store on a scheduler meant for blocking calls.
+     */
+    @Bean
+    public ReactiveFleets reactiveFleets(Fleets fleets, @Value("${rescue.fleets.store:memory}") String store) {
+        return "memory".equals(store) ? ReactiveFleets.inMemory(fleets) : ReactiveFleets.blocking(fleets);
+    }
+
+    /**
+     * The domain fleet assembler, timed as on the servlet stack, reading the snapshots of the reactive inventory.
+     * It runs on a scheduler meant for blocking calls, whatever the store, since the domain itself may block.
+     */
+    @Bean
+    public ReactiveAssembleAFleet reactiveFleetAssembler(ReactiveSwapiClient swapiClient, Fleets fleets,
+                                                         DomainEventPublisher eventPublisher,
+                                                         FleetSelectionStrategy selectionStrategy,
+                                                         StarShipReservations starShipReservations,
+                                                         @Value("${swapi.cache.ttl:PT10M}") Duration ttl,
+                                                         @Value("${swapi.cache.refresh-ahead:PT2M}") Duration refreshAhead,
+                                                         MeterRegistry meterRegistry) {
+        StarShipSnapshots starShipSnapshots = new StarShipSnapshots(swapiClient, ttl, refreshAhead);
+        FleetAssembler fleetAssembler = new FleetAssembler(
+                starShipSnapshots,
+                fleets,
+                new TimedDomainEventPublisher(eventPublisher, meterRegistry),
+                TimedFleetSelection.of(selectionStrategy, meterRegistry),
+                starShipReservations);
+        return new ReactiveFleetAssembler(starShipSnapshots, new MeteredAssembleAFleet(fleetAssembler, meterRegistry),
+                Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,41 @@
+package rebelsrescue.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import rebelsrescue.swapi.SwapiHttpTransport;
+import rebelsrescue.swapi.SwapiPageCache;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Pools the connections to SWAPI, with explicit timeouts and gzipped responses, and keeps the pages on disk
+ * when {@code swapi.page-cache.enabled} is set, so that they are only downloaded again when they changed.
+ * The reactive stack has its own transport, see {@link ReactiveConfiguration}.
+ */
+@Configuration
+@Conditional(OnBlockingStackCondition.class)
+public class SwapiConfiguration {
+
+    @Bean
+    public SwapiHttpTransport swapiHttpTransport(
+            @Value("${swapi.http.max-connections:20}") int maxConnections,
+            @Value("${swapi.http.max-connections-per-route:10}") int maxConnectionsPerRoute,
+            @Value("${swapi.http.connect-timeout:PT2S}") Duration connectTimeout,
+            @Value("${swapi.http.connection-request-timeout:PT5S}") Duration connectionRequestTimeout,
+            @Value("${swapi.http.read-timeout:PT10S}") Duration readTimeout,
+            @Value("${swapi.http.keep-alive:PT30S}") Duration keepAlive,
+            @Value("${swapi.http.compression:true}") boolean compression) {
+        return new SwapiHttpTransport(new SwapiHttpTransport.Settings(maxConnections, maxConnectionsPerRoute,
+                connectTimeout, connectionRequestTimeout, readTimeout, keepAlive, compression));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "swapi.page-cache.enabled", havingValue = "true")
+    public SwapiPageCache swapiPageCache(@Value("${swapi.page-cache.directory:data/swapi-pages}") Path directory) {
+        return new SwapiPageCache(directory);
+    }
+}
@@ -1,12 +1,12 @@
 package rebelsrescue.controllers;
 
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import rebelsrescue.fleet.FleetDomainException;
 import rebelsrescue.fleet.FleetNotFoundException;
 import rebelsrescue.fleet.InsufficientStarShipsException;
+import rebelsrescue.fleet.StarShipsReservedException;
 
 /**
  * Global exception handler for domain exceptions.
@@ -17,42 +17,26 @@ public class DomainExceptionHandler {
 
     @ExceptionHandler(FleetNotFoundException.class)
     public ProblemDetail handleFleetNotFound(FleetNotFoundException ex) {
-        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
-            HttpStatus.NOT_FOUND,
-            ex.getMessage()
-        );
-        problemDetail.setTitle("Fleet Not Found");
-        return problemDetail;
+        return DomainProblems.toProblemDetail(ex);
     }
 
     @ExceptionHandler(InsufficientStarShipsException.class)
     public ProblemDetail handleInsufficientStarShips(InsufficientStarShipsException ex) {
-        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
-            HttpStatus.UNPROCESSABLE_ENTITY,
-            ex.getMessage()
-        );
-        problemDetail.setTitle("Insufficient StarShips");
-        return problemDetail;
+        return DomainProblems.toProblemDetail(ex);
+    }
+
+    @ExceptionHandler(StarShipsReservedException.class)
+    public ProblemDetail handleStarShipsReserved(StarShipsReservedException ex) {
+        return DomainProblems.toProblemDetail(ex);
     }
 
     @ExceptionHandler(IllegalArgumentException.class)
     public ProblemDetail handleIllegalArgument(IllegalArgumentException ex) {
-        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
-            HttpStatus.BAD_REQUEST,
-            ex.getMessage()
-        );
-        problemDetail.setTitle("Invalid Request");
-        return problemDetail;
+        return DomainProblems.toProblemDetail(ex);
     }
 
     @ExceptionHandler(FleetDomainException.class)
     public ProblemDetail handleDomainException(FleetDomainException ex) {
-        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
-            HttpStatus.INTERNAL_SERVER_ERROR,
-            ex.getMessage()
-        );
-        problemDetail.setTitle("Domain Error");
-        return problemDetail;
+        return DomainProblems.toProblemDetail(ex);
     }
 }
-
@@ -0,0 +1,43 @@
+package rebelsrescue.controllers;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import rebelsrescue.fleet.FleetDomainException;
+import rebelsrescue.fleet.FleetNotFoundException;
+import rebelsrescue.fleet.InsufficientStarShipsException;
+import rebelsrescue.fleet.StarShipsReservedException;
+
+/**
+ * Maps domain exceptions to the problems reported by the API, whether they are thrown out of a request or reported
+ * within its response, as in a batch.
+ */
+final class DomainProblems {
+
+    private DomainProblems() {
+    }
+
+    static ProblemDetail toProblemDetail(RuntimeException ex) {
+        if (ex instanceof FleetNotFoundException) {
+            return problem(HttpStatus.NOT_FOUND, "Fleet Not Found", ex);
+        }
+        if (ex instanceof InsufficientStarShipsException) {
+            return problem(HttpStatus.UNPROCESSABLE_ENTITY, "Insufficient StarShips", ex);
+        }
+        if (ex instanceof StarShipsReservedException) {
+            return problem(HttpStatus.CONFLICT, "StarShips Reserved", ex);
+        }
+        if (ex instanceof IllegalArgumentException) {
+            return problem(HttpStatus.BAD_REQUEST, "Invalid Request", ex);
+        }
+        if (ex instanceof FleetDomainException) {
+            return problem(HttpStatus.INTERNAL_SERVER_ERROR, "Domain Error", ex);
+        }
+        throw ex;
+    }
+
+    private static ProblemDetail problem(HttpStatus status, String title, RuntimeException ex) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(status, ex.getMessage());
+        problemDetail.setTitle(title);
+        return problemDetail;
+    }
+}
@@ -0,0 +1,15 @@
+package rebelsrescue.controllers;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.http.ProblemDetail;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record FleetAssemblyResultResource(Integer numberOfPassengers, FleetResource fleet, ProblemDetail problem) {
+    public static FleetAssemblyResultResource assembled(Integer numberOfPassengers, FleetResource fleet) {
+        return new FleetAssemblyResultResource(numberOfPassengers, fleet, null);
+    }
+
+    public static FleetAssemblyResultResource failed(Integer numberOfPassengers, ProblemDetail problem) {
+        return new FleetAssemblyResultResource(numberOfPassengers, null, problem);
+    }
+}
@@ -0,0 +1,32 @@
+package rebelsrescue.controllers;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.util.UriComponentsBuilder;
+import rebelsrescue.fleet.FleetCursor;
+import rebelsrescue.fleet.FleetPage;
+
+import java.util.List;
+
+import static org.springframework.http.ResponseEntity.ok;
+
+/**
+ * A page of fleets, along with the cursor to ask for the next page with while there are more.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record FleetPageResource(List<FleetResource> fleets, String nextCursor) {
+    public FleetPageResource(FleetPage page) {
+        this(page.fleets().stream().map(FleetResource::new).toList(), page.nextCursor().map(FleetCursor::asToken).orElse(null));
+    }
+
+    /**
+     * The page, linking to the next one as the current request continued after the cursor.
+     */
+    static ResponseEntity<FleetPageResource> linkedPage(FleetPage page, UriComponentsBuilder currentRequest) {
+        var response = ok();
+        page.nextCursor().ifPresent(next -> response.header(HttpHeaders.LINK,
+                "<%s>; rel=\"next\"".formatted(currentRequest.replaceQueryParam("cursor", next.asToken()).build().toUriString())));
+        return response.body(new FleetPageResource(page));
+    }
+}
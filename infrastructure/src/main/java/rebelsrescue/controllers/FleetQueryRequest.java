@@ -0,0 +1,40 @@
+package rebelsrescue.controllers;
+
+import rebelsrescue.fleet.FleetCursor;
+import rebelsrescue.fleet.FleetQuery;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * DTO for the query parameters listing fleets; the criteria left out select any fleet. {@code createdWithin} selects
+ * the fleets created during the given duration up to now, instead of from {@code createdFrom}.
+ */
+public record FleetQueryRequest(Instant createdFrom, Instant createdBefore, Duration createdWithin, String starShip,
+                                String cursor, Integer limit) {
+
+    static final int DEFAULT_LIMIT = 100;
+    static final int MAX_LIMIT = 1000;
+
+    FleetQuery toFleetQuery() {
+        if (createdFrom != null && createdWithin != null) {
+            throw new IllegalArgumentException("Fleets are created either from a time or within a duration, not both");
+        }
+        Instant from = createdWithin == null ? createdFrom : Instant.now().minus(createdWithin);
+        return new FleetQuery(from, createdBefore, starShip);
+    }
+
+    FleetCursor after() {
+        return cursor == null ? null : FleetCursor.fromToken(cursor);
+    }
+
+    int pageLimit() {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Page limit must be between 1 and " + MAX_LIMIT + ", got: " + limit);
+        }
+        return limit;
+    }
+}
@@ -2,13 +2,14 @@ package rebelsrescue.controllers;
 
 import rebelsrescue.fleet.Fleet;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
 import static java.util.stream.Collectors.toList;
 
-public record FleetResource(UUID id, List<StarShipResource> starships) {
+public record FleetResource(UUID id, List<StarShipResource> starships, Instant createdAt) {
     public FleetResource(Fleet fleet) {
-        this(fleet.id(), fleet.starships().stream().map(StarShipResource::new).collect(toList()));
+        this(fleet.id(), fleet.starships().stream().map(StarShipResource::new).collect(toList()), fleet.createdAt());
     }
 }
@@ -0,0 +1,97 @@
+package rebelsrescue.controllers;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import rebelsrescue.fleet.FleetPage;
+import rebelsrescue.fleet.FleetQuery;
+import rebelsrescue.reactive.ReactiveAssembleAFleet;
+import rebelsrescue.reactive.ReactiveFleets;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.springframework.http.ResponseEntity.created;
+import static org.springframework.http.ResponseEntity.ok;
+import static rebelsrescue.controllers.RescueRulesRequest.toRescueRules;
+
+/**
+ * Same resource as {@link RescueFleetController}, served on WebFlux when the application runs reactive: no thread
+ * waits for SWAPI or for the fleets store while a request is being served.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/rescueFleets")
+public class ReactiveRescueFleetController {
+    private final ReactiveAssembleAFleet assembleAFleet;
+    private final ReactiveFleets fleets;
+
+    public ReactiveRescueFleetController(ReactiveAssembleAFleet assembleAFleet, ReactiveFleets fleets) {
+        this.assembleAFleet = assembleAFleet;
+        this.fleets = fleets;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<FleetResource>> assembleAFleet(@RequestBody RescueFleetRequest rescueFleetRequest,
+                                                              UriComponentsBuilder uriComponentsBuilder) {
+        return Mono.defer(() -> assembleAFleet.forPassengers(rescueFleetRequest.numberOfPassengers, toRescueRules(rescueFleetRequest.rules)))
+                .map(fleet -> created(uriComponentsBuilder.path("/rescueFleets/{id}").buildAndExpand(fleet.id()).toUri())
+                        .body(new FleetResource(fleet)));
+    }
+
+    /**
+     * Assemble a fleet per request, reporting for each one either the fleet or the problem that prevented it.
+     * The fleets are all assembled out of the same snapshot of the inventory, then saved and announced together.
+     */
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<List<FleetAssemblyResultResource>>> assembleFleets(@RequestBody List<RescueFleetRequest> rescueFleetRequests) {
+        return Mono.defer(() -> {
+            var batch = new RescueFleetBatch(rescueFleetRequests);
+            return assembleAFleet.forRequests(batch.fleetRequests())
+                    .map(results -> {
+                        batch.report(results);
+                        return ok(batch.results());
+                    });
+        });
+    }
+
+    /**
+     * A page of the fleets matching the query, oldest first, linking to the next page while there are more.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<FleetPageResource>> findFleets(FleetQueryRequest request, ServerWebExchange exchange) {
+        return Mono.defer(() -> fleets.find(request.toFleetQuery(), request.after(), request.pageLimit()))
+                .map(page -> FleetPageResource.linkedPage(page, UriComponentsBuilder.fromUri(exchange.getRequest().getURI())));
+    }
+
+    /**
+     * Every fleet matching the query, oldest first, one JSON document per line. The next page of {@code limit}
+     * fleets is only read once the previous one is written.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<FleetResource> streamFleets(FleetQueryRequest request) {
+        return Flux.defer(() -> {
+            FleetQuery query = request.toFleetQuery();
+            int limit = request.pageLimit();
+            return fleets.find(query, request.after(), limit)
+                    .expand(page -> page.isLast() ? Mono.empty() : fleets.find(query, page.next(), limit))
+                    .concatMapIterable(FleetPage::fleets)
+                    .map(FleetResource::new);
+        });
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<FleetResource>> getFleetById(@PathVariable UUID id) {
+        return fleets.getById(id).map(fleet -> ok(new FleetResource(fleet)));
+    }
+}
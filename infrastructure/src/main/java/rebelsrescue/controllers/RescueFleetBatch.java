@@ -0,0 +1,78 @@
+package rebelsrescue.controllers;
+
+import rebelsrescue.fleet.FleetAssemblyResult;
+import rebelsrescue.fleet.FleetRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static rebelsrescue.controllers.RescueRulesRequest.toRescueRules;
+
+/**
+ * A batch of rescue fleet requests, handed over to the domain as a whole so that every fleet is assembled out of
+ * the same snapshot of the inventory. The requests that are invalid on their own, missing or with invalid rules,
+ * are reported right away.
+ */
+final class RescueFleetBatch {
+    static final int MAX_REQUESTS = 1000;
+
+    private final FleetAssemblyResultResource[] resources;
+    private final List<FleetRequest> fleetRequests = new ArrayList<>();
+    private final List<Integer> fleetRequestPositions = new ArrayList<>();
+
+    /**
+     * @throws IllegalArgumentException if there are more than {@link #MAX_REQUESTS} requests
+     */
+    RescueFleetBatch(List<RescueFleetRequest> rescueFleetRequests) {
+        if (rescueFleetRequests.size() > MAX_REQUESTS) {
+            throw new IllegalArgumentException("A batch holds at most %d rescue fleet requests, got: %d"
+                    .formatted(MAX_REQUESTS, rescueFleetRequests.size()));
+        }
+        this.resources = new FleetAssemblyResultResource[rescueFleetRequests.size()];
+        for (int request = 0; request < rescueFleetRequests.size(); request++) {
+            RescueFleetRequest rescueFleetRequest = rescueFleetRequests.get(request);
+            FleetRequest fleetRequest;
+            try {
+                if (rescueFleetRequest == null || rescueFleetRequest.numberOfPassengers == null) {
+                    throw new IllegalArgumentException("A rescue fleet request needs a number of passengers");
+                }
+                fleetRequest = new FleetRequest(rescueFleetRequest.numberOfPassengers, toRescueRules(rescueFleetRequest.rules));
+            } catch (IllegalArgumentException e) {
+                Integer numberOfPassengers = rescueFleetRequest == null ? null : rescueFleetRequest.numberOfPassengers;
+                resources[request] = FleetAssemblyResultResource.failed(numberOfPassengers, DomainProblems.toProblemDetail(e));
+                continue;
+            }
+            fleetRequests.add(fleetRequest);
+            fleetRequestPositions.add(request);
+        }
+    }
+
+    /**
+     * The valid requests, in order.
+     */
+    List<FleetRequest> fleetRequests() {
+        return fleetRequests;
+    }
+
+    /**
+     * Report the results of the valid requests, in the order they were handed over.
+     */
+    void report(List<FleetAssemblyResult> results) {
+        for (int result = 0; result < results.size(); result++) {
+            resources[fleetRequestPositions.get(result)] = toResource(results.get(result));
+        }
+    }
+
+    /**
+     * The result of each request, in the order of the requests.
+     */
+    List<FleetAssemblyResultResource> results() {
+        return List.of(resources);
+    }
+
+    private FleetAssemblyResultResource toResource(FleetAssemblyResult result) {
+        return result.isAssembled()
+                ? FleetAssemblyResultResource.assembled(result.requestedPassengers(), new FleetResource(result.fleet()))
+                : FleetAssemblyResultResource.failed(result.requestedPassengers(), DomainProblems.toProblemDetail(result.failure()));
+    }
+}
@@ -1,5 +1,8 @@
 package rebelsrescue.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -7,35 +10,90 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import rebelsrescue.fleet.Fleet;
+import rebelsrescue.fleet.FleetCursor;
+import rebelsrescue.fleet.FleetPage;
+import rebelsrescue.fleet.FleetQuery;
 import rebelsrescue.fleet.api.AssembleAFleet;
 import rebelsrescue.fleet.spi.Fleets;
 
 import java.net.URISyntaxException;
+import java.util.List;
 import java.util.UUID;
 
 import static org.springframework.http.ResponseEntity.created;
 import static org.springframework.http.ResponseEntity.ok;
+import static org.springframework.web.servlet.support.ServletUriComponentsBuilder.fromCurrentRequest;
 import static org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder.fromMethodCall;
 import static org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder.on;
+import static rebelsrescue.controllers.RescueRulesRequest.toRescueRules;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/rescueFleets")
 public class RescueFleetController {
     private AssembleAFleet assembleAFleet;
     private Fleets fleets;
+    private ObjectMapper objectMapper;
 
-    public RescueFleetController(AssembleAFleet assembleAFleet, Fleets fleets) {
+    public RescueFleetController(AssembleAFleet assembleAFleet, Fleets fleets, ObjectMapper objectMapper) {
         this.assembleAFleet = assembleAFleet;
         this.fleets = fleets;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
     public ResponseEntity<FleetResource> assembleAFleet(@RequestBody RescueFleetRequest rescueFleetRequest) throws URISyntaxException {
-        var fleet = assembleAFleet.forPassengers(rescueFleetRequest.numberOfPassengers);
+        var fleet = assembleAFleet.forPassengers(rescueFleetRequest.numberOfPassengers, toRescueRules(rescueFleetRequest.rules));
         return created(fromMethodCall(on(this.getClass()).getFleetById(fleet.id())).build().toUri())
                 .body(new FleetResource(fleet));
     }
 
+    /**
+     * Assemble a fleet per request, reporting for each one either the fleet or the problem that prevented it.
+     * The fleets are all assembled out of the same snapshot of the inventory, then saved and announced together.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<FleetAssemblyResultResource>> assembleFleets(@RequestBody List<RescueFleetRequest> rescueFleetRequests) {
+        var batch = new RescueFleetBatch(rescueFleetRequests);
+        batch.report(assembleAFleet.forRequests(batch.fleetRequests()));
+        return ok(batch.results());
+    }
+
+    /**
+     * A page of the fleets matching the query, oldest first, linking to the next page while there are more.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<FleetPageResource> findFleets(FleetQueryRequest request) {
+        var page = fleets.find(request.toFleetQuery(), request.after(), request.pageLimit());
+        return FleetPageResource.linkedPage(page, fromCurrentRequest());
+    }
+
+    /**
+     * Every fleet matching the query, oldest first, one JSON document per line. The fleets are read and written a
+     * page of {@code limit} fleets at a time, so that the listing never holds them all.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamFleets(FleetQueryRequest request) {
+        FleetQuery query = request.toFleetQuery();
+        FleetCursor after = request.after();
+        int limit = request.pageLimit();
+        StreamingResponseBody body = output -> {
+            FleetCursor cursor = after;
+            do {
+                FleetPage page = fleets.find(query, cursor, limit);
+                for (Fleet fleet : page.fleets()) {
+                    output.write(objectMapper.writeValueAsBytes(new FleetResource(fleet)));
+                    output.write('\n');
+                }
+                output.flush();
+                cursor = page.next();
+            } while (cursor != null);
+        };
+        return ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<FleetResource> getFleetById(@PathVariable UUID id) {
         return ok(new FleetResource(fleets.getById(id)));
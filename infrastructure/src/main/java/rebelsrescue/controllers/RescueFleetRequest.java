@@ -5,6 +5,7 @@ package rebelsrescue.controllers;
  */
 public class RescueFleetRequest {
     public Integer numberOfPassengers;
+    public RescueRulesRequest rules;
 
     public RescueFleetRequest() {
     }
@@ -0,0 +1,34 @@
+package rebelsrescue.controllers;
+
+import rebelsrescue.fleet.CargoCapacity;
+import rebelsrescue.fleet.specifications.RescueRules;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+/**
+ * DTO for the rules of a rescue mission; the rules left out keep their default.
+ */
+public class RescueRulesRequest {
+    public BigDecimal minimalCargoCapacity;
+    public Integer minimalPassengersCapacity;
+    public Integer maximalPassengersCapacity;
+    public Set<String> includedNames;
+    public Set<String> excludedNames;
+
+    public RescueRulesRequest() {
+    }
+
+    static RescueRules toRescueRules(RescueRulesRequest request) {
+        if (request == null) {
+            return RescueRules.DEFAULT;
+        }
+        RescueRules defaults = RescueRules.DEFAULT;
+        return new RescueRules(
+                request.minimalCargoCapacity == null ? defaults.minimalCargoCapacity() : new CargoCapacity(request.minimalCargoCapacity),
+                request.minimalPassengersCapacity == null ? defaults.minimalPassengersCapacity() : request.minimalPassengersCapacity,
+                request.maximalPassengersCapacity == null ? defaults.maximalPassengersCapacity() : request.maximalPassengersCapacity,
+                request.includedNames,
+                request.excludedNames);
+    }
+}
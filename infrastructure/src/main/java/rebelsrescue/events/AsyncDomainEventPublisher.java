@@ -0,0 +1,234 @@
+package rebelsrescue.events;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rebelsrescue.fleet.events.DomainEventPublisher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous decorator of a {@link DomainEventPublisher}.
+ * <p>
+ * Published events are put in a bounded lock-free ring buffer and handed over, in batches and in order,
+ * to the delegate by a dedicated dispatcher thread, so that listeners no longer add to the latency of
+ * the publisher. What happens when the buffer is full depends on the {@link BackpressurePolicy}.
+ * <p>
+ * Once the dispatcher has stopped, the events still offered by publishers racing with {@link #close(Duration)}
+ * are delivered on their own thread rather than left in the buffer.
+ */
+public class AsyncDomainEventPublisher implements DomainEventPublisher, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncDomainEventPublisher.class);
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final DomainEventPublisher delegate;
+    private final EventRingBuffer<PendingEvent> buffer;
+    private final BackpressurePolicy backpressurePolicy;
+    private final int maxBatchSize;
+    private final Thread dispatcher;
+    private final AtomicLong dispatchedEvents = new AtomicLong();
+    private final AtomicLong failedEvents = new AtomicLong();
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    private volatile boolean running = true;
+    /**
+     * Whether the dispatcher still takes the events out of the buffer, cleared when it exits or is given up on.
+     */
+    private volatile boolean dispatching = true;
+    private volatile boolean dispatcherIdle;
+
+    /**
+     * @param bufferSize   number of pending events kept, rounded up to a power of two
+     * @param maxBatchSize largest number of events handed over to the delegate at once
+     */
+    public AsyncDomainEventPublisher(DomainEventPublisher delegate, int bufferSize,
+                                     BackpressurePolicy backpressurePolicy, int maxBatchSize) {
+        this(delegate, bufferSize, backpressurePolicy, maxBatchSize, Thread.ofPlatform().daemon());
+    }
+
+    /**
+     * @param dispatcherThread builder of the dispatcher thread, on which listeners run: a virtual thread
+     *                         does not hold a platform thread while listeners block
+     */
+    public AsyncDomainEventPublisher(DomainEventPublisher delegate, int bufferSize, BackpressurePolicy backpressurePolicy,
+                                     int maxBatchSize, Thread.Builder dispatcherThread) {
+        if (bufferSize < 1 || bufferSize > 1 << 30) {
+            throw new IllegalArgumentException("Event buffer size must be within [1, 2^30], got: " + bufferSize);
+        }
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Event max batch size must be positive, got: " + maxBatchSize);
+        }
+        this.delegate = delegate;
+        this.buffer = new EventRingBuffer<>(Math.max(2, Integer.highestOneBit(bufferSize - 1) << 1));
+        this.backpressurePolicy = backpressurePolicy;
+        this.maxBatchSize = maxBatchSize;
+        this.dispatcher = dispatcherThread.name("domain-events-dispatcher").start(this::dispatch);
+    }
+
+    @Override
+    public void publish(Object event) {
+        if (!running) {
+            throw new IllegalStateException("Domain event publisher is closed");
+        }
+        PendingEvent pendingEvent = new PendingEvent(event, System.nanoTime());
+        while (!buffer.offer(pendingEvent)) {
+            if (!dispatching) {
+                deliver(List.of(event));
+                return;
+            }
+            switch (backpressurePolicy) {
+                case BLOCK -> {
+                    wakeUpDispatcher();
+                    LockSupport.parkNanos(FULL_PARK_NANOS);
+                }
+                case DROP_OLDEST -> {
+                    if (buffer.poll() != null) {
+                        droppedEvents.incrementAndGet();
+                    }
+                }
+                case CALLER_RUNS -> {
+                    deliver(List.of(event));
+                    return;
+                }
+            }
+        }
+        wakeUpDispatcher();
+        if (!dispatching) {
+            // offered while the dispatcher was exiting, after it last looked at the buffer
+            drain();
+        }
+    }
+
+    /**
+     * Number of events waiting to be dispatched.
+     */
+    public int queueDepth() {
+        return buffer.size();
+    }
+
+    public int queueCapacity() {
+        return buffer.capacity();
+    }
+
+    /**
+     * How long the oldest pending event has been waiting, zero when none is.
+     */
+    public Duration lag() {
+        PendingEvent oldest = buffer.peek();
+        return oldest == null ? Duration.ZERO : Duration.ofNanos(Math.max(0, System.nanoTime() - oldest.publishedAtNanos()));
+    }
+
+    public long dispatchedEvents() {
+        return dispatchedEvents.get();
+    }
+
+    /**
+     * Number of events the delegate failed to publish.
+     */
+    public long failedEvents() {
+        return failedEvents.get();
+    }
+
+    public long droppedEvents() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * Stop accepting events and dispatch the pending ones, waiting for them at most {@code timeout}.
+     */
+    public void close(Duration timeout) {
+        running = false;
+        LockSupport.unpark(dispatcher);
+        try {
+            dispatcher.join(Math.max(1, timeout.toMillis()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (dispatcher.isAlive()) {
+            logger.warn("{} domain events were not dispatched before closing", buffer.size());
+            dispatching = false;
+            dispatcher.interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        close(Duration.ofSeconds(5));
+    }
+
+    private void wakeUpDispatcher() {
+        if (dispatcherIdle) {
+            LockSupport.unpark(dispatcher);
+        }
+    }
+
+    private void dispatch() {
+        try {
+            dispatchUntilClosed();
+        } finally {
+            dispatching = false;
+            // the events offered before the publishers could see the flag cleared
+            if (!Thread.currentThread().isInterrupted()) {
+                drain();
+            }
+        }
+    }
+
+    private void dispatchUntilClosed() {
+        List<Object> batch = new ArrayList<>(Math.min(maxBatchSize, buffer.capacity()));
+        while (!Thread.currentThread().isInterrupted()) {
+            PendingEvent pendingEvent;
+            while (batch.size() < maxBatchSize && (pendingEvent = buffer.poll()) != null) {
+                batch.add(pendingEvent.event());
+            }
+            if (!batch.isEmpty()) {
+                deliver(batch);
+                batch.clear();
+            } else if (!running) {
+                return;
+            } else {
+                dispatcherIdle = true;
+                // re-check after flagging, so that an event published meanwhile is not left waiting for the park timeout
+                if (buffer.isEmpty() && running) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                dispatcherIdle = false;
+            }
+        }
+    }
+
+    private void drain() {
+        List<Object> batch = new ArrayList<>();
+        PendingEvent pendingEvent;
+        while ((pendingEvent = buffer.poll()) != null) {
+            batch.add(pendingEvent.event());
+            if (batch.size() == maxBatchSize) {
+                deliver(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            deliver(batch);
+        }
+    }
+
+    private void deliver(List<Object> events) {
+        try {
+            delegate.publishAll(events);
+            dispatchedEvents.addAndGet(events.size());
+        } catch (RuntimeException e) {
+            logger.warn("Failed to dispatch {} domain events", events.size(), e);
+            failedEvents.addAndGet(events.size());
+        }
+    }
+
+    private record PendingEvent(Object event, long publishedAtNanos) {
+    }
+}
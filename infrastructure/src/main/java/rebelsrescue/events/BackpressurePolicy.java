@@ -0,0 +1,19 @@
+package rebelsrescue.events;
+
+/**
+ * What to do with an event published while the dispatch buffer is full.
+ */
+public enum BackpressurePolicy {
+    /**
+     * Wait for the dispatcher to make room: no event is lost but publishers are slowed down.
+     */
+    BLOCK,
+    /**
+     * Discard the oldest pending event to make room: publishers are never slowed down.
+     */
+    DROP_OLDEST,
+    /**
+     * Dispatch the event on the publishing thread: no event is lost, but it may overtake pending ones.
+     */
+    CALLER_RUNS
+}
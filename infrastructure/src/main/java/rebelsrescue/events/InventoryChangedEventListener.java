@@ -0,0 +1,25 @@
+package rebelsrescue.events;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import rebelsrescue.fleet.events.InventoryChangedEvent;
+
+/**
+ * Logs the changes of the starship inventory between two loads.
+ */
+@Component
+public class InventoryChangedEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryChangedEventListener.class);
+
+    @EventListener
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        logger.info("Starship inventory changed: {} added, {} removed, {} changed ({} starships)",
+            event.added().size(),
+            event.removed().size(),
+            event.changed().size(),
+            event.inventorySize());
+    }
+}
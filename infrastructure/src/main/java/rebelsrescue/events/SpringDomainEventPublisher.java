@@ -1,7 +1,6 @@
 package rebelsrescue.events;
 
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
 import rebelsrescue.fleet.events.DomainEventPublisher;
 
@@ -10,7 +9,6 @@ import rebelsrescue.fleet.events.DomainEventPublisher;
  * Adapts domain events to Spring's event system.
  */
 @Component
-@Primary
 public class SpringDomainEventPublisher implements DomainEventPublisher {
 
     private final ApplicationEventPublisher springEventPublisher;
@@ -0,0 +1,154 @@
+package rebelsrescue.inventory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rebelsrescue.fleet.StarShip;
+import rebelsrescue.fleet.StarShipColumns;
+import rebelsrescue.fleet.spi.StarShipInventory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caching decorator of a {@link StarShipInventory}.
+ * <p>
+ * The first call loads the inventory synchronously. Afterwards the cached ships are always served
+ * from memory: a refresh is started in the background {@code refreshAhead} before the entry expires,
+ * only one refresh runs at a time, and when the upstream fails the previous (possibly stale) ships
+ * are kept until a later refresh succeeds.
+ * <p>
+ * Ships are cached as {@link StarShipColumns}, which the fleet assembly indexes without materializing them.
+ */
+public class CachingStarShipInventory implements StarShipInventory, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingStarShipInventory.class);
+
+    private final StarShipInventory delegate;
+    private final Duration ttl;
+    private final Duration refreshAhead;
+    private final Duration retryDelay;
+    private final Clock clock;
+    private final ScheduledExecutorService refresher;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile Snapshot snapshot;
+    private ScheduledFuture<?> scheduledRefresh;
+
+    public CachingStarShipInventory(StarShipInventory delegate, Duration ttl, Duration refreshAhead) {
+        this(delegate, ttl, refreshAhead, Thread.ofPlatform().daemon());
+    }
+
+    /**
+     * @param refresherThread builder of the thread refreshing the ships in the background
+     */
+    public CachingStarShipInventory(StarShipInventory delegate, Duration ttl, Duration refreshAhead, Thread.Builder refresherThread) {
+        this(delegate, ttl, refreshAhead, Clock.systemUTC(),
+                Executors.newSingleThreadScheduledExecutor(refresherThread.name("starship-inventory-refresher").factory()));
+    }
+
+    CachingStarShipInventory(StarShipInventory delegate, Duration ttl, Duration refreshAhead,
+                             Clock clock, ScheduledExecutorService refresher) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Inventory cache ttl must be positive, got: " + ttl);
+        }
+        if (refreshAhead.isNegative() || refreshAhead.compareTo(ttl) >= 0) {
+            throw new IllegalArgumentException("Inventory cache refresh-ahead must be within [0, ttl), got: " + refreshAhead);
+        }
+        this.delegate = delegate;
+        this.ttl = ttl;
+        this.refreshAhead = refreshAhead;
+        this.retryDelay = refreshAhead.isZero() ? ttl : refreshAhead.dividedBy(2).plusMillis(1);
+        this.clock = clock;
+        this.refresher = refresher;
+    }
+
+    @Override
+    public List<StarShip> starShips() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return load().starShips();
+        }
+        if (!clock.instant().isBefore(current.refreshAt())) {
+            refreshAsync();
+        }
+        return current.starShips();
+    }
+
+    /**
+     * Whether the cached ships outlived their ttl, i.e. they are served because the upstream keeps failing.
+     */
+    public boolean isStale() {
+        Snapshot current = snapshot;
+        return current != null && !clock.instant().isBefore(current.expiresAt());
+    }
+
+    private Snapshot load() {
+        // a lock rather than synchronized: waiting for the upstream must not pin the carrier of a virtual thread
+        lock.lock();
+        try {
+            if (snapshot == null) {
+                snapshot = fetch();
+                scheduleRefresh(Duration.between(clock.instant(), snapshot.refreshAt()));
+            }
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refreshAsync() {
+        if (!refresher.isShutdown() && refreshing.compareAndSet(false, true)) {
+            refresher.execute(this::refresh);
+        }
+    }
+
+    private void refresh() {
+        try {
+            snapshot = fetch();
+            scheduleRefresh(Duration.between(clock.instant(), snapshot.refreshAt()));
+        } catch (RuntimeException e) {
+            logger.warn("Starship inventory refresh failed, serving cached ships loaded at {}", snapshot.loadedAt(), e);
+            scheduleRefresh(retryDelay);
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    private void scheduleRefresh(Duration delay) {
+        lock.lock();
+        try {
+            if (refresher.isShutdown()) {
+                return;
+            }
+            if (scheduledRefresh != null) {
+                scheduledRefresh.cancel(false);
+            }
+            scheduledRefresh = refresher.schedule(this::refreshAsync, Math.max(0, delay.toMillis()), TimeUnit.MILLISECONDS);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Snapshot fetch() {
+        List<StarShip> starShips = StarShipColumns.of(delegate.starShips());
+        Instant loadedAt = clock.instant();
+        return new Snapshot(starShips, loadedAt, loadedAt.plus(ttl).minus(refreshAhead), loadedAt.plus(ttl));
+    }
+
+    @Override
+    public void close() {
+        refresher.shutdownNow();
+    }
+
+    private record Snapshot(List<StarShip> starShips, Instant loadedAt, Instant refreshAt, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,45 @@
+package rebelsrescue.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import rebelsrescue.events.AsyncDomainEventPublisher;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exposes the buffer of the asynchronous domain event publisher: how full it is, how late the dispatch runs
+ * and how many events went through or were dropped.
+ */
+public class AsyncDomainEventPublisherMetrics implements MeterBinder {
+
+    private final AsyncDomainEventPublisher publisher;
+
+    public AsyncDomainEventPublisherMetrics(AsyncDomainEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("rescue.events.queue.depth", publisher, AsyncDomainEventPublisher::queueDepth)
+                .description("Domain events waiting to be dispatched")
+                .register(registry);
+        Gauge.builder("rescue.events.queue.capacity", publisher, AsyncDomainEventPublisher::queueCapacity)
+                .description("Domain events the buffer holds at most")
+                .register(registry);
+        TimeGauge.builder("rescue.events.lag", publisher, TimeUnit.NANOSECONDS, p -> p.lag().toNanos())
+                .description("How long the oldest pending domain event has been waiting")
+                .register(registry);
+        FunctionCounter.builder("rescue.events.dispatched", publisher, AsyncDomainEventPublisher::dispatchedEvents)
+                .description("Domain events handed over to the listeners")
+                .register(registry);
+        FunctionCounter.builder("rescue.events.failed", publisher, AsyncDomainEventPublisher::failedEvents)
+                .description("Domain events the listeners failed to handle")
+                .register(registry);
+        FunctionCounter.builder("rescue.events.dropped", publisher, AsyncDomainEventPublisher::droppedEvents)
+                .description("Domain events dropped while the buffer was full")
+                .register(registry);
+    }
+}
@@ -0,0 +1,47 @@
+package rebelsrescue.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import rebelsrescue.fleet.MemoizingFleetSelection;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Exposes the selections remembered by a {@link MemoizingFleetSelection}, under the names of the Micrometer cache metrics.
+ */
+public class MemoizingFleetSelectionMetrics implements MeterBinder {
+
+    private static final String CACHE = "fleet-selections";
+
+    private final MemoizingFleetSelection selection;
+
+    public MemoizingFleetSelectionMetrics(MemoizingFleetSelection selection) {
+        this.selection = selection;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("cache.size", selection, MemoizingFleetSelection::size)
+                .tag("cache", CACHE)
+                .description("Remembered selections")
+                .register(registry);
+        Gauge.builder("cache.max.size", selection, MemoizingFleetSelection::maxSize)
+                .tag("cache", CACHE)
+                .register(registry);
+        counter(registry, "cache.gets", "hit", MemoizingFleetSelection::hits);
+        counter(registry, "cache.gets", "miss", MemoizingFleetSelection::misses);
+        counter(registry, "cache.evictions", null, MemoizingFleetSelection::evictions);
+        counter(registry, "cache.invalidations", null, MemoizingFleetSelection::invalidations);
+    }
+
+    private void counter(MeterRegistry registry, String name, String result, ToDoubleFunction<MemoizingFleetSelection> count) {
+        FunctionCounter.Builder<MemoizingFleetSelection> counter = FunctionCounter.builder(name, selection, count)
+                .tag("cache", CACHE);
+        if (result != null) {
+            counter.tag("result", result);
+        }
+        counter.register(registry);
+    }
+}
@@ -0,0 +1,92 @@
+package rebelsrescue.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import rebelsrescue.fleet.Fleet;
+import rebelsrescue.fleet.FleetAssemblyResult;
+import rebelsrescue.fleet.FleetRequest;
+import rebelsrescue.fleet.api.AssembleAFleet;
+import rebelsrescue.fleet.specifications.RescueRules;
+
+import java.util.List;
+
+/**
+ * Times the fleet assemblies and counts their outcomes, failures being tagged with the simple name of their exception,
+ * be they thrown or reported in the results of a batch. The rate of {@code InsufficientStarShipsException} tells how
+ * often the inventory could not carry the passengers.
+ */
+public class MeteredAssembleAFleet implements AssembleAFleet {
+
+    private final AssembleAFleet delegate;
+    private final PortTimer singleAssemblies;
+    private final PortTimer batchAssemblies;
+    private final Counter assembled;
+    private final Meter.MeterProvider<Counter> failed;
+
+    public MeteredAssembleAFleet(AssembleAFleet delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.singleAssemblies = timer("single", meterRegistry);
+        this.batchAssemblies = timer("batch", meterRegistry);
+        this.assembled = results().tags("outcome", "assembled", "exception", "none").register(meterRegistry);
+        this.failed = results().tag("outcome", "failed").withRegistry(meterRegistry);
+    }
+
+    @Override
+    public Fleet forPassengers(int numberOfPassengers) {
+        return forPassengers(numberOfPassengers, RescueRules.DEFAULT);
+    }
+
+    @Override
+    public Fleet forPassengers(int numberOfPassengers, RescueRules rules) {
+        try {
+            Fleet fleet = singleAssemblies.record(() -> delegate.forPassengers(numberOfPassengers, rules));
+            assembled.increment();
+            return fleet;
+        } catch (RuntimeException e) {
+            countFailure(e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<FleetAssemblyResult> forPassengers(List<Integer> numbersOfPassengers) {
+        return forPassengers(numbersOfPassengers, RescueRules.DEFAULT);
+    }
+
+    @Override
+    public List<FleetAssemblyResult> forPassengers(List<Integer> numbersOfPassengers, RescueRules rules) {
+        return counted(batchAssemblies.record(() -> delegate.forPassengers(numbersOfPassengers, rules)));
+    }
+
+    @Override
+    public List<FleetAssemblyResult> forRequests(List<FleetRequest> requests) {
+        return counted(batchAssemblies.record(() -> delegate.forRequests(requests)));
+    }
+
+    private List<FleetAssemblyResult> counted(List<FleetAssemblyResult> results) {
+        for (FleetAssemblyResult result : results) {
+            if (result.isAssembled()) {
+                assembled.increment();
+            } else {
+                countFailure(result.failure());
+            }
+        }
+        return results;
+    }
+
+    private void countFailure(RuntimeException failure) {
+        failed.withTag("exception", failure.getClass().getSimpleName()).increment();
+    }
+
+    private static Counter.Builder results() {
+        return Counter.builder("rescue.fleet.assembly.results").description("Outcomes of the requested fleet assemblies");
+    }
+
+    private static PortTimer timer(String mode, MeterRegistry meterRegistry) {
+        return new PortTimer(Timer.builder("rescue.fleet.assembly")
+                .description("Time to assemble, save and announce fleets")
+                .tag("mode", mode), meterRegistry);
+    }
+}
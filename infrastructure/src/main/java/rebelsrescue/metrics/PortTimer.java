@@ -0,0 +1,42 @@
+package rebelsrescue.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.function.Supplier;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Times the calls through a port, tagging them with the simple name of the exception they threw, {@code none} if they did not.
+ */
+final class PortTimer {
+
+    private final Meter.MeterProvider<Timer> timers;
+    private final Timer succeeded;
+
+    PortTimer(Timer.Builder timer, MeterRegistry meterRegistry) {
+        this.timers = timer.withRegistry(meterRegistry);
+        this.succeeded = timers.withTag("exception", "none");
+    }
+
+    <T> T record(Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            succeeded.record(System.nanoTime() - start, NANOSECONDS);
+            return result;
+        } catch (RuntimeException e) {
+            timers.withTag("exception", e.getClass().getSimpleName()).record(System.nanoTime() - start, NANOSECONDS);
+            throw e;
+        }
+    }
+
+    void record(Runnable call) {
+        record(() -> {
+            call.run();
+            return null;
+        });
+    }
+}
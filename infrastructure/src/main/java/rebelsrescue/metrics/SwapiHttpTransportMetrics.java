@@ -0,0 +1,49 @@
+package rebelsrescue.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import rebelsrescue.swapi.SwapiHttpTransport;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Exposes the page fetches of the SWAPI adapter: how many, how long, how many bytes, and the use of the connection pool.
+ */
+public class SwapiHttpTransportMetrics implements MeterBinder {
+
+    private final SwapiHttpTransport transport;
+
+    public SwapiHttpTransportMetrics(SwapiHttpTransport transport) {
+        this.transport = transport;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionTimer.builder("swapi.http.exchanges", transport,
+                        SwapiHttpTransport::exchanges, t -> t.exchangeTime().toNanos(), TimeUnit.NANOSECONDS)
+                .description("SWAPI page fetches, timed until their body was read")
+                .register(registry);
+        FunctionCounter.builder("swapi.http.received", transport, SwapiHttpTransport::bytesReceived)
+                .description("Bytes of the SWAPI pages as received, before decompression")
+                .baseUnit(BaseUnits.BYTES)
+                .register(registry);
+        connections(registry, "leased", SwapiHttpTransport::leasedConnections);
+        connections(registry, "available", SwapiHttpTransport::availableConnections);
+        connections(registry, "pending", SwapiHttpTransport::pendingConnectionRequests);
+        Gauge.builder("swapi.http.connections.max", transport, SwapiHttpTransport::maxConnections)
+                .description("Connections the SWAPI pool opens at most")
+                .register(registry);
+    }
+
+    private void connections(MeterRegistry registry, String state, ToDoubleFunction<SwapiHttpTransport> connections) {
+        Gauge.builder("swapi.http.connections", transport, connections)
+                .description("Connections of the SWAPI pool, or page fetches waiting for one")
+                .tag("state", state)
+                .register(registry);
+    }
+}
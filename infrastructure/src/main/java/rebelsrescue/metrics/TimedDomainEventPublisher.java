@@ -0,0 +1,48 @@
+package rebelsrescue.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import rebelsrescue.fleet.events.DomainEventPublisher;
+
+import java.util.List;
+
+/**
+ * Times how long publishing domain events blocks the publisher, and counts the published events.
+ */
+public class TimedDomainEventPublisher implements DomainEventPublisher {
+
+    private final DomainEventPublisher delegate;
+    private final PortTimer publish;
+    private final PortTimer publishAll;
+    private final Counter publishedEvents;
+
+    public TimedDomainEventPublisher(DomainEventPublisher delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.publish = timer("publish", meterRegistry);
+        this.publishAll = timer("publishAll", meterRegistry);
+        this.publishedEvents = Counter.builder("rescue.events.published")
+                .description("Domain events published")
+                .tag("publisher", delegate.getClass().getSimpleName())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void publish(Object event) {
+        publish.record(() -> delegate.publish(event));
+        publishedEvents.increment();
+    }
+
+    @Override
+    public void publishAll(List<?> events) {
+        publishAll.record(() -> delegate.publishAll(events));
+        publishedEvents.increment(events.size());
+    }
+
+    private PortTimer timer(String operation, MeterRegistry meterRegistry) {
+        return new PortTimer(Timer.builder("rescue.events.publish")
+                .description("Time spent by the publisher of domain events")
+                .tag("operation", operation)
+                .tag("publisher", delegate.getClass().getSimpleName()), meterRegistry);
+    }
+}
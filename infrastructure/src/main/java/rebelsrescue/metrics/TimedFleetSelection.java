@@ -0,0 +1,75 @@
+package rebelsrescue.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import rebelsrescue.fleet.FleetSelectionStrategy;
+import rebelsrescue.fleet.PassengerCount;
+import rebelsrescue.fleet.RescueEligibleStarShips;
+import rebelsrescue.fleet.StarShip;
+import rebelsrescue.fleet.StreamingFleetSelection;
+import rebelsrescue.fleet.specifications.RescueRules;
+
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Records the histograms of the selection time and of the number of starships selected by a strategy.
+ * Created by {@link #of}, it selects while streaming when the strategy does.
+ */
+public class TimedFleetSelection implements FleetSelectionStrategy {
+
+    private final FleetSelectionStrategy delegate;
+    private final PortTimer selections;
+    private final DistributionSummary selectedStarShips;
+
+    TimedFleetSelection(FleetSelectionStrategy delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        String strategy = delegate.getClass().getSimpleName();
+        this.selections = new PortTimer(Timer.builder("rescue.fleet.selection")
+                .description("Time to select the starships of a fleet")
+                .tag("strategy", strategy)
+                .publishPercentileHistogram(), meterRegistry);
+        this.selectedStarShips = DistributionSummary.builder("rescue.fleet.selection.starships")
+                .description("Number of starships selected into a fleet")
+                .baseUnit("starships")
+                .tag("strategy", strategy)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Time the selections of the strategy, a {@link StreamingFleetSelection} itself when the strategy is one.
+     */
+    public static TimedFleetSelection of(FleetSelectionStrategy delegate, MeterRegistry meterRegistry) {
+        return delegate instanceof StreamingFleetSelection streamingDelegate
+                ? new Streaming(streamingDelegate, meterRegistry)
+                : new TimedFleetSelection(delegate, meterRegistry);
+    }
+
+    @Override
+    public List<StarShip> select(RescueEligibleStarShips starShips, PassengerCount passengerCount) {
+        return recorded(() -> delegate.select(starShips, passengerCount));
+    }
+
+    List<StarShip> recorded(Supplier<List<StarShip>> selection) {
+        List<StarShip> selected = selections.record(selection);
+        selectedStarShips.record(selected.size());
+        return selected;
+    }
+
+    private static final class Streaming extends TimedFleetSelection implements StreamingFleetSelection {
+        private final StreamingFleetSelection delegate;
+
+        Streaming(StreamingFleetSelection delegate, MeterRegistry meterRegistry) {
+            super(delegate, meterRegistry);
+            this.delegate = delegate;
+        }
+
+        @Override
+        public List<StarShip> select(Stream<StarShip> starShips, RescueRules rules, PassengerCount passengerCount) {
+            return recorded(() -> delegate.select(starShips, rules, passengerCount));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package rebelsrescue.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import rebelsrescue.fleet.Fleet;
+import rebelsrescue.fleet.FleetCursor;
+import rebelsrescue.fleet.FleetPage;
+import rebelsrescue.fleet.FleetQuery;
+import rebelsrescue.fleet.spi.Fleets;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Times the operations of a fleets repository, tagged with the operation and the repository.
+ * Closing it closes the repository.
+ */
+public class TimedFleets implements Fleets, AutoCloseable {
+
+    private final Fleets delegate;
+    private final PortTimer getById;
+    private final PortTimer findById;
+    private final PortTimer save;
+    private final PortTimer saveAll;
+    private final PortTimer exists;
+    private final PortTimer find;
+
+    public TimedFleets(Fleets delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.getById = timer("getById", meterRegistry);
+        this.findById = timer("findById", meterRegistry);
+        this.save = timer("save", meterRegistry);
+        this.saveAll = timer("saveAll", meterRegistry);
+        this.exists = timer("exists", meterRegistry);
+        this.find = timer("find", meterRegistry);
+    }
+
+    @Override
+    public Fleet getById(UUID id) {
+        return getById.record(() -> delegate.getById(id));
+    }
+
+    @Override
+    public Optional<Fleet> findById(UUID id) {
+        return findById.record(() -> delegate.findById(id));
+    }
+
+    @Override
+    public Fleet save(Fleet fleet) {
+        return save.record(() -> delegate.save(fleet));
+    }
+
+    @Override
+    public List<Fleet> saveAll(List<Fleet> fleets) {
+        return saveAll.record(() -> delegate.saveAll(fleets));
+    }
+
+    @Override
+    public boolean exists(UUID id) {
+        return exists.record(() -> delegate.exists(id));
+    }
+
+    @Override
+    public FleetPage find(FleetQuery query, FleetCursor after, int limit) {
+        return find.record(() -> delegate.find(query, after, limit));
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (delegate instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private PortTimer timer(String operation, MeterRegistry meterRegistry) {
+        return new PortTimer(Timer.builder("rescue.fleets.operation")
+                .description("Time of the operations on the stored fleets")
+                .tag("operation", operation)
+                .tag("repository", delegate.getClass().getSimpleName()), meterRegistry);
+    }
+}
@@ -0,0 +1,29 @@
+package rebelsrescue.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import rebelsrescue.fleet.StarShip;
+import rebelsrescue.fleet.spi.StarShipInventory;
+
+import java.util.List;
+
+/**
+ * Times the starships handed over by an inventory adapter, tagged with the adapter.
+ */
+public class TimedStarShipInventory implements StarShipInventory {
+
+    private final StarShipInventory delegate;
+    private final PortTimer fetches;
+
+    public TimedStarShipInventory(StarShipInventory delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.fetches = new PortTimer(Timer.builder("rescue.inventory.fetch")
+                .description("Time to get the starship inventory")
+                .tag("adapter", delegate.getClass().getSimpleName()), meterRegistry);
+    }
+
+    @Override
+    public List<StarShip> starShips() {
+        return fetches.record(delegate::starShips);
+    }
+}
@@ -0,0 +1,384 @@
+package rebelsrescue.persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rebelsrescue.fleet.Fleet;
+import rebelsrescue.fleet.FleetCursor;
+import rebelsrescue.fleet.FleetNotFoundException;
+import rebelsrescue.fleet.FleetPage;
+import rebelsrescue.fleet.FleetQuery;
+import rebelsrescue.fleet.spi.FleetIndexes;
+import rebelsrescue.fleet.spi.Fleets;
+import rebelsrescue.persistence.codec.FleetBinaryCodec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Durable repository of fleets backed by an append-only log file.
+ * <p>
+ * Each save appends a record {@code [payload length][payload][crc]} at the end of the log, the payload being
+ * the fleet encoded by {@link FleetBinaryCodec}, and keeps the offset of the record in an in-memory index
+ * rebuilt by scanning the log on startup.
+ * Reads go through a memory mapping of the log. Records superseded by a later save of the same fleet
+ * are dropped when the log is compacted, which happens periodically once they take enough room, unless the
+ * compaction interval is zero.
+ * <p>
+ * The fleets are found by query through {@link FleetIndexes}, built from the latest record of each fleet on
+ * startup and kept up to date by the saves; a page of fleets is read from the log as it is listed.
+ */
+public class FileFleets implements Fleets, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileFleets.class);
+
+    private static final int MAGIC = 0x464C5453; // FLTS
+    private static final int FORMAT_VERSION = 3;
+    private static final int FILE_HEADER_SIZE = Integer.BYTES * 2;
+    private static final int RECORD_HEADER_SIZE = Integer.BYTES;
+    private static final int RECORD_OVERHEAD = RECORD_HEADER_SIZE + Integer.BYTES;
+    private static final double COMPACTION_GARBAGE_RATIO = 0.5;
+    private static final long COMPACTION_MIN_GARBAGE_BYTES = 1 << 20;
+
+    private static final FleetBinaryCodec codec = new FleetBinaryCodec();
+
+    private final Path logFile;
+    private final boolean syncOnWrite;
+    private final int maxMappingSize;
+    private final ScheduledExecutorService compactor;
+    private final FleetIndexes indexes = new FleetIndexes();
+
+    private volatile Log log;
+
+    public FileFleets(Path logFile, boolean syncOnWrite, Duration compactionInterval) {
+        this(logFile, syncOnWrite, compactionInterval, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param maxMappingSize number of bytes at the start of the log read through the memory mapping, the records
+     *                       beyond being read from the file
+     */
+    FileFleets(Path logFile, boolean syncOnWrite, Duration compactionInterval, int maxMappingSize) {
+        if (compactionInterval.isNegative()) {
+            throw new IllegalArgumentException("Fleets log compaction interval must not be negative, got: "
+                    + compactionInterval);
+        }
+        this.logFile = logFile;
+        this.syncOnWrite = syncOnWrite;
+        this.maxMappingSize = maxMappingSize;
+        this.log = Log.open(logFile, maxMappingSize);
+        for (long offset : log.index.values()) {
+            indexes.add(codec.readFleet(log.payloadAt(offset)));
+        }
+        this.compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fleets-log-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = compactionInterval.toMillis();
+        if (intervalMillis > 0) {
+            compactor.scheduleWithFixedDelay(this::compactIfNeeded, intervalMillis, intervalMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public Fleet getById(UUID id) {
+        return findById(id).orElseThrow(() -> new FleetNotFoundException(id.toString()));
+    }
+
+    @Override
+    public Optional<Fleet> findById(UUID id) {
+        Log current = log;
+        Long offset = current.index.get(id);
+        try {
+            return offset == null ? Optional.empty() : Optional.of(codec.readFleet(current.payloadAt(offset)));
+        } catch (UncheckedIOException e) {
+            // the log was compacted and closed while reading it
+            if (current != log) {
+                return findById(id);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public synchronized Fleet save(Fleet fleet) {
+        saveAll(List.of(fleet));
+        return fleet;
+    }
+
+    /**
+     * Append the records of all the fleets with a single write, and a single sync when enabled.
+     */
+    @Override
+    public synchronized List<Fleet> saveAll(List<Fleet> fleets) {
+        int maxSize = 0;
+        for (Fleet fleet : fleets) {
+            maxSize += RECORD_OVERHEAD + codec.maxEncodedSize(fleet);
+        }
+        ByteBuffer records = ByteBuffer.allocate(maxSize);
+        int[] recordOffsets = new int[fleets.size()];
+        for (int i = 0; i < fleets.size(); i++) {
+            int recordOffset = records.position();
+            recordOffsets[i] = recordOffset;
+            codec.writeFleet(fleets.get(i), records.position(recordOffset + RECORD_HEADER_SIZE));
+            int payloadLength = records.position() - recordOffset - RECORD_HEADER_SIZE;
+            records.putInt(recordOffset, payloadLength)
+                    .putInt(checksum(records.array(), recordOffset + RECORD_HEADER_SIZE, payloadLength));
+        }
+        log.append(fleets, recordOffsets, records.flip(), syncOnWrite);
+        fleets.forEach(indexes::add);
+        return fleets;
+    }
+
+    @Override
+    public boolean exists(UUID id) {
+        return log.index.containsKey(id);
+    }
+
+    @Override
+    public FleetPage find(FleetQuery query, FleetCursor after, int limit) {
+        return indexes.page(query, after, limit, this::findById);
+    }
+
+    /**
+     * Rewrite the log with only the latest record of each fleet.
+     */
+    public synchronized void compact() {
+        Log current = log;
+        Path compactedFile = logFile.resolveSibling(logFile.getFileName() + ".compacting");
+        try (FileChannel compacted = FileChannel.open(compactedFile, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            compacted.write(fileHeader());
+            var liveRecords = current.index.entrySet().stream()
+                    .sorted(Map.Entry.comparingByValue(Comparator.naturalOrder()))
+                    .toList();
+            for (Map.Entry<UUID, Long> liveRecord : liveRecords) {
+                compacted.write(current.recordAt(liveRecord.getValue()));
+            }
+            compacted.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot compact fleets log " + logFile, e);
+        }
+        try {
+            Files.move(compactedFile, logFile, ATOMIC_MOVE, REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot replace fleets log " + logFile, e);
+        }
+        log = Log.open(logFile, maxMappingSize);
+        current.close();
+    }
+
+    long garbageBytes() {
+        return log.garbageBytes;
+    }
+
+    private void compactIfNeeded() {
+        try {
+            Log current = log;
+            if (current.garbageBytes >= COMPACTION_MIN_GARBAGE_BYTES
+                    && current.garbageBytes >= current.end * COMPACTION_GARBAGE_RATIO) {
+                compact();
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Fleets log compaction failed", e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        compactor.shutdownNow();
+        log.close();
+    }
+
+    private static ByteBuffer fileHeader() {
+        return ByteBuffer.allocate(FILE_HEADER_SIZE).putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+    }
+
+    private static int checksum(byte[] bytes, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    private static int checksum(ByteBuffer bytes) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * An open log file along with the index of its records.
+     * Replaced as a whole on compaction, so that readers never mix the offsets of a log with another one.
+     */
+    private static final class Log {
+        private final FileChannel channel;
+        private final int maxMappingSize;
+        private final Map<UUID, Long> index = new ConcurrentHashMap<>();
+        private volatile MappedByteBuffer mapping;
+        private volatile long end;
+        private volatile long garbageBytes;
+
+        private Log(FileChannel channel, int maxMappingSize) {
+            this.channel = channel;
+            this.maxMappingSize = maxMappingSize;
+        }
+
+        static Log open(Path logFile, int maxMappingSize) {
+            try {
+                Files.createDirectories(logFile.toAbsolutePath().getParent());
+                Log log = new Log(FileChannel.open(logFile, CREATE, READ, WRITE), maxMappingSize);
+                log.rebuildIndex();
+                return log;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open fleets log " + logFile, e);
+            }
+        }
+
+        /**
+         * Scan the records from the start of the log to the end of the file, beyond the memory mapping if need be,
+         * dropping a torn record left at its end by a crash.
+         */
+        private void rebuildIndex() throws IOException {
+            if (channel.size() == 0) {
+                channel.write(fileHeader(), 0);
+            }
+            remap();
+            long size = channel.size();
+            if (size < FILE_HEADER_SIZE) {
+                throw new IllegalStateException("Not a fleets log (or an unsupported version of it)");
+            }
+            ByteBuffer header = read(0, FILE_HEADER_SIZE);
+            if (header.getInt(0) != MAGIC || header.getInt(Integer.BYTES) != FORMAT_VERSION) {
+                throw new IllegalStateException("Not a fleets log (or an unsupported version of it)");
+            }
+            long offset = FILE_HEADER_SIZE;
+            while (offset + RECORD_OVERHEAD <= size) {
+                int payloadLength = read(offset, Integer.BYTES).getInt(0);
+                long recordEnd = offset + RECORD_OVERHEAD + payloadLength;
+                if (payloadLength < 0 || payloadLength > Integer.MAX_VALUE - RECORD_OVERHEAD || recordEnd > size) {
+                    break;
+                }
+                ByteBuffer record = read(offset, RECORD_OVERHEAD + payloadLength);
+                ByteBuffer payload = record.slice(RECORD_HEADER_SIZE, payloadLength);
+                if (checksum(payload.duplicate()) != record.getInt(RECORD_HEADER_SIZE + payloadLength)) {
+                    break;
+                }
+                UUID id = codec.peekFleetId(payload);
+                Long previous = index.put(id, offset);
+                if (previous != null) {
+                    garbageBytes += recordSizeAt(previous);
+                }
+                offset = recordEnd;
+            }
+            if (offset < size) {
+                logger.warn("Dropping {} bytes of incomplete fleet records at the end of the log", size - offset);
+                channel.truncate(offset);
+                mapping = null;
+                remap();
+            }
+            end = offset;
+        }
+
+        void append(List<Fleet> fleets, int[] recordOffsets, ByteBuffer records, boolean sync) {
+            try {
+                long offset = end;
+                int size = records.remaining();
+                while (records.hasRemaining()) {
+                    channel.write(records, offset + size - records.remaining());
+                }
+                if (sync) {
+                    channel.force(false);
+                }
+                end = offset + size;
+                for (int i = 0; i < fleets.size(); i++) {
+                    Long previous = index.put(fleets.get(i).id(), offset + recordOffsets[i]);
+                    if (previous != null) {
+                        garbageBytes += recordSizeAt(previous);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot append to fleets log", e);
+            }
+        }
+
+        ByteBuffer payloadAt(long offset) {
+            ByteBuffer record = recordAt(offset);
+            return record.slice(RECORD_HEADER_SIZE, record.remaining() - RECORD_OVERHEAD);
+        }
+
+        ByteBuffer recordAt(long offset) {
+            int payloadLength = read(offset, Integer.BYTES).getInt(0);
+            return read(offset, RECORD_OVERHEAD + payloadLength);
+        }
+
+        private int recordSizeAt(long offset) {
+            return RECORD_OVERHEAD + read(offset, Integer.BYTES).getInt(0);
+        }
+
+        private ByteBuffer read(long offset, int length) {
+            MappedByteBuffer current = mapping;
+            // the end of the log tells whether it has grown since mapped, without a lock nor a system call
+            if (offset + length > current.limit() && current.limit() < Math.min(end, maxMappingSize)) {
+                current = remap();
+            }
+            if (offset + length <= current.limit()) {
+                return current.slice((int) offset, length);
+            }
+            // beyond what a single mapping can address
+            try {
+                ByteBuffer bytes = ByteBuffer.allocate(length);
+                while (bytes.hasRemaining()) {
+                    if (channel.read(bytes, offset + bytes.position()) < 0) {
+                        throw new IllegalStateException("Unexpected end of fleets log at " + offset);
+                    }
+                }
+                return bytes.flip();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read fleets log", e);
+            }
+        }
+
+        private synchronized MappedByteBuffer remap() {
+            try {
+                long size = Math.min(channel.size(), maxMappingSize);
+                if (mapping == null || mapping.limit() < size) {
+                    mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                }
+                return mapping;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot map fleets log", e);
+            }
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.warn("Cannot close fleets log", e);
+            }
+        }
+    }
+}
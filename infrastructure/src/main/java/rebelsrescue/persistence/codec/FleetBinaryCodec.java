@@ -0,0 +1,324 @@
+package rebelsrescue.persistence.codec;
+
+import rebelsrescue.fleet.CargoCapacity;
+import rebelsrescue.fleet.Fleet;
+import rebelsrescue.fleet.StarShip;
+import rebelsrescue.fleet.events.FleetAssembledEvent;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static rebelsrescue.persistence.codec.Varints.MAX_VARINT_SIZE;
+import static rebelsrescue.persistence.codec.Varints.MAX_VARLONG_SIZE;
+import static rebelsrescue.persistence.codec.Varints.getSignedVarInt;
+import static rebelsrescue.persistence.codec.Varints.getVarInt;
+import static rebelsrescue.persistence.codec.Varints.getVarLong;
+import static rebelsrescue.persistence.codec.Varints.putSignedVarInt;
+import static rebelsrescue.persistence.codec.Varints.putVarInt;
+import static rebelsrescue.persistence.codec.Varints.putVarLong;
+
+/**
+ * Compact binary encoding of the fleet aggregate and its events, written straight into a {@link ByteBuffer}.
+ * <p>
+ * Every message starts with a header {@code [magic][format version][message type]}. Integers are varints,
+ * cargo capacities whose unscaled value fits in a long are written as that long, and a ship name already
+ * written in the same fleet is replaced by a reference to its first occurrence. Decoded names are interned
+ * so that the many fleets made of the same ships share their names.
+ */
+public final class FleetBinaryCodec {
+
+    public static final byte FORMAT_VERSION = 2;
+
+    private static final byte MAGIC = (byte) 0xB5;
+    private static final int HEADER_SIZE = 3;
+    private static final byte FLEET = 1;
+    private static final byte STARSHIP = 2;
+    private static final byte CARGO_CAPACITY = 3;
+    private static final byte FLEET_ASSEMBLED_EVENT = 4;
+
+    private static final byte COMPACT_DECIMAL = 0;
+    private static final byte LARGE_DECIMAL = 1;
+    private static final int MAX_COMPACT_PRECISION = 18;
+    private static final int NAME_LITERAL = 0;
+    private static final int NAME_REFERENCES_LOOKUP_THRESHOLD = 16;
+    private static final int MAX_INTERNED_NAMES = 4096;
+
+    private final Map<String, String> internedNames = new ConcurrentHashMap<>();
+
+    public void writeFleet(Fleet fleet, ByteBuffer buffer) {
+        putHeader(buffer, FLEET);
+        putUuid(buffer, fleet.id());
+        putInstant(buffer, fleet.createdAt());
+        putVarInt(buffer, fleet.size());
+        List<String> writtenNames = new ArrayList<>();
+        Map<String, Integer> writtenNameReferences = fleet.size() > NAME_REFERENCES_LOOKUP_THRESHOLD ? new HashMap<>() : null;
+        for (StarShip starShip : fleet.starships()) {
+            putName(buffer, starShip.name(), writtenNames, writtenNameReferences);
+            putVarInt(buffer, starShip.passengersCapacity());
+            putCargoCapacity(buffer, starShip.cargoCapacity());
+        }
+    }
+
+    public Fleet readFleet(ByteBuffer buffer) {
+        checkHeader(buffer, FLEET);
+        UUID id = getUuid(buffer);
+        Instant createdAt = getInstant(buffer);
+        int size = getVarInt(buffer);
+        List<StarShip> starShips = new ArrayList<>(size);
+        List<String> readNames = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            starShips.add(new StarShip(getName(buffer, readNames), getVarInt(buffer), getCargoCapacity(buffer)));
+        }
+        return new Fleet(id, starShips, createdAt);
+    }
+
+    /**
+     * Read the id of an encoded fleet without decoding nor consuming it.
+     */
+    public UUID peekFleetId(ByteBuffer buffer) {
+        int start = buffer.position();
+        checkHeader(buffer.duplicate(), FLEET);
+        return new UUID(buffer.getLong(start + HEADER_SIZE), buffer.getLong(start + HEADER_SIZE + Long.BYTES));
+    }
+
+    public void writeStarShip(StarShip starShip, ByteBuffer buffer) {
+        putHeader(buffer, STARSHIP);
+        putName(buffer, starShip.name(), new ArrayList<>(1), null);
+        putVarInt(buffer, starShip.passengersCapacity());
+        putCargoCapacity(buffer, starShip.cargoCapacity());
+    }
+
+    public StarShip readStarShip(ByteBuffer buffer) {
+        checkHeader(buffer, STARSHIP);
+        return new StarShip(getName(buffer, new ArrayList<>(1)), getVarInt(buffer), getCargoCapacity(buffer));
+    }
+
+    public void writeCargoCapacity(CargoCapacity cargoCapacity, ByteBuffer buffer) {
+        putHeader(buffer, CARGO_CAPACITY);
+        putCargoCapacity(buffer, cargoCapacity);
+    }
+
+    public CargoCapacity readCargoCapacity(ByteBuffer buffer) {
+        checkHeader(buffer, CARGO_CAPACITY);
+        return getCargoCapacity(buffer);
+    }
+
+    public void writeFleetAssembledEvent(FleetAssembledEvent event, ByteBuffer buffer) {
+        putHeader(buffer, FLEET_ASSEMBLED_EVENT);
+        putUuid(buffer, event.eventId());
+        putUuid(buffer, event.fleetId());
+        putVarInt(buffer, event.numberOfStarShips());
+        putVarInt(buffer, event.totalPassengerCapacity());
+        putVarInt(buffer, event.requestedPassengers());
+        putInstant(buffer, event.occurredAt());
+    }
+
+    public FleetAssembledEvent readFleetAssembledEvent(ByteBuffer buffer) {
+        checkHeader(buffer, FLEET_ASSEMBLED_EVENT);
+        return new FleetAssembledEvent(
+                getUuid(buffer),
+                getUuid(buffer),
+                getVarInt(buffer),
+                getVarInt(buffer),
+                getVarInt(buffer),
+                getInstant(buffer));
+    }
+
+    /**
+     * Upper bound of the size of an encoded fleet, to size the buffer it is written to.
+     */
+    public int maxEncodedSize(Fleet fleet) {
+        int size = HEADER_SIZE + 2 * Long.BYTES + MAX_VARLONG_SIZE + 2 * MAX_VARINT_SIZE;
+        for (StarShip starShip : fleet.starships()) {
+            size += maxEncodedSize(starShip) - HEADER_SIZE;
+        }
+        return size;
+    }
+
+    public int maxEncodedSize(StarShip starShip) {
+        return HEADER_SIZE + 2 * MAX_VARINT_SIZE + 3 * starShip.name().length()
+                + MAX_VARINT_SIZE + maxEncodedSize(starShip.cargoCapacity()) - HEADER_SIZE;
+    }
+
+    public int maxEncodedSize(CargoCapacity cargoCapacity) {
+        BigDecimal value = cargoCapacity.value();
+        int unscaledSize = value.precision() <= MAX_COMPACT_PRECISION
+                ? MAX_VARLONG_SIZE
+                : MAX_VARINT_SIZE + value.unscaledValue().bitLength() / 8 + 1;
+        return HEADER_SIZE + 1 + MAX_VARINT_SIZE + unscaledSize;
+    }
+
+    public int maxEncodedSize(FleetAssembledEvent event) {
+        return HEADER_SIZE + 4 * Long.BYTES + 3 * MAX_VARINT_SIZE + MAX_VARLONG_SIZE + MAX_VARINT_SIZE;
+    }
+
+    private static void putHeader(ByteBuffer buffer, byte type) {
+        buffer.put(MAGIC).put(FORMAT_VERSION).put(type);
+    }
+
+    private static void checkHeader(ByteBuffer buffer, byte expectedType) {
+        byte magic = buffer.get();
+        byte version = buffer.get();
+        byte type = buffer.get();
+        if (magic != MAGIC) {
+            throw new IllegalArgumentException("Not an encoded fleet message");
+        }
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported fleet message format version: " + version);
+        }
+        if (type != expectedType) {
+            throw new IllegalArgumentException("Unexpected fleet message type %d instead of %d".formatted(type, expectedType));
+        }
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID uuid) {
+        buffer.putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID getUuid(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private static void putInstant(ByteBuffer buffer, Instant instant) {
+        Varints.putSignedVarLong(buffer, instant.getEpochSecond());
+        putVarInt(buffer, instant.getNano());
+    }
+
+    private static Instant getInstant(ByteBuffer buffer) {
+        return Instant.ofEpochSecond(Varints.getSignedVarLong(buffer), getVarInt(buffer));
+    }
+
+    private static void putCargoCapacity(ByteBuffer buffer, CargoCapacity cargoCapacity) {
+        BigDecimal value = cargoCapacity.value();
+        if (value.precision() <= MAX_COMPACT_PRECISION) {
+            buffer.put(COMPACT_DECIMAL);
+            putSignedVarInt(buffer, value.scale());
+            putVarLong(buffer, value.scale() == 0 ? value.longValue() : value.unscaledValue().longValue());
+        } else {
+            byte[] unscaled = value.unscaledValue().toByteArray();
+            buffer.put(LARGE_DECIMAL);
+            putSignedVarInt(buffer, value.scale());
+            putVarInt(buffer, unscaled.length);
+            buffer.put(unscaled);
+        }
+    }
+
+    private static CargoCapacity getCargoCapacity(ByteBuffer buffer) {
+        byte kind = buffer.get();
+        int scale = getSignedVarInt(buffer);
+        return switch (kind) {
+            case COMPACT_DECIMAL -> new CargoCapacity(BigDecimal.valueOf(getVarLong(buffer), scale));
+            case LARGE_DECIMAL -> {
+                byte[] unscaled = new byte[getVarInt(buffer)];
+                buffer.get(unscaled);
+                yield new CargoCapacity(new BigDecimal(new BigInteger(unscaled), scale));
+            }
+            default -> throw new IllegalArgumentException("Unknown cargo capacity encoding: " + kind);
+        };
+    }
+
+    /**
+     * A name is either {@code 0} followed by its UTF-8 bytes, or {@code n > 0} referencing the n-th name written before.
+     */
+    private static void putName(ByteBuffer buffer, String name, List<String> writtenNames, Map<String, Integer> writtenNameReferences) {
+        int reference = writtenNameReferences != null
+                ? writtenNameReferences.getOrDefault(name, -1)
+                : writtenNames.indexOf(name);
+        if (reference >= 0) {
+            putVarInt(buffer, reference + 1);
+            return;
+        }
+        putVarInt(buffer, NAME_LITERAL);
+        putUtf8(buffer, name);
+        if (writtenNameReferences != null) {
+            writtenNameReferences.put(name, writtenNameReferences.size());
+        } else {
+            writtenNames.add(name);
+        }
+    }
+
+    private String getName(ByteBuffer buffer, List<String> readNames) {
+        int reference = getVarInt(buffer);
+        if (reference != NAME_LITERAL) {
+            return readNames.get(reference - 1);
+        }
+        String name = intern(getUtf8(buffer));
+        readNames.add(name);
+        return name;
+    }
+
+    private String intern(String name) {
+        String interned = internedNames.get(name);
+        if (interned != null) {
+            return interned;
+        }
+        if (internedNames.size() >= MAX_INTERNED_NAMES) {
+            return name;
+        }
+        interned = internedNames.putIfAbsent(name, name);
+        return interned != null ? interned : name;
+    }
+
+    private static void putUtf8(ByteBuffer buffer, String value) {
+        putVarInt(buffer, utf8Length(value));
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put((byte) (0xF0 | codePoint >> 18))
+                        .put((byte) (0x80 | codePoint >> 12 & 0x3F))
+                        .put((byte) (0x80 | codePoint >> 6 & 0x3F))
+                        .put((byte) (0x80 | codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xE0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3F)).put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+
+    private static int utf8Length(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length += 1;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private static String getUtf8(ByteBuffer buffer) {
+        int length = getVarInt(buffer);
+        if (buffer.hasArray()) {
+            String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
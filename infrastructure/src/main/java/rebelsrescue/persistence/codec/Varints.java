@@ -0,0 +1,81 @@
+package rebelsrescue.persistence.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * LEB128 variable-length encoding of integers: 7 bits per byte, the high bit flagging that more bytes follow.
+ * Signed values are zigzag-encoded first so that small negative values stay short.
+ */
+final class Varints {
+
+    /**
+     * Upper bound of the encoded size of any int.
+     */
+    static final int MAX_VARINT_SIZE = 5;
+
+    /**
+     * Upper bound of the encoded size of any long.
+     */
+    static final int MAX_VARLONG_SIZE = 10;
+
+    private Varints() {
+    }
+
+    static void putVarInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static int getVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varlong");
+    }
+
+    static void putSignedVarInt(ByteBuffer buffer, int value) {
+        putVarInt(buffer, (value << 1) ^ (value >> 31));
+    }
+
+    static int getSignedVarInt(ByteBuffer buffer) {
+        int zigzag = getVarInt(buffer);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    static void putSignedVarLong(ByteBuffer buffer, long value) {
+        putVarLong(buffer, (value << 1) ^ (value >> 63));
+    }
+
+    static long getSignedVarLong(ByteBuffer buffer) {
+        long zigzag = getVarLong(buffer);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+}
@@ -0,0 +1,30 @@
+package rebelsrescue.reactive;
+
+import rebelsrescue.fleet.Fleet;
+import rebelsrescue.fleet.FleetAssemblyResult;
+import rebelsrescue.fleet.FleetRequest;
+import rebelsrescue.fleet.specifications.RescueRules;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@link rebelsrescue.fleet.api.AssembleAFleet}.
+ */
+public interface ReactiveAssembleAFleet {
+
+    /**
+     * Assemble a fleet out of the starships following the rules of the mission.
+     */
+    Mono<Fleet> forPassengers(int numberOfPassengers, RescueRules rules);
+
+    /**
+     * Assemble a fleet for each number of passengers, all following the same rules of the mission.
+     */
+    Mono<List<FleetAssemblyResult>> forPassengers(List<Integer> numbersOfPassengers, RescueRules rules);
+
+    /**
+     * Assemble a fleet for each request, following the rules of its own mission, out of the same snapshot of the inventory.
+     */
+    Mono<List<FleetAssemblyResult>> forRequests(List<FleetRequest> requests);
+}
@@ -0,0 +1,60 @@
+package rebelsrescue.reactive;
+
+import rebelsrescue.fleet.Fleet;
+import rebelsrescue.fleet.FleetAssemblyResult;
+import rebelsrescue.fleet.FleetRequest;
+import rebelsrescue.fleet.api.AssembleAFleet;
+import rebelsrescue.fleet.specifications.RescueRules;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.List;
+
+/**
+ * Assembles fleets with the domain, once the snapshot of the starships it reads was loaded without blocking.
+ * <p>
+ * The domain then selects starships and stores the fleet on the given scheduler, never on the thread that loaded
+ * the snapshot: the selection may wait for a lock or spend its time budget, and publishing the events may wait
+ * for room in their buffer, none of which may hold an event loop.
+ */
+public class ReactiveFleetAssembler implements ReactiveAssembleAFleet {
+
+    private final StarShipSnapshots starShipSnapshots;
+    private final AssembleAFleet assembleAFleet;
+    private final Scheduler assemblyScheduler;
+
+    /**
+     * @param assembleAFleet    domain assembling the fleets out of the given snapshots
+     * @param assemblyScheduler scheduler meant for blocking calls the domain runs on
+     */
+    public ReactiveFleetAssembler(StarShipSnapshots starShipSnapshots, AssembleAFleet assembleAFleet,
+                                  Scheduler assemblyScheduler) {
+        this.starShipSnapshots = starShipSnapshots;
+        this.assembleAFleet = assembleAFleet;
+        this.assemblyScheduler = assemblyScheduler;
+    }
+
+    @Override
+    public Mono<Fleet> forPassengers(int numberOfPassengers, RescueRules rules) {
+        return starShipSnapshots.load()
+                .publishOn(assemblyScheduler)
+                .map(loaded -> assembleAFleet.forPassengers(numberOfPassengers, rules));
+    }
+
+    @Override
+    public Mono<List<FleetAssemblyResult>> forPassengers(List<Integer> numbersOfPassengers, RescueRules rules) {
+        return starShipSnapshots.load()
+                .publishOn(assemblyScheduler)
+                .map(loaded -> assembleAFleet.forPassengers(numbersOfPassengers, rules));
+    }
+
+    @Override
+    public Mono<List<FleetAssemblyResult>> forRequests(List<FleetRequest> requests) {
+        if (requests.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        return starShipSnapshots.load()
+                .publishOn(assemblyScheduler)
+                .map(loaded -> assembleAFleet.forRequests(requests));
+    }
+}
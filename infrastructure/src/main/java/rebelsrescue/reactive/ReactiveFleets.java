@@ -0,0 +1,62 @@
+package rebelsrescue.reactive;
+
+import rebelsrescue.fleet.Fleet;
+import rebelsrescue.fleet.FleetCursor;
+import rebelsrescue.fleet.FleetNotFoundException;
+import rebelsrescue.fleet.FleetPage;
+import rebelsrescue.fleet.FleetQuery;
+import rebelsrescue.fleet.spi.Fleets;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.UUID;
+
+/**
+ * Non-blocking adapter of the fleets repository. A store answering from memory is called right away, on the
+ * subscribing thread; a store doing I/O is called on a scheduler meant for blocking calls, so that it never
+ * holds an event loop.
+ */
+public class ReactiveFleets {
+
+    private final Fleets fleets;
+    private final Scheduler scheduler;
+
+    public ReactiveFleets(Fleets fleets, Scheduler scheduler) {
+        this.fleets = fleets;
+        this.scheduler = scheduler;
+    }
+
+    public static ReactiveFleets inMemory(Fleets fleets) {
+        return new ReactiveFleets(fleets, Schedulers.immediate());
+    }
+
+    public static ReactiveFleets blocking(Fleets fleets) {
+        return new ReactiveFleets(fleets, Schedulers.boundedElastic());
+    }
+
+    /**
+     * Find a fleet by its ID, failing with a {@link FleetNotFoundException} when there is none.
+     */
+    public Mono<Fleet> getById(UUID id) {
+        return Mono.fromCallable(() -> fleets.getById(id)).subscribeOn(scheduler);
+    }
+
+    /**
+     * Find a fleet by its ID, empty when there is none.
+     */
+    public Mono<Fleet> findById(UUID id) {
+        return Mono.fromCallable(() -> fleets.findById(id).orElse(null)).subscribeOn(scheduler);
+    }
+
+    public Mono<Fleet> save(Fleet fleet) {
+        return Mono.fromCallable(() -> fleets.save(fleet)).subscribeOn(scheduler);
+    }
+
+    /**
+     * A page of the fleets matching the query, see {@link Fleets#find}.
+     */
+    public Mono<FleetPage> find(FleetQuery query, FleetCursor after, int limit) {
+        return Mono.fromCallable(() -> fleets.find(query, after, limit)).subscribeOn(scheduler);
+    }
+}
@@ -0,0 +1,12 @@
+package rebelsrescue.reactive;
+
+import rebelsrescue.fleet.StarShip;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking counterpart of {@link rebelsrescue.fleet.spi.StarShipInventory}, streaming the starships as they
+ * are received.
+ */
+public interface ReactiveStarShipInventory {
+    Flux<StarShip> starShips();
+}
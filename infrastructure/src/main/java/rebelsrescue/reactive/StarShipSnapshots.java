@@ -0,0 +1,125 @@
+package rebelsrescue.reactive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rebelsrescue.fleet.StarShip;
+import rebelsrescue.fleet.StarShipColumns;
+import rebelsrescue.fleet.spi.StarShipInventory;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Collects the starships streamed by a reactive inventory into snapshots, each one kept for the time to live,
+ * and hands the latest loaded snapshot to the domain through its blocking {@link StarShipInventory} port.
+ * <p>
+ * The domain is only called once {@link #load()} completed, so that reading the starships never waits: the same
+ * snapshot instance being handed over until a newer one is loaded, the domain keeps its indexes of it meanwhile.
+ * <p>
+ * As the blocking inventory cache does, the next snapshot is loaded in the background {@code refreshAhead} before
+ * the current one expires, and the current one keeps being served while loading the next one fails: a failed
+ * load is retried after half the refresh-ahead window, and only fails the requests while there is no snapshot yet.
+ * Past its expiry, the requests wait for the next snapshot whenever a retry is due.
+ */
+public class StarShipSnapshots implements StarShipInventory {
+
+    private static final Logger logger = LoggerFactory.getLogger(StarShipSnapshots.class);
+
+    private final ReactiveStarShipInventory inventory;
+    private final Duration timeToLive;
+    private final Duration refreshAhead;
+    private final Duration retryDelay;
+    private final Clock clock;
+    private final AtomicReference<Mono<List<StarShip>>> loading = new AtomicReference<>();
+    private volatile Snapshot latest;
+
+    public StarShipSnapshots(ReactiveStarShipInventory inventory, Duration timeToLive, Duration refreshAhead) {
+        this(inventory, timeToLive, refreshAhead, Clock.systemUTC());
+    }
+
+    StarShipSnapshots(ReactiveStarShipInventory inventory, Duration timeToLive, Duration refreshAhead, Clock clock) {
+        if (timeToLive.isNegative() || timeToLive.isZero()) {
+            throw new IllegalArgumentException("Time to live of the starships must be positive, got: " + timeToLive);
+        }
+        if (refreshAhead.isNegative() || refreshAhead.compareTo(timeToLive) >= 0) {
+            throw new IllegalArgumentException("Starships refresh-ahead must be within [0, time to live), got: " + refreshAhead);
+        }
+        this.inventory = inventory;
+        this.timeToLive = timeToLive;
+        this.refreshAhead = refreshAhead;
+        this.retryDelay = refreshAhead.isZero() ? timeToLive : refreshAhead.dividedBy(2).plusMillis(1);
+        this.clock = clock;
+    }
+
+    /**
+     * The current snapshot, loaded when there is none yet, falling back to the latest one when it expired and
+     * cannot be loaded again.
+     */
+    public Mono<List<StarShip>> load() {
+        return Mono.defer(() -> {
+            Snapshot current = latest;
+            if (current == null) {
+                return reload();
+            }
+            Instant now = clock.instant();
+            if (now.isBefore(current.refreshAt())) {
+                return Mono.just(current.starShips());
+            }
+            if (now.isBefore(current.expiresAt())) {
+                reload().subscribe(snapshot -> { }, failure -> { });
+                return Mono.just(current.starShips());
+            }
+            return reload().onErrorReturn(current.starShips());
+        });
+    }
+
+    /**
+     * @throws IllegalStateException when no snapshot was loaded yet
+     */
+    @Override
+    public List<StarShip> starShips() {
+        Snapshot snapshot = latest;
+        if (snapshot == null) {
+            throw new IllegalStateException("No snapshot of the starships was loaded yet");
+        }
+        return snapshot.starShips();
+    }
+
+    /**
+     * Load the next snapshot, unless it is being loaded already: concurrent callers share the same load.
+     */
+    private Mono<List<StarShip>> reload() {
+        Sinks.One<List<StarShip>> next = Sinks.one();
+        Mono<List<StarShip>> nextSnapshot = next.asMono();
+        Mono<List<StarShip>> inProgress = loading.compareAndExchange(null, nextSnapshot);
+        if (inProgress != null) {
+            return inProgress;
+        }
+        inventory.starShips()
+                .collect(StarShipColumns::builder, StarShipColumns.Builder::add)
+                .map(StarShipColumns.Builder::build)
+                .subscribe(snapshot -> {
+                    Instant loadedAt = clock.instant();
+                    latest = new Snapshot(snapshot, loadedAt.plus(timeToLive).minus(refreshAhead), loadedAt.plus(timeToLive));
+                    loading.set(null);
+                    next.tryEmitValue(snapshot);
+                }, failure -> {
+                    Snapshot current = latest;
+                    if (current != null) {
+                        logger.warn("Starships refresh failed, serving the snapshot expiring at {}", current.expiresAt(), failure);
+                        latest = new Snapshot(current.starShips(), clock.instant().plus(retryDelay), current.expiresAt());
+                    }
+                    loading.set(null);
+                    next.tryEmitError(failure);
+                });
+        return nextSnapshot;
+    }
+
+    private record Snapshot(List<StarShip> starShips, Instant refreshAt, Instant expiresAt) {
+    }
+}
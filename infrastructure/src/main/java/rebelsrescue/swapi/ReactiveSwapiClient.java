@@ -0,0 +1,108 @@
+package rebelsrescue.swapi;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import rebelsrescue.fleet.StarShip;
+import rebelsrescue.reactive.ReactiveStarShipInventory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SWAPI adapter of the reactive stack, fetching the pages with a {@link WebClient} and streaming their starships
+ * in order: the starships of a page are handed over while the next pages are still being fetched, and no thread
+ * waits for SWAPI meanwhile.
+ * <p>
+ * Each page is parsed by the same streaming parser as {@link SwapiClient}, once its body was received.
+ */
+public class ReactiveSwapiClient implements ReactiveStarShipInventory {
+
+    private final WebClient webClient;
+    private final SwapiPageParser pageParser = new SwapiPageParser();
+    private final String swapiBaseUri;
+    private final SwapiFetchMode fetchMode;
+    private final int maxConcurrentPages;
+
+    public ReactiveSwapiClient(WebClient.Builder webClientBuilder, String swapiBaseUri, SwapiFetchMode fetchMode,
+                               int maxConcurrentPages) {
+        if (maxConcurrentPages < 1) {
+            throw new IllegalArgumentException("Max concurrent SWAPI pages must be positive, got: " + maxConcurrentPages);
+        }
+        this.webClient = webClientBuilder.build();
+        this.swapiBaseUri = swapiBaseUri;
+        this.fetchMode = fetchMode;
+        this.maxConcurrentPages = maxConcurrentPages;
+    }
+
+    @Override
+    public Flux<StarShip> starShips() {
+        var firstPageUrl = swapiBaseUri + "/api/starships";
+        Flux<FetchedPage> pages = switch (fetchMode) {
+            case SEQUENTIAL -> fetchPage(firstPageUrl, true).flux();
+            case PARALLEL -> fetchPage(firstPageUrl, false).flatMapMany(this::withRemainingPagesInParallel);
+        };
+        return pages
+                .expand(page -> page.followNext() && page.page().next() != null
+                        ? fetchPage(page.page().next(), true)
+                        : Mono.empty())
+                .concatMapIterable(FetchedPage::starShips);
+    }
+
+    private Flux<FetchedPage> withRemainingPagesInParallel(FetchedPage firstPage) {
+        int pageSize = firstPage.page().size();
+        if (firstPage.page().next() == null || pageSize == 0) {
+            return Flux.just(firstPage.following());
+        }
+        int numberOfPages = (firstPage.page().count() + pageSize - 1) / pageSize;
+        if (numberOfPages < 2) {
+            return Flux.just(firstPage.following());
+        }
+        // the inventory may grow meanwhile: the links are followed from the last counted page
+        Flux<FetchedPage> remainingPages = Flux.range(2, numberOfPages - 1)
+                .flatMapSequential(page -> fetchPage(pageUrl(firstPage.page().next(), page), page == numberOfPages),
+                        maxConcurrentPages);
+        return Flux.concat(Mono.just(firstPage), remainingPages);
+    }
+
+    private static String pageUrl(String secondPageUrl, int page) {
+        return UriComponentsBuilder.fromUriString(secondPageUrl)
+                .replaceQueryParam("page", page)
+                .build()
+                .toUriString();
+    }
+
+    /**
+     * @param followNext whether the page linked as next is fetched after this one
+     */
+    private Mono<FetchedPage> fetchPage(String url, boolean followNext) {
+        return webClient.get()
+                .uri(URI.create(url))
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .bodyToFlux(DataBuffer.class)
+                .as(DataBufferUtils::join)
+                .map(body -> {
+                    try (var content = body.asInputStream(true)) {
+                        List<StarShip> starShips = new ArrayList<>();
+                        return new FetchedPage(pageParser.parse(content, starShips::add), starShips, followNext);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Cannot parse SWAPI page " + url, e);
+                    }
+                });
+    }
+
+    private record FetchedPage(SwapiPage page, List<StarShip> starShips, boolean followNext) {
+
+        FetchedPage following() {
+            return new FetchedPage(page, starShips, true);
+        }
+    }
+}
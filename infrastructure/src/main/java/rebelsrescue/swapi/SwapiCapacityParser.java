@@ -0,0 +1,150 @@
+package rebelsrescue.swapi;
+
+import rebelsrescue.fleet.CargoCapacity;
+
+import java.math.BigDecimal;
+
+/**
+ * Parser of the capacity fields of SWAPI starships, reading the characters in place.
+ * <p>
+ * Capacities are numbers whose digits may be grouped with commas ({@code "1,600"}), ranges whose lower bound
+ * is kept ({@code "30-165"}), or anything else such as {@code "n/a"} or {@code "unknown"} meaning that the
+ * capacity is unknown. Integers and decimals of up to 18 digits are parsed into a long without allocating;
+ * only longer or exponent notations go through {@link BigDecimal}.
+ */
+final class SwapiCapacityParser {
+
+    static final int UNKNOWN_PASSENGERS = -1;
+
+    private static final int MAX_LONG_DIGITS = 18;
+    private static final int NOT_A_NUMBER = -2;
+
+    private SwapiCapacityParser() {
+    }
+
+    static int parsePassengers(String value) {
+        return value == null ? UNKNOWN_PASSENGERS : parsePassengers(value.toCharArray(), 0, value.length());
+    }
+
+    /**
+     * @return the number of passengers, or {@link #UNKNOWN_PASSENGERS}
+     */
+    static int parsePassengers(char[] chars, int offset, int length) {
+        int end = offset + length;
+        int rangeSeparator = rangeSeparator(chars, offset, end);
+        if (rangeSeparator >= 0) {
+            return parseInteger(chars, rangeSeparator + 1, end) < 0 ? UNKNOWN_PASSENGERS : parsePassengers(chars, offset, rangeSeparator - offset);
+        }
+        long passengers = parseInteger(chars, offset, end);
+        return passengers < 0 || passengers > Integer.MAX_VALUE ? UNKNOWN_PASSENGERS : (int) passengers;
+    }
+
+    static CargoCapacity parseCargoCapacity(String value) {
+        return value == null ? null : parseCargoCapacity(value.toCharArray(), 0, value.length());
+    }
+
+    /**
+     * @return the cargo capacity, or null when it is unknown
+     */
+    static CargoCapacity parseCargoCapacity(char[] chars, int offset, int length) {
+        int end = offset + length;
+        int rangeSeparator = rangeSeparator(chars, offset, end);
+        if (rangeSeparator >= 0) {
+            return parseCargoCapacity(chars, rangeSeparator + 1, end - rangeSeparator - 1) == null
+                    ? null
+                    : parseCargoCapacity(chars, offset, rangeSeparator - offset);
+        }
+
+        int position = offset;
+        if (position < end && chars[position] == '+') {
+            position++;
+        }
+        long unscaled = 0;
+        boolean hasDigit = false;
+        int digits = 0;
+        int scale = 0;
+        boolean decimal = false;
+        for (; position < end; position++) {
+            char c = chars[position];
+            if (isDigit(c)) {
+                hasDigit = true;
+                if (unscaled != 0 || c != '0') {
+                    digits++;
+                }
+                if (digits > MAX_LONG_DIGITS) {
+                    return parseBigDecimal(chars, offset, end);
+                }
+                unscaled = unscaled * 10 + (c - '0');
+                if (decimal) {
+                    scale++;
+                }
+            } else if (c == '.' && !decimal) {
+                decimal = true;
+            } else if (c != ',') {
+                return parseBigDecimal(chars, offset, end);
+            }
+        }
+        if (!hasDigit) {
+            return null;
+        }
+        return scale == 0 ? CargoCapacity.of(unscaled) : new CargoCapacity(BigDecimal.valueOf(unscaled, scale));
+    }
+
+    /**
+     * Non-negative integer with optional commas, or {@link #NOT_A_NUMBER}. Saturates above the long range.
+     */
+    private static long parseInteger(char[] chars, int start, int end) {
+        int position = start;
+        while (position < end && chars[position] == ',') {
+            position++;
+        }
+        boolean negative = position < end && chars[position] == '-';
+        if (position < end && (chars[position] == '+' || negative)) {
+            position++;
+        }
+        long value = 0;
+        boolean hasDigit = false;
+        for (; position < end; position++) {
+            char c = chars[position];
+            if (isDigit(c)) {
+                hasDigit = true;
+                value = value > (Long.MAX_VALUE - 9) / 10 ? Long.MAX_VALUE : value * 10 + (c - '0');
+            } else if (c != ',') {
+                return NOT_A_NUMBER;
+            }
+        }
+        return hasDigit && (!negative || value == 0) ? value : NOT_A_NUMBER;
+    }
+
+    /**
+     * Position of the {@code -} between the two bounds of a range, or -1 when the value is not a range.
+     */
+    private static int rangeSeparator(char[] chars, int start, int end) {
+        for (int position = start + 1; position < end - 1; position++) {
+            if (chars[position] == '-' && isDigit(chars[position - 1])) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static CargoCapacity parseBigDecimal(char[] chars, int start, int end) {
+        char[] withoutCommas = new char[end - start];
+        int length = 0;
+        for (int position = start; position < end; position++) {
+            if (chars[position] != ',') {
+                withoutCommas[length++] = chars[position];
+            }
+        }
+        try {
+            BigDecimal value = new BigDecimal(withoutCommas, 0, length);
+            return value.signum() < 0 ? null : new CargoCapacity(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -1,71 +1,264 @@
 package rebelsrescue.swapi;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
-import rebelsrescue.fleet.CargoCapacity;
+import org.springframework.web.util.UriComponentsBuilder;
+import rebelsrescue.configuration.OnBlockingStackCondition;
 import rebelsrescue.fleet.StarShip;
 import rebelsrescue.fleet.spi.StarShipInventory;
-import rebelsrescue.swapi.model.SwapiResponse;
-import rebelsrescue.swapi.model.SwapiStarShip;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.function.Function;
-import java.util.function.Predicate;
-
-import static java.lang.Integer.parseInt;
-import static java.util.Arrays.asList;
-import static java.util.stream.Collectors.toList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Component
-public class SwapiClient implements StarShipInventory {
+@Conditional(OnBlockingStackCondition.class)
+public class SwapiClient implements StarShipInventory, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(SwapiClient.class);
+
     private final RestTemplate restTemplate;
-    private final List<String> invalidCapacitiesValues = asList("n/a", "unknown");
+    private final SwapiPageParser pageParser = new SwapiPageParser();
+    private final String swapiBaseUri;
+    private final SwapiFetchMode fetchMode;
+    private final ExecutorService pageFetcher;
+    private final SwapiPageCache pageCache;
+    private final AtomicBoolean loaded = new AtomicBoolean();
+
+    public SwapiClient(RestTemplateBuilder restTemplateBuilder, String swapiBaseUri, SwapiFetchMode fetchMode, int maxConcurrentPages) {
+        this(restTemplateBuilder, swapiBaseUri, fetchMode, maxConcurrentPages, false);
+    }
 
-    @Value("${swapi.base-uri}")
-    private String swapiBaseUri;
+    /**
+     * @param virtualThreads whether pages are fetched concurrently on virtual threads, which do not hold
+     *                       a platform thread while waiting for SWAPI
+     */
+    public SwapiClient(RestTemplateBuilder restTemplateBuilder, String swapiBaseUri, SwapiFetchMode fetchMode,
+                       int maxConcurrentPages, boolean virtualThreads) {
+        this(restTemplateBuilder, null, swapiBaseUri, fetchMode, maxConcurrentPages, virtualThreads);
+    }
 
-    public SwapiClient(RestTemplateBuilder restTemplateBuilder) {
+    /**
+     * @param pageCache on-disk cache of the pages, revalidated with conditional requests, or null to always download them.
+     *                  The first load is served from the cached pages when all of them are there, without waiting for
+     *                  SWAPI, and the pages are revalidated from the next load on.
+     */
+    public SwapiClient(RestTemplateBuilder restTemplateBuilder, SwapiPageCache pageCache, String swapiBaseUri,
+                       SwapiFetchMode fetchMode, int maxConcurrentPages, boolean virtualThreads) {
+        if (maxConcurrentPages < 1) {
+            throw new IllegalArgumentException("Max concurrent SWAPI pages must be positive, got: " + maxConcurrentPages);
+        }
         this.restTemplate = restTemplateBuilder.build();
+        this.swapiBaseUri = swapiBaseUri;
+        this.fetchMode = fetchMode;
+        this.pageCache = pageCache;
+        // still a fixed pool with virtual threads, so that SWAPI is not sent more than maxConcurrentPages requests at once
+        this.pageFetcher = Executors.newFixedThreadPool(maxConcurrentPages,
+                (virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon()).name("swapi-page-fetcher-", 1).factory());
+    }
+
+    /**
+     * @param httpTransport pooled transport of the page fetches, when one is configured
+     * @param pageCache     on-disk cache of the pages, when one is configured
+     */
+    @Autowired
+    public SwapiClient(RestTemplateBuilder restTemplateBuilder,
+                       ObjectProvider<SwapiHttpTransport> httpTransport,
+                       ObjectProvider<SwapiPageCache> pageCache,
+                       @Value("${swapi.base-uri}") String swapiBaseUri,
+                       @Value("${swapi.fetch-mode:sequential}") SwapiFetchMode fetchMode,
+                       @Value("${swapi.max-concurrent-pages:4}") int maxConcurrentPages,
+                       @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this(withTransport(restTemplateBuilder, httpTransport.getIfAvailable()), pageCache.getIfAvailable(), swapiBaseUri,
+                fetchMode, maxConcurrentPages, virtualThreads);
+    }
+
+    private static RestTemplateBuilder withTransport(RestTemplateBuilder restTemplateBuilder, SwapiHttpTransport httpTransport) {
+        return httpTransport == null ? restTemplateBuilder : restTemplateBuilder.requestFactory(httpTransport::requestFactory);
     }
 
     @Override
     public List<StarShip> starShips() {
-        List<StarShip> starShips = new ArrayList<>();
+        var firstPageUrl = swapiBaseUri + "/api/starships";
+        if (pageCache != null && loaded.compareAndSet(false, true)) {
+            var cachedStarShips = cachedStarShipsFrom(firstPageUrl);
+            if (cachedStarShips != null) {
+                return cachedStarShips;
+            }
+        }
+        return switch (fetchMode) {
+            case SEQUENTIAL -> starShipsFrom(firstPageUrl, new ArrayList<>());
+            case PARALLEL -> starShipsFetchedInParallel(firstPageUrl);
+        };
+    }
 
-        var nextPageUrl = swapiBaseUri + "/api/starships";
+    private List<StarShip> starShipsFrom(String pageUrl, List<StarShip> starShips) {
+        var nextPageUrl = pageUrl;
         while (nextPageUrl != null) {
-            var swapiResponse = getStarShipsFromSwapi(nextPageUrl);
-            starShips.addAll(convertSwapiResponseToStarShips(swapiResponse));
-            nextPageUrl = swapiResponse.next();
+            nextPageUrl = getStarShipsFromSwapi(nextPageUrl, starShips).next();
         }
         return starShips;
     }
 
-    private List<StarShip> convertSwapiResponseToStarShips(SwapiResponse swapiResponse) {
-        return swapiResponse.results().stream()
-                .filter(hasValidPassengersValue())
-                .map(toStarShip())
-                .collect(toList());
+    private List<StarShip> starShipsFetchedInParallel(String firstPageUrl) {
+        List<StarShip> starShips = new ArrayList<>();
+        var firstPage = getStarShipsFromSwapi(firstPageUrl, starShips);
+
+        int pageSize = firstPage.size();
+        if (firstPage.next() == null) {
+            return starShips;
+        }
+        if (pageSize == 0) {
+            return starShipsFrom(firstPage.next(), starShips);
+        }
+
+        int numberOfPages = (firstPage.count() + pageSize - 1) / pageSize;
+        List<CompletableFuture<FetchedPage>> remainingPages = new ArrayList<>(numberOfPages - 1);
+        for (int page = 2; page <= numberOfPages; page++) {
+            var pageUrl = pageUrl(firstPage.next(), page);
+            remainingPages.add(CompletableFuture.supplyAsync(() -> {
+                List<StarShip> pageStarShips = new ArrayList<>(pageSize);
+                return new FetchedPage(getStarShipsFromSwapi(pageUrl, pageStarShips), pageStarShips);
+            }, pageFetcher));
+        }
+
+        SwapiPage lastPage = firstPage;
+        for (CompletableFuture<FetchedPage> remainingPage : remainingPages) {
+            var fetchedPage = join(remainingPage);
+            starShips.addAll(fetchedPage.starShips());
+            lastPage = fetchedPage.page();
+        }
+        // the inventory grew since the count was read: finish by following the links
+        return lastPage.next() == null ? starShips : starShipsFrom(lastPage.next(), starShips);
     }
 
-    private Function<SwapiStarShip, StarShip> toStarShip() {
-        return swapiStarShip ->
-                new StarShip(
-                        swapiStarShip.name(),
-                        parseInt(swapiStarShip.passengers().replaceAll(",", "")),
-                        CargoCapacity.of(swapiStarShip.cargoCapacity()));
+    private static String pageUrl(String secondPageUrl, int page) {
+        return UriComponentsBuilder.fromUriString(secondPageUrl)
+                .replaceQueryParam("page", page)
+                .build()
+                .toUriString();
     }
 
-    private Predicate<SwapiStarShip> hasValidPassengersValue() {
-        return swapiStarShip -> swapiStarShip.passengers() != null
-                && !invalidCapacitiesValues.contains(swapiStarShip.passengers())
-                && !invalidCapacitiesValues.contains(swapiStarShip.cargoCapacity());
+    private static FetchedPage join(CompletableFuture<FetchedPage> page) {
+        try {
+            return page.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Stream the page into the starships, the response body being parsed as it is received.
+     */
+    private SwapiPage getStarShipsFromSwapi(String url, List<StarShip> starShips) {
+        if (pageCache == null) {
+            return restTemplate.execute(url, HttpMethod.GET,
+                    request -> request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON)),
+                    response -> pageParser.parse(response.getBody(), starShips::add));
+        }
+        var cachedPage = pageCache.get(url);
+        int fetchedStarShips = starShips.size();
+        try {
+            return restTemplate.execute(url, HttpMethod.GET,
+                    request -> {
+                        request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+                        if (cachedPage != null && cachedPage.etag() != null) {
+                            request.getHeaders().setIfNoneMatch(cachedPage.etag());
+                        }
+                        if (cachedPage != null && cachedPage.lastModified() != null) {
+                            request.getHeaders().set(HttpHeaders.IF_MODIFIED_SINCE, cachedPage.lastModified());
+                        }
+                    },
+                    response -> cachedPage != null && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)
+                            ? parseCachedPage(cachedPage, starShips)
+                            : parseAndCachePage(url, response, starShips));
+        } catch (ResourceAccessException | HttpServerErrorException e) {
+            if (cachedPage == null) {
+                throw e;
+            }
+            logger.warn("SWAPI is unavailable, using the cached page {}: {}", url, e.getMessage());
+            starShips.subList(fetchedStarShips, starShips.size()).clear();
+            try {
+                return parseCachedPage(cachedPage, starShips);
+            } catch (IOException cacheException) {
+                e.addSuppressed(cacheException);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * The starships of the pages cached from the given one on, following their links, or null when a page is missing.
+     */
+    private List<StarShip> cachedStarShipsFrom(String firstPageUrl) {
+        List<StarShip> starShips = new ArrayList<>();
+        var pageUrl = firstPageUrl;
+        while (pageUrl != null) {
+            var cachedPage = pageCache.get(pageUrl);
+            if (cachedPage == null) {
+                return null;
+            }
+            try {
+                pageUrl = parseCachedPage(cachedPage, starShips).next();
+            } catch (IOException e) {
+                logger.warn("Cannot read the cached SWAPI page {}, downloading the pages", pageUrl, e);
+                return null;
+            }
+        }
+        logger.info("Loaded {} starships from the cached SWAPI pages, revalidated from the next load on", starShips.size());
+        return starShips;
     }
 
-    private SwapiResponse getStarShipsFromSwapi(String url) {
-        return restTemplate.getForObject(url, SwapiResponse.class);
+    private SwapiPage parseCachedPage(SwapiPageCache.CachedPage cachedPage, List<StarShip> starShips) throws IOException {
+        try (var body = cachedPage.openBody()) {
+            return pageParser.parse(body, starShips::add);
+        }
+    }
+
+    /**
+     * Parse the page while writing it to the cache, when SWAPI sent a validator to revalidate it with later.
+     */
+    private SwapiPage parseAndCachePage(String url, ClientHttpResponse response, List<StarShip> starShips) throws IOException {
+        var etag = response.getHeaders().getETag();
+        var lastModified = response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED);
+        if (etag == null && lastModified == null) {
+            return pageParser.parse(response.getBody(), starShips::add);
+        }
+        try (var pageWriter = pageCache.writer(url, etag, lastModified);
+             var body = pageWriter.tee(response.getBody())) {
+            var page = pageParser.parse(body, starShips::add);
+            body.close();
+            pageWriter.commit();
+            return page;
+        }
+    }
+
+    private record FetchedPage(SwapiPage page, List<StarShip> starShips) {
+    }
+
+    @Override
+    public void close() {
+        pageFetcher.shutdownNow();
     }
 }
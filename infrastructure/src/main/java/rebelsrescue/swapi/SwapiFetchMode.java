@@ -0,0 +1,15 @@
+package rebelsrescue.swapi;
+
+/**
+ * How {@link SwapiClient} walks through the paginated starships resource.
+ */
+public enum SwapiFetchMode {
+    /**
+     * Follow the {@code next} link of each page, one page after the other.
+     */
+    SEQUENTIAL,
+    /**
+     * Read the first page, derive the number of pages from its {@code count}, then fetch the remaining pages concurrently.
+     */
+    PARALLEL
+}
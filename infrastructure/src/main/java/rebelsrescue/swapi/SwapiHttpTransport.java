@@ -0,0 +1,220 @@
+package rebelsrescue.swapi;
+
+import org.apache.hc.client5.http.classic.ExecChain;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.ChainElement;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HTTP transport of the SWAPI adapter.
+ * <p>
+ * Connections are pooled and kept alive between page fetches, so that only the first fetch to a host pays
+ * the TCP and TLS handshakes. Responses are asked gzipped and decompressed while they are parsed. The pool
+ * usage, the number of exchanges, the bytes received on the wire (before decompression) and the time spent
+ * until the response bodies were read are available for monitoring.
+ */
+public class SwapiHttpTransport implements AutoCloseable {
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final HttpComponentsClientHttpRequestFactory requestFactory;
+    private final LongAdder exchanges = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder exchangeNanos = new LongAdder();
+
+    public SwapiHttpTransport(Settings settings) {
+        this.connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(settings.maxConnections())
+                .setMaxConnPerRoute(settings.maxConnectionsPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(settings.connectTimeout()))
+                        .setSocketTimeout(Timeout.of(settings.readTimeout()))
+                        .build())
+                .build();
+        HttpClientBuilder httpClientBuilder = HttpClientBuilder.create()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(settings.connectionRequestTimeout()))
+                        .setResponseTimeout(Timeout.of(settings.readTimeout()))
+                        // when SWAPI does not say how long it keeps a connection alive
+                        .setConnectionKeepAlive(TimeValue.of(settings.keepAlive()))
+                        .build())
+                .evictIdleConnections(TimeValue.of(settings.keepAlive()))
+                // below the decompression, so that the bytes are counted as received
+                .addExecInterceptorBefore(ChainElement.PROTOCOL.name(), "swapi-exchange-metrics", this::measure);
+        if (!settings.compression()) {
+            httpClientBuilder.disableContentCompression();
+        }
+        this.httpClient = httpClientBuilder.build();
+        this.requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    public ClientHttpRequestFactory requestFactory() {
+        return requestFactory;
+    }
+
+    /**
+     * Number of connections currently used by a page fetch.
+     */
+    public int leasedConnections() {
+        return connectionManager.getTotalStats().getLeased();
+    }
+
+    /**
+     * Number of open connections kept alive, waiting for a page fetch.
+     */
+    public int availableConnections() {
+        return connectionManager.getTotalStats().getAvailable();
+    }
+
+    /**
+     * Number of page fetches waiting for a connection, the pool being exhausted.
+     */
+    public int pendingConnectionRequests() {
+        return connectionManager.getTotalStats().getPending();
+    }
+
+    public int maxConnections() {
+        return connectionManager.getTotalStats().getMax();
+    }
+
+    public long exchanges() {
+        return exchanges.sum();
+    }
+
+    /**
+     * Bytes of the response bodies as received, compressed when SWAPI gzipped them.
+     */
+    public long bytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    /**
+     * Time spent from sending the requests until their response bodies were read or closed.
+     */
+    public Duration exchangeTime() {
+        return Duration.ofNanos(exchangeNanos.sum());
+    }
+
+    @Override
+    public void close() {
+        httpClient.close(CloseMode.GRACEFUL);
+    }
+
+    private ClassicHttpResponse measure(ClassicHttpRequest request, ExecChain.Scope scope, ExecChain chain)
+            throws IOException, HttpException {
+        long start = System.nanoTime();
+        ClassicHttpResponse response = chain.proceed(request, scope);
+        HttpEntity entity = response.getEntity();
+        if (entity == null) {
+            recordExchange(start);
+        } else {
+            response.setEntity(new MeasuredEntity(entity, start));
+        }
+        return response;
+    }
+
+    private void recordExchange(long start) {
+        exchanges.increment();
+        exchangeNanos.add(System.nanoTime() - start);
+    }
+
+    /**
+     * Settings of the transport, all durations being positive.
+     *
+     * @param connectionRequestTimeout how long a page fetch waits for a connection when the pool is exhausted
+     * @param keepAlive                how long an idle connection is kept, unless SWAPI tells otherwise
+     */
+    public record Settings(int maxConnections, int maxConnectionsPerRoute, Duration connectTimeout,
+                           Duration connectionRequestTimeout, Duration readTimeout, Duration keepAlive,
+                           boolean compression) {
+
+        public Settings {
+            if (maxConnectionsPerRoute < 1 || maxConnectionsPerRoute > maxConnections) {
+                throw new IllegalArgumentException("SWAPI max connections per route must be within [1, %d], got: %d"
+                        .formatted(maxConnections, maxConnectionsPerRoute));
+            }
+            requirePositive("connect timeout", connectTimeout);
+            requirePositive("connection request timeout", connectionRequestTimeout);
+            requirePositive("read timeout", readTimeout);
+            requirePositive("keep-alive", keepAlive);
+        }
+
+        private static void requirePositive(String setting, Duration duration) {
+            if (duration.isNegative() || duration.isZero()) {
+                throw new IllegalArgumentException("SWAPI " + setting + " must be positive, got: " + duration);
+            }
+        }
+    }
+
+    /**
+     * Counts the bytes read from the response body, and records the exchange once the body is read or closed.
+     */
+    private class MeasuredEntity extends HttpEntityWrapper {
+        private final long start;
+
+        MeasuredEntity(HttpEntity entity, long start) {
+            super(entity);
+            this.start = start;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            return new FilterInputStream(super.getContent()) {
+                private boolean recorded;
+
+                @Override
+                public int read() throws IOException {
+                    int read = super.read();
+                    count(read < 0 ? -1 : 1);
+                    return read;
+                }
+
+                @Override
+                public int read(byte[] bytes, int offset, int length) throws IOException {
+                    int read = super.read(bytes, offset, length);
+                    count(read);
+                    return read;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        count(-1);
+                    }
+                }
+
+                private void count(int read) {
+                    if (read >= 0) {
+                        bytesReceived.add(read);
+                    } else if (!recorded) {
+                        recorded = true;
+                        recordExchange(start);
+                    }
+                }
+            };
+        }
+    }
+}
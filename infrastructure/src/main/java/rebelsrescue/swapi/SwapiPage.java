@@ -0,0 +1,11 @@
+package rebelsrescue.swapi;
+
+/**
+ * Pagination data of a page of SWAPI starships, the starships themselves being handed over while parsing.
+ *
+ * @param count total number of starships of the inventory
+ * @param next  url of the next page, null on the last one
+ * @param size  number of starships listed in this page, including the ones not eligible for a fleet
+ */
+record SwapiPage(int count, String next, int size) {
+}
@@ -0,0 +1,212 @@
+package rebelsrescue.swapi;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * On-disk cache of SWAPI page bodies along with their {@code ETag} and {@code Last-Modified} validators,
+ * so that a page is only downloaded again when it changed, including after a restart.
+ * <p>
+ * Each page is a file named after the SHA-256 of its URL, holding a header {@code [magic][version][url][etag][last-modified]}
+ * followed by the body as received. The body is written while it is parsed, to a temporary file moved in place
+ * once the whole page was read, so that a failed fetch or a crash never leaves a partial page behind.
+ */
+public class SwapiPageCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SwapiPageCache.class);
+
+    private static final int MAGIC = 0x53575043; // SWPC
+    private static final int FORMAT_VERSION = 1;
+    private static final String PAGE_SUFFIX = ".page";
+
+    private final Path directory;
+
+    public SwapiPageCache(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create SWAPI page cache directory " + directory, e);
+        }
+    }
+
+    /**
+     * The cached page of the URL, null when there is none or it cannot be read.
+     */
+    public CachedPage get(String url) {
+        Path file = pageFile(url);
+        try (var header = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 512))) {
+            CachedPage cachedPage = readHeader(file, header);
+            return cachedPage.url().equals(url) ? cachedPage : null;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable SWAPI page cache file {}", file, e);
+            return null;
+        }
+    }
+
+    /**
+     * Starts writing the page of the URL, which replaces the cached one when {@link PageWriter#commit() committed}.
+     */
+    public PageWriter writer(String url, String etag, String lastModified) throws IOException {
+        Path temporaryFile = Files.createTempFile(directory, "swapi-", ".writing");
+        var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)));
+        output.writeInt(MAGIC);
+        output.writeInt(FORMAT_VERSION);
+        output.writeUTF(url);
+        output.writeUTF(etag == null ? "" : etag);
+        output.writeUTF(lastModified == null ? "" : lastModified);
+        return new PageWriter(pageFile(url), temporaryFile, output);
+    }
+
+    private static CachedPage readHeader(Path file, DataInputStream header) throws IOException {
+        if (header.readInt() != MAGIC || header.readInt() != FORMAT_VERSION) {
+            throw new IOException("Not a SWAPI page cache file of version " + FORMAT_VERSION);
+        }
+        String url = header.readUTF();
+        String etag = header.readUTF();
+        String lastModified = header.readUTF();
+        return new CachedPage(url, etag.isEmpty() ? null : etag, lastModified.isEmpty() ? null : lastModified, file);
+    }
+
+    private Path pageFile(String url) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(HexFormat.of().formatHex(hash) + PAGE_SUFFIX);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A page on disk, whose validators are null when SWAPI did not send them.
+     */
+    public record CachedPage(String url, String etag, String lastModified, Path file) {
+
+        public InputStream openBody() throws IOException {
+            var body = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+            try {
+                readHeader(file, body);
+                return body;
+            } catch (IOException | RuntimeException e) {
+                body.close();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Copies a page body to disk while it is read. Failing to write the copy does not fail the read: the page
+     * is then just not cached.
+     */
+    public static final class PageWriter implements AutoCloseable {
+        private final Path pageFile;
+        private final Path temporaryFile;
+        private final OutputStream output;
+        private IOException writeFailure;
+        private boolean committed;
+
+        private PageWriter(Path pageFile, Path temporaryFile, OutputStream output) {
+            this.pageFile = pageFile;
+            this.temporaryFile = temporaryFile;
+            this.output = output;
+        }
+
+        /**
+         * The body, copying what is read from it. The rest of the body is copied as well when it is closed,
+         * the parser not necessarily reading the trailing whitespace.
+         */
+        public InputStream tee(InputStream body) {
+            return new FilterInputStream(body) {
+                private boolean closed;
+
+                @Override
+                public int read() throws IOException {
+                    int read = super.read();
+                    if (read >= 0) {
+                        copy(new byte[]{(byte) read}, 0, 1);
+                    }
+                    return read;
+                }
+
+                @Override
+                public int read(byte[] bytes, int offset, int length) throws IOException {
+                    int read = super.read(bytes, offset, length);
+                    if (read > 0) {
+                        copy(bytes, offset, read);
+                    }
+                    return read;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    if (closed) {
+                        return;
+                    }
+                    closed = true;
+                    try {
+                        byte[] rest = in.readAllBytes();
+                        copy(rest, 0, rest.length);
+                    } finally {
+                        super.close();
+                    }
+                }
+            };
+        }
+
+        /**
+         * Replace the cached page with the copied body, once it was read and closed.
+         */
+        public void commit() {
+            try {
+                if (writeFailure != null) {
+                    throw writeFailure;
+                }
+                output.close();
+                Files.move(temporaryFile, pageFile, ATOMIC_MOVE, REPLACE_EXISTING);
+                committed = true;
+            } catch (IOException e) {
+                logger.warn("Cannot cache SWAPI page in {}", pageFile, e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                output.close();
+                Files.deleteIfExists(temporaryFile);
+            }
+        }
+
+        private void copy(byte[] bytes, int offset, int length) {
+            if (writeFailure == null) {
+                try {
+                    output.write(bytes, offset, length);
+                } catch (IOException e) {
+                    writeFailure = e;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package rebelsrescue.swapi;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import rebelsrescue.fleet.CargoCapacity;
+import rebelsrescue.fleet.StarShip;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+import static rebelsrescue.swapi.SwapiCapacityParser.UNKNOWN_PASSENGERS;
+import static rebelsrescue.swapi.SwapiCapacityParser.parseCargoCapacity;
+import static rebelsrescue.swapi.SwapiCapacityParser.parsePassengers;
+
+/**
+ * Streaming parser of a page of SWAPI starships.
+ * <p>
+ * It walks the JSON tokens straight from the response body, keeping only the pagination data and the
+ * {@code name}, {@code passengers} and {@code cargo_capacity} of each starship and skipping everything
+ * else, so neither the body nor an object tree of the page is ever held in memory. Capacities are parsed
+ * from the characters of the parser buffer by {@link SwapiCapacityParser}.
+ */
+final class SwapiPageParser {
+
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    /**
+     * @param starShips receives the starships of the page having known capacities, in order
+     */
+    SwapiPage parse(InputStream body, Consumer<StarShip> starShips) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+            int count = 0;
+            String next = null;
+            int size = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "count" -> count = parser.getValueAsInt();
+                    case "next" -> next = value == JsonToken.VALUE_NULL ? null : parser.getText();
+                    case "results" -> size = parseStarShips(parser, value, starShips);
+                    default -> parser.skipChildren();
+                }
+            }
+            return new SwapiPage(count, next, size);
+        }
+    }
+
+    private static int parseStarShips(JsonParser parser, JsonToken value, Consumer<StarShip> starShips) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return 0;
+        }
+        expect(parser, value, JsonToken.START_ARRAY);
+        int size = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            expect(parser, token, JsonToken.START_OBJECT);
+            size++;
+            String name = null;
+            int passengers = UNKNOWN_PASSENGERS;
+            CargoCapacity cargoCapacity = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken fieldValue = parser.nextToken();
+                switch (field) {
+                    case "name" -> name = parser.getValueAsString();
+                    case "passengers" -> passengers = fieldValue.isScalarValue() && fieldValue != JsonToken.VALUE_NULL
+                            ? parsePassengers(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength())
+                            : UNKNOWN_PASSENGERS;
+                    case "cargo_capacity" -> cargoCapacity = fieldValue.isScalarValue() && fieldValue != JsonToken.VALUE_NULL
+                            ? parseCargoCapacity(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength())
+                            : null;
+                    default -> parser.skipChildren();
+                }
+            }
+            if (passengers != UNKNOWN_PASSENGERS && cargoCapacity != null) {
+                starShips.accept(new StarShip(name, passengers, cargoCapacity));
+            }
+        }
+        return size;
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws JsonParseException {
+        if (actual != expected) {
+            throw new JsonParseException(parser, "Unexpected SWAPI page token %s instead of %s".formatted(actual, expected));
+        }
+    }
+}
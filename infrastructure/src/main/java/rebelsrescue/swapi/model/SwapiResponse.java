@@ -1,10 +0,0 @@
-package rebelsrescue.swapi.model;
-
-import com.fasterxml.jackson.databind.PropertyNamingStrategies;
-import com.fasterxml.jackson.databind.annotation.JsonNaming;
-
-import java.util.List;
-
-@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
-public record SwapiResponse(String next, List<SwapiStarShip> results) {
-}
@@ -4,6 +4,7 @@ import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.matching.EqualToPattern;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.json.BasicJsonTester;
@@ -26,8 +27,11 @@ import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
-@SpringBootTest(webEnvironment = RANDOM_PORT, properties = "swapi.base-uri=http://localhost:${wiremock.server.port}")
+@SpringBootTest(webEnvironment = RANDOM_PORT, properties = {
+        "swapi.base-uri=http://localhost:${wiremock.server.port}",
+        "management.endpoints.web.exposure.include=prometheus"})
 @AutoConfigureWireMock(port = 0)
+@AutoConfigureObservability(tracing = false)
 class StarwarsRebelsRescueApplicationTests {
 
     @LocalServerPort
@@ -55,6 +59,23 @@ class StarwarsRebelsRescueApplicationTests {
         assertThat(json.from(response.getBody())).extractingJsonPathNumberValue("@.starships[0].capacity").isEqualTo(600);
     }
 
+    @Test
+    void should_expose_the_metrics_of_the_ports_to_prometheus() {
+        configureSwapiMock();
+        restTemplate.postForEntity("http://localhost:%d/rescueFleets".formatted(port), createRequest(), String.class);
+
+        var metrics = restTemplate.getForObject("http://localhost:%d/actuator/prometheus".formatted(port), String.class);
+
+        assertThat(metrics)
+                .contains("rescue_fleet_assembly_seconds_count{exception=\"none\",mode=\"single\"} 1")
+                .contains("rescue_fleet_selection_seconds_bucket")
+                .contains("rescue_fleet_selection_starships_bucket")
+                .contains("rescue_inventory_fetch_seconds_count{adapter=\"SwapiClient\"")
+                .contains("rescue_fleets_operation_seconds_count{exception=\"none\",operation=\"save\"")
+                .contains("rescue_events_queue_depth")
+                .contains("swapi_http_received_bytes_total");
+    }
+
     private void configureSwapiMock() {
         mockSwapi.stubFor(
                 get(urlPathMatching("/api/starships"))
@@ -0,0 +1,145 @@
+package rebelsrescue;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.matching.EqualToPattern;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+import org.springframework.cloud.contract.wiremock.WireMockConfigurationCustomizer;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import rebelsrescue.controllers.ReactiveRescueFleetController;
+import rebelsrescue.controllers.RescueFleetController;
+
+import java.util.UUID;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+/**
+ * The whole reactive stack, from the WebFlux controller down to a WireMock SWAPI fetched with a WebClient.
+ */
+@SpringBootTest(webEnvironment = RANDOM_PORT, properties = {
+        "spring.main.web-application-type=reactive",
+        "swapi.base-uri=http://localhost:${wiremock.server.port}"})
+@AutoConfigureWireMock(port = 0)
+class StarwarsRebelsRescueReactiveApplicationTests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private WireMockServer mockSwapi;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @BeforeEach
+    void configureSwapiMock() {
+        mockSwapi.stubFor(
+                get(urlPathMatching("/api/starships"))
+                        .willReturn(
+                                aResponse()
+                                        .withBodyFile("payloads/swapi-page1.json")
+                                        .withStatus(200)
+                                        .withHeader("Content-Type", APPLICATION_JSON_VALUE)));
+
+        mockSwapi.stubFor(
+                get(urlPathMatching("/api/starships/")).withQueryParam("page", new EqualToPattern("2"))
+                        .willReturn(
+                                aResponse()
+                                        .withBodyFile("payloads/swapi-page2.json")
+                                        .withStatus(200)
+                                        .withHeader("Content-Type", APPLICATION_JSON_VALUE)));
+    }
+
+    @Test
+    void should_serve_the_reactive_controller_only() {
+        assertThat(applicationContext.getBeanNamesForType(ReactiveRescueFleetController.class)).hasSize(1);
+        assertThat(applicationContext.getBeanNamesForType(RescueFleetController.class)).isEmpty();
+    }
+
+    @Test
+    void should_assemble_a_fleet_and_return_it_given_its_id() {
+        var location = webTestClient.post().uri("/rescueFleets")
+                .contentType(APPLICATION_JSON)
+                .bodyValue("{\"numberOfPassengers\" : 3}")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.id").isNotEmpty()
+                .jsonPath("$.starships.length()").isEqualTo(1)
+                .jsonPath("$.starships[0].name").isEqualTo("CR90 corvette")
+                .jsonPath("$.starships[0].capacity").isEqualTo(600)
+                .returnResult()
+                .getResponseHeaders().getLocation();
+
+        assertThat(location).isNotNull();
+        webTestClient.get().uri(location.getPath())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.starships[0].name").isEqualTo("CR90 corvette");
+    }
+
+    @Test
+    void should_assemble_a_batch_of_fleets_out_of_the_same_snapshot_of_the_inventory() {
+        webTestClient.post().uri("/rescueFleets/batch")
+                .contentType(APPLICATION_JSON)
+                .bodyValue("""
+                        [
+                          { "numberOfPassengers" : 3 },
+                          { "numberOfPassengers" : 1000000 },
+                          { "numberOfPassengers" : 3, "rules" : { "minimalPassengersCapacity" : 0 } }
+                        ]""")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(3)
+                .jsonPath("$[0].fleet.starships[0].name").isEqualTo("CR90 corvette")
+                .jsonPath("$[1].problem.status").isEqualTo(422)
+                .jsonPath("$[2].problem.status").isEqualTo(400);
+
+        webTestClient.post().uri("/rescueFleets")
+                .contentType(APPLICATION_JSON)
+                .bodyValue("{\"numberOfPassengers\" : 3}")
+                .exchange()
+                .expectStatus().isCreated();
+        mockSwapi.verify(1, getRequestedFor(urlPathMatching("/api/starships")));
+    }
+
+    @Test
+    void should_report_domain_failures_as_problems() {
+        webTestClient.post().uri("/rescueFleets")
+                .contentType(APPLICATION_JSON)
+                .bodyValue("{\"numberOfPassengers\" : 1000000}")
+                .exchange()
+                .expectStatus().isEqualTo(422)
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Insufficient StarShips");
+
+        webTestClient.get().uri("/rescueFleets/{id}", UUID.randomUUID())
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Fleet Not Found");
+    }
+
+    @TestConfiguration
+    static class WireMockConfiguration {
+        @Bean
+        WireMockConfigurationCustomizer optionsCustomizer() {
+            return config -> config.extensions(SwapiUrlTransformer.class);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package rebelsrescue;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+/**
+ * Load test of the application in front of a slow SWAPI, with request handling, SWAPI fetches and event
+ * listeners on platform threads then on virtual threads. The inventory cache is disabled so that every
+ * request waits for SWAPI, which caps platform threads at {@code TOMCAT_MAX_THREADS / SWAPI_LATENCY} requests per second.
+ * <p>
+ * Excluded from the build, run it with {@code mvn test -Pload-test -pl domain,infrastructure}.
+ */
+@Tag("load")
+class VirtualThreadsLoadTest {
+
+    private static final Duration SWAPI_LATENCY = Duration.ofMillis(500);
+    /**
+     * A small pool, so that the local mock SWAPI is not the first to saturate.
+     */
+    private static final int TOMCAT_MAX_THREADS = 20;
+    private static final int CONCURRENT_CLIENTS = 300;
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(15);
+
+    private static final String SWAPI_PAGE = """
+            {
+              "count": 3,
+              "next": null,
+              "results": [
+                { "name": "CR90 corvette", "passengers": "600", "cargo_capacity": "3000000" },
+                { "name": "Millennium Falcon", "passengers": "6", "cargo_capacity": "100000" },
+                { "name": "Rebel transport", "passengers": "90", "cargo_capacity": "80000" }
+              ]
+            }""";
+
+    private final WireMockServer mockSwapi = new WireMockServer(wireMockConfig()
+            .dynamicPort()
+            .containerThreads(1_000)
+            .disableRequestJournal());
+
+    @BeforeEach
+    void startMockSwapi() {
+        mockSwapi.start();
+        mockSwapi.stubFor(get(urlPathEqualTo("/api/starships")).willReturn(aResponse()
+                .withStatus(200)
+                .withHeader("Content-Type", APPLICATION_JSON_VALUE)
+                .withFixedDelay((int) SWAPI_LATENCY.toMillis())
+                .withBody(SWAPI_PAGE)));
+    }
+
+    @AfterEach
+    void stopMockSwapi() {
+        mockSwapi.stop();
+    }
+
+    @Test
+    void should_sustain_a_higher_throughput_on_virtual_threads_when_swapi_is_slow() throws Exception {
+        LoadResult platformThreads = run(false);
+        LoadResult virtualThreads = run(true);
+
+        System.out.printf("Platform threads: %s%nVirtual threads:  %s%n", platformThreads, virtualThreads);
+        assertThat(platformThreads.errors()).isZero();
+        assertThat(virtualThreads.errors()).isZero();
+        assertThat(virtualThreads.requestsPerSecond()).isGreaterThan(platformThreads.requestsPerSecond());
+    }
+
+    private LoadResult run(boolean virtualThreads) throws Exception {
+        var threads = ManagementFactory.getThreadMXBean();
+        var memory = ManagementFactory.getMemoryMXBean();
+        try (ConfigurableApplicationContext application = new SpringApplicationBuilder(StarwarsRebelsRescueApplication.class)
+                .run("--server.port=0",
+                        "--server.tomcat.threads.max=" + TOMCAT_MAX_THREADS,
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--swapi.base-uri=" + mockSwapi.baseUrl(),
+                        "--swapi.cache.enabled=false",
+                        "--swapi.page-cache.enabled=false",
+                        "--swapi.fetch-mode=sequential",
+                        // as many pooled SWAPI connections as clients, so that the pool does not cap the throughput
+                        "--swapi.http.max-connections=" + CONCURRENT_CLIENTS,
+                        "--swapi.http.max-connections-per-route=" + CONCURRENT_CLIENTS,
+                        "--rescue.fleets.store=memory",
+                        "--logging.level.rebelsrescue=WARN",
+                        "--spring.main.banner-mode=off");
+             HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            int port = application.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            var request = HttpRequest.newBuilder(URI.create("http://localhost:%d/rescueFleets".formatted(port)))
+                    .header("Content-Type", APPLICATION_JSON_VALUE)
+                    .POST(HttpRequest.BodyPublishers.ofString("{ \"numberOfPassengers\" : 500 }"))
+                    .build();
+
+            long start = System.nanoTime();
+            long measurementStart = start + WARMUP.toNanos();
+            long end = measurementStart + MEASUREMENT.toNanos();
+            var completed = new LongAdder();
+            var errors = new LongAdder();
+            List<Future<?>> runningClients = new ArrayList<>(CONCURRENT_CLIENTS);
+            for (int i = 0; i < CONCURRENT_CLIENTS; i++) {
+                runningClients.add(clients.submit(() -> {
+                    while (System.nanoTime() < end) {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (System.nanoTime() >= measurementStart) {
+                            (response.statusCode() == 201 ? completed : errors).increment();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            Thread.sleep(WARMUP.plus(MEASUREMENT.dividedBy(2)));
+            long liveThreads = threads.getThreadCount();
+            long usedHeap = memory.getHeapMemoryUsage().getUsed();
+            for (Future<?> runningClient : runningClients) {
+                runningClient.get();
+            }
+            return new LoadResult(completed.sum() / (double) MEASUREMENT.toSeconds(), errors.sum(), liveThreads, usedHeap);
+        }
+    }
+
+    /**
+     * @param platformThreads live platform threads in the middle of the measurement, virtual threads not included
+     * @param usedHeap        heap in use in the middle of the measurement, garbage included
+     */
+    private record LoadResult(double requestsPerSecond, long errors, long platformThreads, long usedHeap) {
+        @Override
+        public String toString() {
+            return "%.0f requests/s, %d errors, %d platform threads, %d MB of heap used"
+                    .formatted(requestsPerSecond, errors, platformThreads, usedHeap / (1024 * 1024));
+        }
+    }
+}
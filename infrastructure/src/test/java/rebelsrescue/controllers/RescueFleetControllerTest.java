@@ -1,15 +1,20 @@
 package rebelsrescue.controllers;
 
+import com.jayway.jsonpath.JsonPath;
 import ddd.Stub;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import rebelsrescue.configuration.DomainConfiguration;
 import rebelsrescue.fleet.CargoCapacity;
 import rebelsrescue.fleet.Fleet;
@@ -17,12 +22,20 @@ import rebelsrescue.fleet.StarShip;
 import rebelsrescue.fleet.spi.Fleets;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
 
+import static java.util.Collections.nCopies;
 import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(RescueFleetController.class)
@@ -47,6 +60,82 @@ final class RescueFleetControllerTest {
                 .andExpect(jsonPath("$.starships[0].capacity").value("6"));
     }
 
+    @Test
+    void should_assemble_a_batch_of_rescue_fleets() throws Exception {
+        mockMvc.perform(
+                        post("/rescueFleets/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("""
+                                        [
+                                          { "numberOfPassengers" : 5 },
+                                          { "numberOfPassengers" : 1000000 },
+                                          { "numberOfPassengers" : -1 }
+                                        ]"""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").value(hasSize(3)))
+                .andExpect(jsonPath("$[0].numberOfPassengers").value(5))
+                .andExpect(jsonPath("$[0].fleet.id").isNotEmpty())
+                .andExpect(jsonPath("$[0].fleet.starships[0].name").value("Millennium Falcon"))
+                .andExpect(jsonPath("$[0].problem").doesNotExist())
+                .andExpect(jsonPath("$[1].fleet").doesNotExist())
+                .andExpect(jsonPath("$[1].problem.status").value(422))
+                .andExpect(jsonPath("$[1].problem.title").value("Insufficient StarShips"))
+                .andExpect(jsonPath("$[2].problem.status").value(400));
+    }
+
+    @Test
+    void should_assemble_a_rescue_fleet_following_the_rules_of_the_mission() throws Exception {
+        mockMvc.perform(
+                        post("/rescueFleets")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("""
+                                        { "numberOfPassengers" : 5, "rules" : { "excludedNames" : [ "Millennium Falcon" ] } }"""))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.starships").value(hasSize(1)))
+                .andExpect(jsonPath("$.starships[0].name").value("CR90 corvette"));
+    }
+
+    @Test
+    void should_report_invalid_rules_of_a_mission_within_a_batch() throws Exception {
+        mockMvc.perform(
+                        post("/rescueFleets/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("""
+                                        [
+                                          { "numberOfPassengers" : 5, "rules" : { "minimalPassengersCapacity" : 0 } },
+                                          { "numberOfPassengers" : 5, "rules" : { "maximalPassengersCapacity" : 10 } },
+                                          { "numberOfPassengers" : 5 }
+                                        ]"""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").value(hasSize(3)))
+                .andExpect(jsonPath("$[0].problem.status").value(400))
+                .andExpect(jsonPath("$[1].fleet.starships[0].name").value("Millennium Falcon"))
+                .andExpect(jsonPath("$[2].fleet.starships[0].name").value("Millennium Falcon"));
+    }
+
+    @Test
+    void should_report_a_missing_request_within_a_batch() throws Exception {
+        mockMvc.perform(
+                        post("/rescueFleets/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("[ { \"numberOfPassengers\" : 5 }, null, {} ]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").value(hasSize(3)))
+                .andExpect(jsonPath("$[0].fleet.starships[0].name").value("Millennium Falcon"))
+                .andExpect(jsonPath("$[1].problem.status").value(400))
+                .andExpect(jsonPath("$[2].problem.status").value(400));
+    }
+
+    @Test
+    void should_reject_a_batch_of_too_many_requests() throws Exception {
+        String requests = String.join(",", nCopies(RescueFleetBatch.MAX_REQUESTS + 1, "{ \"numberOfPassengers\" : 5 }"));
+        mockMvc.perform(
+                        post("/rescueFleets/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("[" + requests + "]"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void should_return_a_fleet_given_an_id() throws Exception {
         Fleet fleet = new Fleet(singletonList(
@@ -64,11 +153,73 @@ final class RescueFleetControllerTest {
                 .andExpect(jsonPath("$.starships[0].capacity").value(fleet.starships().get(0).passengersCapacity()));
     }
 
+    @Test
+    void should_list_the_fleets_page_by_page() throws Exception {
+        String starShipName = "Ghost " + UUID.randomUUID();
+        List<Fleet> savedFleets = List.of(aFleetWith(starShipName), aFleetWith(starShipName), aFleetWith(starShipName));
+        fleets.saveAll(savedFleets);
+
+        MvcResult firstPage = mockMvc.perform(get("/rescueFleets").param("starShip", starShipName).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fleets").value(hasSize(2)))
+                .andExpect(jsonPath("$.fleets[0].id").value(savedFleets.get(0).id().toString()))
+                .andExpect(jsonPath("$.fleets[0].createdAt").isNotEmpty())
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+                .andExpect(header().string("Link", containsString("rel=\"next\"")))
+                .andReturn();
+        String nextCursor = JsonPath.read(firstPage.getResponse().getContentAsString(), "$.nextCursor");
+
+        mockMvc.perform(get("/rescueFleets").param("starShip", starShipName).param("limit", "2").param("cursor", nextCursor)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fleets").value(hasSize(1)))
+                .andExpect(jsonPath("$.fleets[0].id").value(savedFleets.get(2).id().toString()))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist())
+                .andExpect(header().doesNotExist("Link"));
+    }
+
+    @Test
+    void should_stream_every_fleet_one_per_line() throws Exception {
+        String starShipName = "Ghost " + UUID.randomUUID();
+        List<Fleet> savedFleets = List.of(aFleetWith(starShipName), aFleetWith(starShipName), aFleetWith(starShipName));
+        fleets.saveAll(savedFleets);
+
+        MvcResult stream = mockMvc.perform(get("/rescueFleets").param("starShip", starShipName).param("limit", "2")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(stream))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(body.lines())
+                .hasSize(3)
+                .allSatisfy(line -> assertThat(line).contains(starShipName))
+                .first().asString().contains(savedFleets.get(0).id().toString());
+    }
+
+    @Test
+    void should_reject_a_page_limit_out_of_bounds() throws Exception {
+        mockMvc.perform(get("/rescueFleets").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/rescueFleets").param("cursor", "not a cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static Fleet aFleetWith(String starShipName) {
+        return new Fleet(singletonList(new StarShip(starShipName, 6, new CargoCapacity(new BigDecimal("100000")))));
+    }
+
     @TestConfiguration
     @ComponentScan(
             basePackageClasses = {Fleet.class},
             includeFilters = {@ComponentScan.Filter(type = FilterType.ANNOTATION, classes = {Stub.class})})
     static class StubConfiguration {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
     }
 
 }
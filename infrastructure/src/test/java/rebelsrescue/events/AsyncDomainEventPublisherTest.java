@@ -0,0 +1,215 @@
+package rebelsrescue.events;
+
+import org.junit.jupiter.api.Test;
+import rebelsrescue.fleet.events.DomainEventPublisher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AsyncDomainEventPublisherTest {
+
+    @Test
+    void should_dispatch_the_events_in_order_on_another_thread() {
+        var listener = new RecordingPublisher();
+        try (var publisher = new AsyncDomainEventPublisher(listener, 64, BackpressurePolicy.BLOCK, 16)) {
+            for (int event = 0; event < 10_000; event++) {
+                publisher.publish(event);
+            }
+            publisher.close(Duration.ofSeconds(10));
+
+            assertThat(listener.events()).hasSize(10_000).isSorted();
+            assertThat(listener.threads()).containsOnly("domain-events-dispatcher");
+            assertThat(listener.largestBatch()).isLessThanOrEqualTo(16);
+            assertThat(publisher.dispatchedEvents()).isEqualTo(10_000);
+            assertThat(publisher.queueDepth()).isZero();
+        }
+    }
+
+    @Test
+    void should_dispatch_the_events_of_concurrent_publishers() throws InterruptedException {
+        var listener = new RecordingPublisher();
+        ExecutorService publishers = Executors.newFixedThreadPool(8);
+        try (var publisher = new AsyncDomainEventPublisher(listener, 128, BackpressurePolicy.BLOCK, 64)) {
+            for (int thread = 0; thread < 8; thread++) {
+                int firstEvent = thread * 10_000;
+                publishers.execute(() -> {
+                    for (int event = firstEvent; event < firstEvent + 10_000; event++) {
+                        publisher.publish(event);
+                    }
+                });
+            }
+            publishers.shutdown();
+            assertThat(publishers.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+            publisher.close(Duration.ofSeconds(10));
+        }
+
+        List<Object> events = new ArrayList<>(listener.events());
+        assertThat(events).hasSize(80_000).doesNotHaveDuplicates();
+        for (int thread = 0; thread < 8; thread++) {
+            int firstEvent = thread * 10_000;
+            assertThat(events.stream().map(Integer.class::cast).filter(event -> event / 10_000 == firstEvent / 10_000).toList())
+                    .as("events of publisher %d", thread)
+                    .isSorted();
+        }
+    }
+
+    @Test
+    void should_drop_the_oldest_events_when_the_buffer_is_full() throws InterruptedException {
+        var listener = new BlockedPublisher();
+        try (var publisher = new AsyncDomainEventPublisher(listener, 4, BackpressurePolicy.DROP_OLDEST, 1)) {
+            publisher.publish("blocking");
+            listener.awaitBlocked();
+            for (int event = 0; event < 10; event++) {
+                publisher.publish(event);
+            }
+
+            assertThat(publisher.queueDepth()).isEqualTo(4);
+            assertThat(publisher.droppedEvents()).isEqualTo(6);
+            listener.unblock();
+            publisher.close(Duration.ofSeconds(10));
+            assertThat(listener.events()).containsExactly("blocking", 6, 7, 8, 9);
+        }
+    }
+
+    @Test
+    void should_dispatch_on_the_publishing_thread_when_the_buffer_is_full() throws InterruptedException {
+        var listener = new BlockedPublisher();
+        try (var publisher = new AsyncDomainEventPublisher(listener, 2, BackpressurePolicy.CALLER_RUNS, 1)) {
+            publisher.publish("blocking");
+            listener.awaitBlocked();
+            publisher.publish(1);
+            publisher.publish(2);
+            publisher.publish(3);
+
+            assertThat(listener.events()).containsExactly("blocking", 3);
+            listener.unblock();
+            publisher.close(Duration.ofSeconds(10));
+            assertThat(listener.events()).containsExactly("blocking", 3, 1, 2);
+        }
+    }
+
+    @Test
+    void should_report_the_lag_of_the_pending_events() throws InterruptedException {
+        var listener = new BlockedPublisher();
+        try (var publisher = new AsyncDomainEventPublisher(listener, 8, BackpressurePolicy.BLOCK, 1)) {
+            assertThat(publisher.lag()).isZero();
+            publisher.publish("blocking");
+            listener.awaitBlocked();
+            publisher.publish("pending");
+            Thread.sleep(20);
+
+            assertThat(publisher.queueDepth()).isEqualTo(1);
+            assertThat(publisher.lag()).isGreaterThanOrEqualTo(Duration.ofMillis(20));
+            listener.unblock();
+        }
+    }
+
+    @Test
+    void should_publish_on_the_blocked_thread_once_the_dispatcher_is_given_up_on() throws InterruptedException {
+        var listener = new BlockedPublisher();
+        var publisher = new AsyncDomainEventPublisher(listener, 2, BackpressurePolicy.BLOCK, 1);
+        publisher.publish("blocking");
+        listener.awaitBlocked();
+        publisher.publish(1);
+        publisher.publish(2);
+        var blockedPublisher = Thread.ofPlatform().start(() -> publisher.publish(3));
+        Thread.sleep(20);
+        assertThat(blockedPublisher.isAlive()).isTrue();
+
+        publisher.close(Duration.ofMillis(20));
+
+        assertThat(blockedPublisher.join(Duration.ofSeconds(10))).isTrue();
+        assertThat(listener.events()).containsExactly("blocking", 3);
+    }
+
+    @Test
+    void should_keep_dispatching_after_a_listener_failure() {
+        var listener = new RecordingPublisher() {
+            @Override
+            public void publishAll(List<?> events) {
+                if (events.contains("failing")) {
+                    throw new IllegalStateException("listener failure");
+                }
+                super.publishAll(events);
+            }
+        };
+        try (var publisher = new AsyncDomainEventPublisher(listener, 8, BackpressurePolicy.BLOCK, 1)) {
+            publisher.publish("failing");
+            publisher.publish("dispatched");
+            publisher.close(Duration.ofSeconds(10));
+
+            assertThat(listener.events()).containsExactly("dispatched");
+            assertThat(publisher.dispatchedEvents()).isEqualTo(1);
+            assertThat(publisher.failedEvents()).isEqualTo(1);
+            assertThatThrownBy(() -> publisher.publish("too late")).isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    private static class RecordingPublisher implements DomainEventPublisher {
+        private final List<Object> events = Collections.synchronizedList(new ArrayList<>());
+        private final List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        private volatile int largestBatch;
+
+        @Override
+        public void publish(Object event) {
+            publishAll(List.of(event));
+        }
+
+        @Override
+        public void publishAll(List<?> batch) {
+            events.addAll(batch);
+            threads.add(Thread.currentThread().getName());
+            largestBatch = Math.max(largestBatch, batch.size());
+        }
+
+        List<Object> events() {
+            return events;
+        }
+
+        List<String> threads() {
+            return threads;
+        }
+
+        int largestBatch() {
+            return largestBatch;
+        }
+    }
+
+    /**
+     * Blocks the dispatcher on the first event until it is unblocked.
+     */
+    private static class BlockedPublisher extends RecordingPublisher {
+        private final CountDownLatch blocked = new CountDownLatch(1);
+        private final CountDownLatch unblocked = new CountDownLatch(1);
+
+        @Override
+        public void publishAll(List<?> batch) {
+            super.publishAll(batch);
+            if (batch.contains("blocking")) {
+                blocked.countDown();
+                try {
+                    unblocked.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        void awaitBlocked() throws InterruptedException {
+            assertThat(blocked.await(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        void unblock() {
+            unblocked.countDown();
+        }
+    }
+}
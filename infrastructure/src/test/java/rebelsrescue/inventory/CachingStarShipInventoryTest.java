@@ -0,0 +1,150 @@
+package rebelsrescue.inventory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import rebelsrescue.MutableClock;
+import rebelsrescue.fleet.CargoCapacity;
+import rebelsrescue.fleet.StarShip;
+import rebelsrescue.fleet.spi.StarShipInventory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CachingStarShipInventoryTest {
+
+    private static final List<StarShip> FIRST_LOAD = List.of(new StarShip("CR90 corvette", 600, CargoCapacity.of(3_000_000L)));
+    private static final List<StarShip> SECOND_LOAD = List.of(new StarShip("Slave 1", 6, CargoCapacity.of(70_000L)));
+
+    private final MutableClock clock = new MutableClock();
+    private final ManualScheduledExecutor refresher = new ManualScheduledExecutor();
+    private final FakeInventory upstream = new FakeInventory();
+    private final CachingStarShipInventory inventory =
+            new CachingStarShipInventory(upstream, Duration.ofMinutes(10), Duration.ofMinutes(2), clock, refresher);
+
+    @AfterEach
+    void tearDown() {
+        inventory.close();
+    }
+
+    @Test
+    void should_load_the_upstream_once_while_the_cache_is_fresh() {
+        upstream.respondWith(FIRST_LOAD);
+
+        assertThat(inventory.starShips()).isEqualTo(FIRST_LOAD);
+        clock.advance(Duration.ofMinutes(7));
+        assertThat(inventory.starShips()).isEqualTo(FIRST_LOAD);
+
+        assertThat(upstream.calls()).isEqualTo(1);
+    }
+
+    @Test
+    void should_refresh_ahead_of_expiry_without_blocking_the_caller() {
+        upstream.respondWith(FIRST_LOAD);
+        inventory.starShips();
+
+        upstream.respondWith(SECOND_LOAD);
+        clock.advance(Duration.ofMinutes(8));
+
+        assertThat(inventory.starShips()).as("served from cache while refreshing").isEqualTo(FIRST_LOAD);
+        assertThat(refresher.pending()).isEqualTo(1);
+        assertThat(upstream.calls()).isEqualTo(1);
+
+        refresher.runPending();
+        assertThat(inventory.starShips()).isEqualTo(SECOND_LOAD);
+        assertThat(upstream.calls()).isEqualTo(2);
+    }
+
+    @Test
+    void should_serve_stale_ships_when_the_upstream_fails() {
+        upstream.respondWith(FIRST_LOAD);
+        inventory.starShips();
+
+        upstream.failWith(new IllegalStateException("SWAPI is down"));
+        clock.advance(Duration.ofMinutes(15));
+
+        assertThat(inventory.starShips()).isEqualTo(FIRST_LOAD);
+        refresher.runPending();
+        assertThat(inventory.starShips()).isEqualTo(FIRST_LOAD);
+        assertThat(upstream.calls()).isEqualTo(2);
+        assertThat(inventory.isStale()).isTrue();
+    }
+
+    @Test
+    void should_propagate_the_failure_of_the_first_load() {
+        upstream.failWith(new IllegalStateException("SWAPI is down"));
+
+        assertThatThrownBy(inventory::starShips).isInstanceOf(IllegalStateException.class);
+
+        upstream.respondWith(FIRST_LOAD);
+        assertThat(inventory.starShips()).isEqualTo(FIRST_LOAD);
+    }
+
+    @Test
+    void should_reject_a_refresh_ahead_not_shorter_than_the_ttl() {
+        assertThatThrownBy(() -> new CachingStarShipInventory(upstream, Duration.ofMinutes(1), Duration.ofMinutes(1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("refresh-ahead");
+    }
+
+    private static final class FakeInventory implements StarShipInventory {
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile List<StarShip> starShips;
+        private volatile RuntimeException failure;
+
+        void respondWith(List<StarShip> starShips) {
+            this.starShips = starShips;
+            this.failure = null;
+        }
+
+        void failWith(RuntimeException failure) {
+            this.failure = failure;
+        }
+
+        int calls() {
+            return calls.get();
+        }
+
+        @Override
+        public List<StarShip> starShips() {
+            calls.incrementAndGet();
+            if (failure != null) {
+                throw failure;
+            }
+            return starShips;
+        }
+    }
+
+    /**
+     * Keeps the refreshes pending until the test runs them, so that a caller is seen not to wait for a refresh.
+     * Scheduled refreshes are left to the executor, their delays being far beyond the duration of a test.
+     */
+    private static final class ManualScheduledExecutor extends ScheduledThreadPoolExecutor {
+        private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+
+        ManualScheduledExecutor() {
+            super(1);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            pending.add(command);
+        }
+
+        int pending() {
+            return pending.size();
+        }
+
+        void runPending() {
+            for (Runnable command = pending.poll(); command != null; command = pending.poll()) {
+                command.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package rebelsrescue.metrics;
+
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.junit.jupiter.api.Test;
+import rebelsrescue.fleet.CargoCapacity;
+import rebelsrescue.fleet.FleetAssembler;
+import rebelsrescue.fleet.InsufficientStarShipsException;
+import rebelsrescue.fleet.SmallestFirstSelection;
+import rebelsrescue.fleet.StarShip;
+import rebelsrescue.fleet.api.AssembleAFleet;
+import rebelsrescue.fleet.events.stubs.InMemoryEventPublisher;
+import rebelsrescue.fleet.spi.StarShipInventory;
+import rebelsrescue.fleet.spi.stubs.InMemoryFleets;
+import rebelsrescue.fleet.spi.stubs.StarShipInventoryStub;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PortMetricsTest {
+
+    private static final List<StarShip> STARSHIPS = List.of(
+            new StarShip("X-wing", 0, CargoCapacity.of(110)),
+            new StarShip("Millennium Falcon", 6, CargoCapacity.of(100_000)),
+            new StarShip("Rebel transport", 90, CargoCapacity.of(1_000_000)));
+
+    private final PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+
+    @Test
+    void should_time_the_inventory_per_adapter_and_exception() {
+        var inventory = new TimedStarShipInventory(new StarShipInventoryStub(STARSHIPS), registry);
+        StarShipInventory failingAdapter = () -> {
+            throw new IllegalStateException("SWAPI is down");
+        };
+        var failingInventory = new TimedStarShipInventory(failingAdapter, registry);
+
+        inventory.starShips();
+        inventory.starShips();
+        assertThatThrownBy(failingInventory::starShips).isInstanceOf(IllegalStateException.class);
+
+        assertThat(registry.get("rescue.inventory.fetch").tags("adapter", "StarShipInventoryStub", "exception", "none")
+                .timer().count()).isEqualTo(2);
+        assertThat(registry.get("rescue.inventory.fetch").tag("exception", "IllegalStateException")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void should_count_the_insufficient_starships_failures_thrown_or_reported() {
+        AssembleAFleet assembleAFleet = meteredFleetAssembler();
+
+        assembleAFleet.forPassengers(10);
+        assertThatThrownBy(() -> assembleAFleet.forPassengers(1_000)).isInstanceOf(InsufficientStarShipsException.class);
+        assembleAFleet.forPassengers(Arrays.asList(5, 2_000, null));
+
+        assertThat(results("assembled", "none")).isEqualTo(2);
+        assertThat(results("failed", "InsufficientStarShipsException")).isEqualTo(2);
+        assertThat(results("failed", "IllegalArgumentException")).isEqualTo(1);
+        assertThat(registry.get("rescue.fleet.assembly").tags("mode", "single", "exception", "InsufficientStarShipsException")
+                .timer().count()).isEqualTo(1);
+        assertThat(registry.get("rescue.fleet.assembly").tags("mode", "batch").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void should_record_the_selection_time_and_size_histograms() {
+        meteredFleetAssembler().forPassengers(Arrays.asList(5, 10, 96));
+
+        var selections = registry.get("rescue.fleet.selection").tag("strategy", "SmallestFirstSelection").timer();
+        var selectedStarShips = registry.get("rescue.fleet.selection.starships").summary();
+        assertThat(selections.count()).isEqualTo(3);
+        assertThat(selections.takeSnapshot().histogramCounts()).isNotEmpty();
+        assertThat(selectedStarShips.totalAmount()).isGreaterThanOrEqualTo(3);
+        assertThat(selectedStarShips.takeSnapshot().histogramCounts()).isNotEmpty();
+    }
+
+    @Test
+    void should_time_the_fleets_and_the_published_events() {
+        meteredFleetAssembler().forPassengers(Arrays.asList(5, 10));
+
+        assertThat(registry.get("rescue.fleets.operation").tags("operation", "saveAll", "repository", "InMemoryFleets")
+                .timer().count()).isEqualTo(1);
+        assertThat(registry.get("rescue.events.publish").tag("operation", "publishAll").timer().count()).isEqualTo(1);
+        assertThat(registry.get("rescue.events.published").counter().count()).isEqualTo(2);
+    }
+
+    private AssembleAFleet meteredFleetAssembler() {
+        var fleetAssembler = new FleetAssembler(
+                new TimedStarShipInventory(new StarShipInventoryStub(STARSHIPS), registry),
+                new TimedFleets(new InMemoryFleets(), registry),
+                new TimedDomainEventPublisher(new InMemoryEventPublisher(), registry),
+                new TimedFleetSelection(new SmallestFirstSelection(), registry));
+        return new MeteredAssembleAFleet(fleetAssembler, registry);
+    }
+
+    private double results(String outcome, String exception) {
+        return registry.get("rescue.fleet.assembly.results").tags("outcome", outcome, "exception", exception).counter().count();
+    }
+}
@@ -0,0 +1,231 @@
+package rebelsrescue.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import rebelsrescue.fleet.CargoCapacity;
+import rebelsrescue.fleet.Fleet;
+import rebelsrescue.fleet.FleetPage;
+import rebelsrescue.fleet.FleetQuery;
+import rebelsrescue.fleet.FleetNotFoundException;
+import rebelsrescue.fleet.StarShip;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileFleetsTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void should_find_a_saved_fleet() {
+        try (var fleets = openFleets()) {
+            var fleet = fleets.save(aFleet());
+
+            assertThat(fleets.getById(fleet.id())).isEqualTo(fleet);
+            assertThat(fleets.exists(fleet.id())).isTrue();
+            assertThat(fleets.findById(UUID.randomUUID())).isEmpty();
+            assertThatThrownBy(() -> fleets.getById(UUID.randomUUID())).isInstanceOf(FleetNotFoundException.class);
+        }
+    }
+
+    @Test
+    void should_find_the_fleets_saved_before_a_restart() {
+        List<Fleet> savedFleets = new ArrayList<>();
+        try (var fleets = openFleets()) {
+            for (int i = 0; i < 1_000; i++) {
+                savedFleets.add(fleets.save(aFleet()));
+            }
+        }
+
+        try (var fleets = openFleets()) {
+            for (Fleet fleet : savedFleets) {
+                assertThat(fleets.getById(fleet.id())).isEqualTo(fleet);
+            }
+        }
+    }
+
+    @Test
+    void should_keep_the_latest_save_of_a_fleet() {
+        var id = UUID.randomUUID();
+        var updatedFleet = new Fleet(id, List.of(starShip("CR90 corvette", 600, "3000000")));
+        try (var fleets = openFleets()) {
+            fleets.save(new Fleet(id, List.of(starShip("Millennium Falcon", 6, "100000"))));
+            fleets.save(updatedFleet);
+
+            assertThat(fleets.getById(id)).isEqualTo(updatedFleet);
+            assertThat(fleets.garbageBytes()).isPositive();
+        }
+        try (var fleets = openFleets()) {
+            assertThat(fleets.getById(id)).isEqualTo(updatedFleet);
+        }
+    }
+
+    @Test
+    void should_find_the_fleets_saved_at_once() {
+        var id = UUID.randomUUID();
+        var updatedFleet = new Fleet(id, List.of(starShip("CR90 corvette", 600, "3000000")));
+        var savedFleets = List.of(aFleet(), new Fleet(id, List.of(starShip("Millennium Falcon", 6, "100000"))), aFleet(), updatedFleet);
+        try (var fleets = openFleets()) {
+            assertThat(fleets.saveAll(savedFleets)).isEqualTo(savedFleets);
+        }
+
+        try (var fleets = openFleets()) {
+            assertThat(fleets.getById(savedFleets.get(0).id())).isEqualTo(savedFleets.get(0));
+            assertThat(fleets.getById(savedFleets.get(2).id())).isEqualTo(savedFleets.get(2));
+            assertThat(fleets.getById(id)).isEqualTo(updatedFleet);
+            assertThat(fleets.garbageBytes()).isPositive();
+        }
+    }
+
+    @Test
+    void should_page_through_the_fleets_indexed_before_a_restart() {
+        Instant start = Instant.parse("2024-01-01T00:00:00Z");
+        var id = UUID.randomUUID();
+        try (var fleets = openFleets()) {
+            for (int i = 0; i < 10; i++) {
+                fleets.save(new Fleet(UUID.randomUUID(), aFleet().starships(), start.plusSeconds(i)));
+            }
+            fleets.save(new Fleet(id, List.of(starShip("Millennium Falcon", 6, "100000")), start.plusSeconds(20)));
+            fleets.save(new Fleet(id, List.of(starShip("CR90 corvette", 600, "3000000")), start.plusSeconds(20)));
+        }
+
+        try (var fleets = openFleets()) {
+            FleetPage firstPage = fleets.find(FleetQuery.ALL.createdBetween(start.plusSeconds(2), start.plusSeconds(9)), null, 4);
+            FleetPage lastPage = fleets.find(FleetQuery.ALL.createdBetween(start.plusSeconds(2), start.plusSeconds(9)), firstPage.next(), 4);
+
+            assertThat(firstPage.fleets()).extracting(Fleet::createdAt)
+                    .containsExactly(start.plusSeconds(2), start.plusSeconds(3), start.plusSeconds(4), start.plusSeconds(5));
+            assertThat(lastPage.fleets()).extracting(Fleet::createdAt)
+                    .containsExactly(start.plusSeconds(6), start.plusSeconds(7), start.plusSeconds(8));
+            assertThat(lastPage.isLast()).isTrue();
+            assertThat(fleets.find(FleetQuery.ALL.withStarShip("CR90 corvette"), null, 10).fleets()).extracting(Fleet::id)
+                    .containsExactly(id);
+            assertThat(fleets.find(FleetQuery.ALL.withStarShip("Millennium Falcon"), null, 100).fleets()).hasSize(10);
+        }
+    }
+
+    @Test
+    void should_drop_the_superseded_records_on_compaction() throws IOException {
+        var id = UUID.randomUUID();
+        var otherFleet = aFleet();
+        try (var fleets = openFleets()) {
+            fleets.save(otherFleet);
+            for (int capacity = 1; capacity <= 100; capacity++) {
+                fleets.save(new Fleet(id, List.of(starShip("Millennium Falcon", capacity, "100000"))));
+            }
+            long sizeBeforeCompaction = Files.size(logFile());
+
+            fleets.compact();
+
+            assertThat(Files.size(logFile())).isLessThan(sizeBeforeCompaction / 10);
+            assertThat(fleets.garbageBytes()).isZero();
+            assertThat(fleets.getById(id).starships().get(0).passengersCapacity()).isEqualTo(100);
+            assertThat(fleets.getById(otherFleet.id())).isEqualTo(otherFleet);
+            var newFleet = fleets.save(aFleet());
+            assertThat(fleets.getById(newFleet.id())).isEqualTo(newFleet);
+        }
+    }
+
+    @Test
+    void should_leave_the_compaction_to_the_caller_when_its_interval_is_zero() {
+        try (var fleets = new FileFleets(logFile(), false, Duration.ZERO)) {
+            var fleet = fleets.save(aFleet());
+            fleets.save(fleet);
+
+            fleets.compact();
+
+            assertThat(fleets.garbageBytes()).isZero();
+            assertThat(fleets.getById(fleet.id())).isEqualTo(fleet);
+        }
+    }
+
+    @Test
+    void should_reject_a_negative_compaction_interval() {
+        assertThatThrownBy(() -> new FileFleets(logFile(), false, Duration.ofSeconds(-1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("compaction interval");
+    }
+
+    @Test
+    void should_drop_a_record_torn_by_a_crash() throws IOException {
+        Fleet intactFleet;
+        Fleet tornFleet;
+        try (var fleets = openFleets()) {
+            intactFleet = fleets.save(aFleet());
+            tornFleet = fleets.save(aFleet());
+        }
+        try (var log = FileChannel.open(logFile(), WRITE)) {
+            log.truncate(log.size() - 3);
+        }
+
+        try (var fleets = openFleets()) {
+            assertThat(fleets.getById(intactFleet.id())).isEqualTo(intactFleet);
+            assertThat(fleets.exists(tornFleet.id())).isFalse();
+
+            var newFleet = fleets.save(aFleet());
+            assertThat(fleets.getById(newFleet.id())).isEqualTo(newFleet);
+        }
+    }
+
+    @Test
+    void should_find_the_fleets_saved_beyond_the_memory_mapping_before_a_restart() throws IOException {
+        List<Fleet> savedFleets = new ArrayList<>();
+        try (var fleets = openFleetsMappingOnly(1024)) {
+            for (int i = 0; i < 100; i++) {
+                savedFleets.add(fleets.save(aFleet()));
+            }
+        }
+        long logSize = Files.size(logFile());
+
+        try (var fleets = openFleetsMappingOnly(1024)) {
+            assertThat(Files.size(logFile())).isEqualTo(logSize);
+            for (Fleet fleet : savedFleets) {
+                assertThat(fleets.getById(fleet.id())).isEqualTo(fleet);
+            }
+            assertThat(fleets.find(FleetQuery.ALL, null, 1000).fleets()).hasSize(savedFleets.size());
+        }
+        try (var log = FileChannel.open(logFile(), WRITE)) {
+            log.truncate(logSize - 3);
+        }
+
+        try (var fleets = openFleetsMappingOnly(1024)) {
+            assertThat(fleets.exists(savedFleets.get(98).id())).isTrue();
+            assertThat(fleets.exists(savedFleets.get(99).id())).isFalse();
+        }
+    }
+
+    private FileFleets openFleetsMappingOnly(int maxMappingSize) {
+        return new FileFleets(logFile(), false, Duration.ofHours(1), maxMappingSize);
+    }
+
+    private FileFleets openFleets() {
+        return new FileFleets(logFile(), false, Duration.ofHours(1));
+    }
+
+    private Path logFile() {
+        return directory.resolve("fleets.log");
+    }
+
+    private static Fleet aFleet() {
+        return new Fleet(List.of(
+                starShip("Millennium Falcon", 6, "100000"),
+                starShip("Mon Calamari Star Cruisers", 1200, "200000.5")));
+    }
+
+    private static StarShip starShip(String name, int passengersCapacity, String cargoCapacity) {
+        return new StarShip(name, passengersCapacity, new CargoCapacity(new BigDecimal(cargoCapacity)));
+    }
+}
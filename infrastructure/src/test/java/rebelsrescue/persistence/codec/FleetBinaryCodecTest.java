@@ -0,0 +1,166 @@
+package rebelsrescue.persistence.codec;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import rebelsrescue.fleet.CargoCapacity;
+import rebelsrescue.fleet.Fleet;
+import rebelsrescue.fleet.StarShip;
+import rebelsrescue.fleet.events.FleetAssembledEvent;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FleetBinaryCodecTest {
+
+    private static final List<String> NAMES = List.of(
+            "CR90 corvette", "Star Destroyer", "Millennium Falcon", "Y-wing", "X-wing", "Death Star",
+            "Executor", "Rebel transport", "EF76 Nebulon-B escort frigate", "Calamari Cruiser", "A-wing");
+
+    private final FleetBinaryCodec codec = new FleetBinaryCodec();
+    private final Random random = new Random(1977);
+
+    @Test
+    void should_decode_the_encoded_fleets() {
+        for (int i = 0; i < 10_000; i++) {
+            Fleet fleet = randomFleet();
+            ByteBuffer buffer = ByteBuffer.allocate(codec.maxEncodedSize(fleet));
+            codec.writeFleet(fleet, buffer);
+
+            assertThat(codec.readFleet(buffer.flip())).isEqualTo(fleet);
+            assertThat(buffer.hasRemaining()).isFalse();
+        }
+    }
+
+    @Test
+    void should_decode_the_encoded_cargo_capacities() {
+        for (int i = 0; i < 10_000; i++) {
+            CargoCapacity cargoCapacity = randomCargoCapacity();
+            ByteBuffer buffer = ByteBuffer.allocate(codec.maxEncodedSize(cargoCapacity));
+            codec.writeCargoCapacity(cargoCapacity, buffer);
+
+            assertThat(codec.readCargoCapacity(buffer.flip())).isEqualTo(cargoCapacity);
+        }
+    }
+
+    @Test
+    void should_decode_the_encoded_starships_with_any_name() {
+        for (String name : List.of("Slave I", "Ébène", "星際驅逐艦", "TIE 🚀 fighter", "\uD83D")) {
+            StarShip starShip = new StarShip(name, 6, CargoCapacity.of("110"));
+            ByteBuffer buffer = ByteBuffer.allocateDirect(codec.maxEncodedSize(starShip));
+            codec.writeStarShip(starShip, buffer);
+
+            String expectedName = name.equals("\uD83D") ? "?" : name;
+            assertThat(codec.readStarShip(buffer.flip())).isEqualTo(new StarShip(expectedName, 6, CargoCapacity.of("110")));
+        }
+    }
+
+    @Test
+    void should_decode_the_encoded_fleet_assembled_events() {
+        var event = new FleetAssembledEvent(UUID.randomUUID(), UUID.randomUUID(), 3, 1200, 1050,
+                Instant.ofEpochSecond(-random.nextInt(), 123_456_789));
+        ByteBuffer buffer = ByteBuffer.allocate(codec.maxEncodedSize(event));
+        codec.writeFleetAssembledEvent(event, buffer);
+
+        assertThat(codec.readFleetAssembledEvent(buffer.flip())).isEqualTo(event);
+    }
+
+    @Test
+    void should_share_the_decoded_starship_names() {
+        Fleet fleet = new Fleet(List.of(
+                new StarShip(new String("X-wing"), 1, CargoCapacity.of(110)),
+                new StarShip(new String("X-wing"), 1, CargoCapacity.of(110))));
+        ByteBuffer buffer = ByteBuffer.allocate(codec.maxEncodedSize(fleet));
+        codec.writeFleet(fleet, buffer);
+
+        Fleet first = codec.readFleet(buffer.flip());
+        Fleet second = codec.readFleet(buffer.rewind());
+
+        assertThat(first.starships().get(0).name()).isSameAs(first.starships().get(1).name());
+        assertThat(first.starships().get(0).name()).isSameAs(second.starships().get(0).name());
+    }
+
+    @Test
+    void should_peek_the_fleet_id_without_consuming_the_fleet() {
+        Fleet fleet = randomFleet();
+        ByteBuffer buffer = ByteBuffer.allocate(codec.maxEncodedSize(fleet));
+        codec.writeFleet(fleet, buffer);
+        buffer.flip();
+
+        assertThat(codec.peekFleetId(buffer)).isEqualTo(fleet.id());
+        assertThat(codec.readFleet(buffer)).isEqualTo(fleet);
+    }
+
+    @Test
+    void should_reject_another_format_version() {
+        Fleet fleet = randomFleet();
+        ByteBuffer buffer = ByteBuffer.allocate(codec.maxEncodedSize(fleet));
+        codec.writeFleet(fleet, buffer);
+        buffer.put(1, (byte) (FleetBinaryCodec.FORMAT_VERSION + 1)).flip();
+
+        assertThatThrownBy(() -> codec.readFleet(buffer))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("version");
+    }
+
+    @Test
+    void should_reject_another_message_type() {
+        StarShip starShip = new StarShip("X-wing", 1, CargoCapacity.of(110));
+        ByteBuffer buffer = ByteBuffer.allocate(codec.maxEncodedSize(starShip));
+        codec.writeStarShip(starShip, buffer);
+
+        assertThatThrownBy(() -> codec.readFleet(buffer.flip())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void should_be_smaller_than_json() throws JsonProcessingException {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .addMixIn(CargoCapacity.class, CargoCapacityAsJson.class);
+        long jsonBytes = 0;
+        long binaryBytes = 0;
+        for (int i = 0; i < 20_000; i++) {
+            Fleet fleet = randomFleet();
+            jsonBytes += objectMapper.writeValueAsBytes(fleet).length;
+            ByteBuffer buffer = ByteBuffer.allocate(codec.maxEncodedSize(fleet));
+            codec.writeFleet(fleet, buffer);
+            binaryBytes += buffer.position();
+        }
+
+        assertThat(binaryBytes).isLessThan(jsonBytes / 3);
+    }
+
+    private abstract static class CargoCapacityAsJson {
+        @JsonValue
+        abstract BigDecimal value();
+    }
+
+    private Fleet randomFleet() {
+        int size = 1 + random.nextInt(random.nextInt(10) == 0 ? 40 : 5);
+        List<StarShip> starShips = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            starShips.add(new StarShip(NAMES.get(random.nextInt(NAMES.size())), random.nextInt(100_000), randomCargoCapacity()));
+        }
+        return new Fleet(starShips);
+    }
+
+    private CargoCapacity randomCargoCapacity() {
+        return switch (random.nextInt(5)) {
+            case 0 -> CargoCapacity.of(random.nextInt(1_000_000));
+            case 1 -> CargoCapacity.of(Math.abs(random.nextLong()));
+            case 2 -> new CargoCapacity(BigDecimal.valueOf(random.nextInt(1_000_000), random.nextInt(6)));
+            case 3 -> new CargoCapacity(BigDecimal.valueOf(random.nextInt(1_000), -random.nextInt(10)));
+            default -> new CargoCapacity(new BigDecimal(new BigInteger(100 + random.nextInt(100), random), random.nextInt(20) - 10));
+        };
+    }
+}
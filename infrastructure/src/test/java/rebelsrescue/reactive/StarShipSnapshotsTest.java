@@ -0,0 +1,89 @@
+package rebelsrescue.reactive;
+
+import org.junit.jupiter.api.Test;
+import rebelsrescue.MutableClock;
+import rebelsrescue.fleet.CargoCapacity;
+import rebelsrescue.fleet.StarShip;
+import rebelsrescue.fleet.StarShipColumns;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StarShipSnapshotsTest {
+
+    private static final List<StarShip> FIRST_LOAD = List.of(new StarShip("CR90 corvette", 600, CargoCapacity.of(3_000_000L)));
+    private static final List<StarShip> SECOND_LOAD = List.of(new StarShip("Slave 1", 6, CargoCapacity.of(70_000L)));
+
+    private final MutableClock clock = new MutableClock();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final AtomicReference<Flux<StarShip>> upstream = new AtomicReference<>();
+    private final StarShipSnapshots snapshots = new StarShipSnapshots(() -> {
+        loads.incrementAndGet();
+        return upstream.get();
+    }, Duration.ofMinutes(10), Duration.ofMinutes(2), clock);
+
+    @Test
+    void should_load_a_snapshot_of_columns_once_while_it_is_fresh() {
+        upstream.set(Flux.fromIterable(FIRST_LOAD));
+
+        var snapshot = snapshots.load().block();
+        clock.advance(Duration.ofMinutes(7));
+
+        assertThat(snapshot).isInstanceOf(StarShipColumns.class).isEqualTo(FIRST_LOAD);
+        assertThat(snapshots.load().block()).isSameAs(snapshot);
+        assertThat(snapshots.starShips()).isSameAs(snapshot);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void should_load_the_next_snapshot_ahead_of_expiry_without_waiting_for_it() {
+        upstream.set(Flux.fromIterable(FIRST_LOAD));
+        snapshots.load().block();
+        Sinks.Many<StarShip> pendingLoad = Sinks.many().unicast().onBackpressureBuffer();
+        upstream.set(pendingLoad.asFlux());
+        clock.advance(Duration.ofMinutes(8));
+
+        assertThat(snapshots.load().block()).as("served while the next one loads").isEqualTo(FIRST_LOAD);
+        assertThat(snapshots.load().block()).isEqualTo(FIRST_LOAD);
+        assertThat(loads).hasValue(2);
+
+        SECOND_LOAD.forEach(pendingLoad::tryEmitNext);
+        pendingLoad.tryEmitComplete();
+        assertThat(snapshots.load().block()).isEqualTo(SECOND_LOAD);
+    }
+
+    @Test
+    void should_serve_the_latest_snapshot_while_the_next_one_fails_to_load() {
+        upstream.set(Flux.fromIterable(FIRST_LOAD));
+        snapshots.load().block();
+        upstream.set(Flux.error(new IllegalStateException("SWAPI is down")));
+
+        clock.advance(Duration.ofMinutes(8));
+        assertThat(snapshots.load().block()).isEqualTo(FIRST_LOAD);
+        clock.advance(Duration.ofMinutes(3));
+        assertThat(snapshots.load().block()).as("expired, yet better than none").isEqualTo(FIRST_LOAD);
+        assertThat(loads).hasValue(3);
+
+        upstream.set(Flux.fromIterable(SECOND_LOAD));
+        clock.advance(Duration.ofMinutes(2));
+        assertThat(snapshots.load().block()).isEqualTo(SECOND_LOAD);
+    }
+
+    @Test
+    void should_fail_while_no_snapshot_could_be_loaded() {
+        upstream.set(Flux.error(new IllegalStateException("SWAPI is down")));
+
+        assertThatThrownBy(() -> snapshots.load().block()).hasMessage("SWAPI is down");
+        assertThatThrownBy(snapshots::starShips).isInstanceOf(IllegalStateException.class);
+
+        upstream.set(Flux.fromIterable(FIRST_LOAD));
+        assertThat(snapshots.load().block()).isEqualTo(FIRST_LOAD);
+    }
+}
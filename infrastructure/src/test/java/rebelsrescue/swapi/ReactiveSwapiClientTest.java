@@ -0,0 +1,113 @@
+package rebelsrescue.swapi;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import rebelsrescue.fleet.StarShip;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+/**
+ * Streams the starships of a local WireMock SWAPI whose pages answer with a fixed latency, in both fetch modes.
+ */
+class ReactiveSwapiClientTest {
+
+    private static final int NUMBER_OF_PAGES = 6;
+    private static final int PAGE_SIZE = 10;
+    private static final int PAGE_LATENCY_MILLIS = 200;
+
+    private final WireMockServer mockSwapi = new WireMockServer(wireMockConfig().dynamicPort());
+
+    @BeforeEach
+    void startMockSwapi() {
+        mockSwapi.start();
+        for (int page = 1; page <= NUMBER_OF_PAGES; page++) {
+            var request = page == 1
+                    ? get(urlPathEqualTo("/api/starships"))
+                    : get(urlPathEqualTo("/api/starships/")).withQueryParam("page", equalTo(String.valueOf(page)));
+            mockSwapi.stubFor(request.willReturn(aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", APPLICATION_JSON_VALUE)
+                    .withFixedDelay(PAGE_LATENCY_MILLIS)
+                    .withBody(page(page))));
+        }
+    }
+
+    @AfterEach
+    void stopMockSwapi() {
+        mockSwapi.stop();
+    }
+
+    @Test
+    void should_stream_the_same_starships_as_the_blocking_client_in_both_modes() {
+        List<StarShip> blockingStarShips;
+        try (var blockingClient = new SwapiClient(new RestTemplateBuilder(), mockSwapi.baseUrl(), SwapiFetchMode.SEQUENTIAL, 1)) {
+            blockingStarShips = blockingClient.starShips();
+        }
+
+        List<StarShip> sequentialStarShips = swapiClient(SwapiFetchMode.SEQUENTIAL).starShips().collectList().block();
+        List<StarShip> parallelStarShips = swapiClient(SwapiFetchMode.PARALLEL).starShips().collectList().block();
+
+        assertThat(sequentialStarShips).hasSize(NUMBER_OF_PAGES * PAGE_SIZE).containsExactlyElementsOf(blockingStarShips);
+        assertThat(parallelStarShips).containsExactlyElementsOf(blockingStarShips);
+    }
+
+    @Test
+    void should_hand_over_the_starships_of_the_first_page_before_fetching_the_next_ones() {
+        List<StarShip> firstStarShips = swapiClient(SwapiFetchMode.SEQUENTIAL).starShips().take(PAGE_SIZE).collectList().block();
+
+        assertThat(firstStarShips).hasSize(PAGE_SIZE);
+        assertThat(mockSwapi.getAllServeEvents()).hasSize(1);
+    }
+
+    @Test
+    void should_load_the_remaining_pages_concurrently() {
+        long start = System.nanoTime();
+        swapiClient(SwapiFetchMode.PARALLEL).starShips().blockLast();
+        long parallelMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // first page, then the five remaining pages at once
+        assertThat(parallelMillis).isLessThan(4L * PAGE_LATENCY_MILLIS);
+    }
+
+    @Test
+    void should_fail_the_stream_when_a_page_cannot_be_fetched() {
+        mockSwapi.stubFor(get(urlPathEqualTo("/api/starships/")).withQueryParam("page", equalTo("3"))
+                .willReturn(aResponse().withStatus(503)));
+
+        assertThatThrownBy(() -> swapiClient(SwapiFetchMode.SEQUENTIAL).starShips().blockLast())
+                .isInstanceOf(WebClientResponseException.ServiceUnavailable.class);
+    }
+
+    private ReactiveSwapiClient swapiClient(SwapiFetchMode fetchMode) {
+        return new ReactiveSwapiClient(WebClient.builder(), mockSwapi.baseUrl(), fetchMode, NUMBER_OF_PAGES - 1);
+    }
+
+    private String page(int page) {
+        var next = page < NUMBER_OF_PAGES ? "\"%s/api/starships/?page=%d\"".formatted(mockSwapi.baseUrl(), page + 1) : "null";
+        var results = IntStream.range(0, PAGE_SIZE)
+                .map(index -> (page - 1) * PAGE_SIZE + index)
+                .mapToObj(shipNumber -> """
+                        {"name": "Ship %d", "passengers": "%d", "cargo_capacity": "%d", "crew": "1"}"""
+                        .formatted(shipNumber, shipNumber + 1, 1_000 * shipNumber))
+                .collect(Collectors.joining(","));
+        return """
+                {"count": %d, "next": %s, "previous": null, "results": [%s]}"""
+                .formatted(NUMBER_OF_PAGES * PAGE_SIZE, next, results);
+    }
+}
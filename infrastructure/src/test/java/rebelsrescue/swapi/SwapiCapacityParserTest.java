@@ -0,0 +1,141 @@
+package rebelsrescue.swapi;
+
+import org.junit.jupiter.api.Test;
+import rebelsrescue.fleet.CargoCapacity;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static rebelsrescue.swapi.SwapiCapacityParser.UNKNOWN_PASSENGERS;
+import static rebelsrescue.swapi.SwapiCapacityParser.parseCargoCapacity;
+import static rebelsrescue.swapi.SwapiCapacityParser.parsePassengers;
+
+class SwapiCapacityParserTest {
+
+    private static final List<String> INVALID_CAPACITY_VALUES = List.of("n/a", "unknown");
+    private static final String FUZZ_ALPHABET = "0123456789000,,..--++eE n/aunknown";
+
+    private final Random random = new Random(1977);
+
+    @Test
+    void should_parse_the_passengers() {
+        assertThat(parsePassengers("600")).isEqualTo(600);
+        assertThat(parsePassengers("843,342")).isEqualTo(843_342);
+        assertThat(parsePassengers("0")).isZero();
+        assertThat(parsePassengers("30-165")).isEqualTo(30);
+        assertThat(parsePassengers("1,000-2,000")).isEqualTo(1_000);
+        assertThat(parsePassengers("n/a")).isEqualTo(UNKNOWN_PASSENGERS);
+        assertThat(parsePassengers("unknown")).isEqualTo(UNKNOWN_PASSENGERS);
+        assertThat(parsePassengers("30-")).isEqualTo(UNKNOWN_PASSENGERS);
+        assertThat(parsePassengers("-5")).isEqualTo(UNKNOWN_PASSENGERS);
+        assertThat(parsePassengers("2147483648")).isEqualTo(UNKNOWN_PASSENGERS);
+        assertThat(parsePassengers("")).isEqualTo(UNKNOWN_PASSENGERS);
+        assertThat(parsePassengers((String) null)).isEqualTo(UNKNOWN_PASSENGERS);
+    }
+
+    @Test
+    void should_parse_the_cargo_capacities() {
+        assertThat(parseCargoCapacity("3000000")).isEqualTo(CargoCapacity.of("3000000"));
+        assertThat(parseCargoCapacity("1,000,000,000,000")).isEqualTo(CargoCapacity.of("1000000000000"));
+        assertThat(parseCargoCapacity("2.50")).isEqualTo(CargoCapacity.of("2.50"));
+        assertThat(parseCargoCapacity("123456789012345678901234567890")).isEqualTo(CargoCapacity.of("123456789012345678901234567890"));
+        assertThat(parseCargoCapacity("1e6")).isEqualTo(CargoCapacity.of("1e6"));
+        assertThat(parseCargoCapacity("100-200")).isEqualTo(CargoCapacity.of("100"));
+        assertThat(parseCargoCapacity("unknown")).isNull();
+        assertThat(parseCargoCapacity("none")).isNull();
+        assertThat(parseCargoCapacity("-5")).isNull();
+        assertThat(parseCargoCapacity(".")).isNull();
+        assertThat(parseCargoCapacity((String) null)).isNull();
+    }
+
+    @Test
+    void should_parse_the_passengers_like_the_previous_implementation() {
+        for (int i = 0; i < 200_000; i++) {
+            String value = randomCapacity();
+            Integer expected = previousPassengersParsing(value);
+            int actual = parsePassengers(value);
+
+            if (expected != null && expected >= 0) {
+                assertThat(actual).as(value).isEqualTo(expected);
+            } else if (!value.contains("-")) {
+                assertThat(actual).as(value).isEqualTo(UNKNOWN_PASSENGERS);
+            }
+        }
+    }
+
+    @Test
+    void should_parse_the_cargo_capacities_like_the_previous_implementation() {
+        for (int i = 0; i < 200_000; i++) {
+            String value = randomCapacity();
+            BigDecimal expected = previousCargoCapacityParsing(value);
+            CargoCapacity actual = parseCargoCapacity(value);
+
+            if (expected != null && expected.signum() >= 0) {
+                assertThat(actual).as(value).isEqualTo(new CargoCapacity(expected));
+            } else if (!value.contains("-") && !value.contains(",")) {
+                assertThat(actual).as(value).isNull();
+            }
+        }
+    }
+
+    @Test
+    void should_parse_the_passengers_without_allocating() {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        char[] chars = "{\"passengers\": \"843,342\"}".toCharArray();
+        long sum = 0;
+        for (int i = 0; i < 100_000; i++) {
+            sum += parsePassengers(chars, 16, 7);
+        }
+
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 100_000; i++) {
+            sum += parsePassengers(chars, 16, 7);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        assertThat(sum).isEqualTo(200_000L * 843_342);
+        assertThat(allocated).isLessThan(1024);
+    }
+
+    private String randomCapacity() {
+        return switch (random.nextInt(10)) {
+            case 0 -> INVALID_CAPACITY_VALUES.get(random.nextInt(INVALID_CAPACITY_VALUES.size()));
+            case 1 -> String.valueOf(random.nextLong());
+            case 2 -> "%,d".formatted(Math.abs(random.nextLong()));
+            case 3 -> "%d-%d".formatted(random.nextInt(1_000), random.nextInt(1_000));
+            case 4 -> new BigDecimal(random.nextLong()).movePointLeft(random.nextInt(30)).toString();
+            default -> {
+                StringBuilder value = new StringBuilder();
+                for (int length = random.nextInt(25); length > 0; length--) {
+                    value.append(FUZZ_ALPHABET.charAt(random.nextInt(FUZZ_ALPHABET.length())));
+                }
+                yield value.toString();
+            }
+        };
+    }
+
+    private static Integer previousPassengersParsing(String value) {
+        if (INVALID_CAPACITY_VALUES.contains(value)) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(value.replaceAll(",", ""));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static BigDecimal previousCargoCapacityParsing(String value) {
+        if (INVALID_CAPACITY_VALUES.contains(value)) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
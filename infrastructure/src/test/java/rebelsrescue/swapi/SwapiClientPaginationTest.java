@@ -0,0 +1,139 @@
+package rebelsrescue.swapi;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import rebelsrescue.fleet.StarShip;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+/**
+ * Runs both fetch modes against a local WireMock SWAPI, which can hold the remaining pages until they are all asked.
+ */
+class SwapiClientPaginationTest {
+
+    private static final int NUMBER_OF_PAGES = 6;
+    private static final int PAGE_SIZE = 10;
+
+    private final RemainingPagesGate remainingPagesGate = new RemainingPagesGate();
+    private final WireMockServer mockSwapi = new WireMockServer(wireMockConfig().dynamicPort().extensions(remainingPagesGate));
+
+    @BeforeEach
+    void startMockSwapi() {
+        mockSwapi.start();
+        for (int page = 1; page <= NUMBER_OF_PAGES; page++) {
+            var request = page == 1
+                    ? get(urlPathEqualTo("/api/starships"))
+                    : get(urlPathEqualTo("/api/starships/")).withQueryParam("page", equalTo(String.valueOf(page)));
+            mockSwapi.stubFor(request.willReturn(aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", APPLICATION_JSON_VALUE)
+                    .withBody(page(page))));
+        }
+    }
+
+    @AfterEach
+    void stopMockSwapi() {
+        mockSwapi.stop();
+    }
+
+    @Test
+    void should_fetch_the_same_starships_in_the_same_order_in_both_modes() {
+        try (var sequentialClient = swapiClient(SwapiFetchMode.SEQUENTIAL);
+             var parallelClient = swapiClient(SwapiFetchMode.PARALLEL)) {
+
+            List<StarShip> sequentialStarShips = sequentialClient.starShips();
+            List<StarShip> parallelStarShips = parallelClient.starShips();
+
+            assertThat(sequentialStarShips).hasSize(NUMBER_OF_PAGES * PAGE_SIZE);
+            assertThat(parallelStarShips).containsExactlyElementsOf(sequentialStarShips);
+        }
+    }
+
+    @Test
+    void should_load_the_remaining_pages_concurrently() {
+        remainingPagesGate.hold();
+        try (var parallelClient = swapiClient(SwapiFetchMode.PARALLEL)) {
+
+            assertThat(parallelClient.starShips()).hasSize(NUMBER_OF_PAGES * PAGE_SIZE);
+            assertThat(remainingPagesGate.requestedAtOnce()).isTrue();
+        }
+    }
+
+    private SwapiClient swapiClient(SwapiFetchMode fetchMode) {
+        return new SwapiClient(new RestTemplateBuilder(), mockSwapi.baseUrl(), fetchMode, NUMBER_OF_PAGES - 1);
+    }
+
+    private String page(int page) {
+        var next = page < NUMBER_OF_PAGES ? "\"%s/api/starships/?page=%d\"".formatted(mockSwapi.baseUrl(), page + 1) : "null";
+        var results = IntStream.range(0, PAGE_SIZE)
+                .map(index -> (page - 1) * PAGE_SIZE + index)
+                .mapToObj(shipNumber -> """
+                        {"name": "Ship %d", "passengers": "%d", "cargo_capacity": "%d", "crew": "1"}"""
+                        .formatted(shipNumber, shipNumber + 1, 1_000 * shipNumber))
+                .collect(Collectors.joining(","));
+        return """
+                {"count": %d, "next": %s, "previous": null, "results": [%s]}"""
+                .formatted(NUMBER_OF_PAGES * PAGE_SIZE, next, results);
+    }
+
+    /**
+     * Once holding, answers none of the remaining pages until all of them were requested, which only happens when
+     * they are requested at once. Gives up after a while, so that a sequential fetch fails the test instead of hanging.
+     */
+    private static final class RemainingPagesGate extends ResponseDefinitionTransformer {
+        private final CountDownLatch remainingPages = new CountDownLatch(NUMBER_OF_PAGES - 1);
+        private final AtomicBoolean gaveUp = new AtomicBoolean();
+        private volatile boolean holding;
+
+        void hold() {
+            holding = true;
+        }
+
+        boolean requestedAtOnce() {
+            return remainingPages.getCount() == 0 && !gaveUp.get();
+        }
+
+        @Override
+        public ResponseDefinition transform(Request request, ResponseDefinition responseDefinition, FileSource files,
+                                            Parameters parameters) {
+            if (holding && request.queryParameter("page").isPresent()) {
+                remainingPages.countDown();
+                try {
+                    if (!remainingPages.await(5, SECONDS)) {
+                        gaveUp.set(true);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    gaveUp.set(true);
+                }
+            }
+            return responseDefinition;
+        }
+
+        @Override
+        public String getName() {
+            return "remaining-pages-gate";
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package rebelsrescue.swapi;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.containing;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+/**
+ * Fetches a large SWAPI page from a local WireMock, which gzips responses when asked to.
+ */
+class SwapiHttpTransportTest {
+
+    private static final int PAGE_SIZE = 500;
+
+    private final WireMockServer mockSwapi = new WireMockServer(wireMockConfig().dynamicPort());
+    private final String page = page();
+
+    @BeforeEach
+    void startMockSwapi() {
+        mockSwapi.start();
+        mockSwapi.stubFor(get(urlPathEqualTo("/api/starships")).willReturn(aResponse()
+                .withStatus(200)
+                .withHeader("Content-Type", APPLICATION_JSON_VALUE)
+                .withBody(page)));
+    }
+
+    @AfterEach
+    void stopMockSwapi() {
+        mockSwapi.stop();
+    }
+
+    @Test
+    void should_reuse_the_pooled_connection_between_page_fetches() {
+        try (var transport = new SwapiHttpTransport(settings(true, Duration.ofSeconds(5)));
+             var swapiClient = swapiClient(transport)) {
+
+            for (int fetch = 0; fetch < 5; fetch++) {
+                assertThat(swapiClient.starShips()).hasSize(PAGE_SIZE);
+            }
+
+            assertThat(transport.exchanges()).isEqualTo(5);
+            assertThat(transport.exchangeTime()).isPositive();
+            assertThat(transport.leasedConnections()).isZero();
+            assertThat(transport.availableConnections()).isEqualTo(1);
+            assertThat(transport.maxConnections()).isEqualTo(4);
+        }
+    }
+
+    @Test
+    void should_receive_gzipped_pages() {
+        try (var compressingTransport = new SwapiHttpTransport(settings(true, Duration.ofSeconds(5)));
+             var plainTransport = new SwapiHttpTransport(settings(false, Duration.ofSeconds(5)));
+             var compressingClient = swapiClient(compressingTransport);
+             var plainClient = swapiClient(plainTransport)) {
+
+            assertThat(compressingClient.starShips()).containsExactlyElementsOf(plainClient.starShips());
+
+            mockSwapi.verify(getRequestedFor(urlPathEqualTo("/api/starships")).withHeader("Accept-Encoding", containing("gzip")));
+            assertThat(plainTransport.bytesReceived()).isEqualTo(page.length());
+            assertThat(compressingTransport.bytesReceived()).isLessThan(page.length() / 5);
+        }
+    }
+
+    @Test
+    void should_give_up_on_a_page_slower_than_the_read_timeout() {
+        mockSwapi.stubFor(get(urlPathEqualTo("/api/starships")).willReturn(aResponse()
+                .withStatus(200)
+                .withHeader("Content-Type", APPLICATION_JSON_VALUE)
+                .withFixedDelay(1_000)
+                .withBody(page)));
+
+        try (var transport = new SwapiHttpTransport(settings(true, Duration.ofMillis(200)));
+             var swapiClient = swapiClient(transport)) {
+
+            assertThatThrownBy(swapiClient::starShips).isInstanceOf(ResourceAccessException.class);
+        }
+    }
+
+    @Test
+    void should_reject_more_connections_per_route_than_in_total() {
+        assertThatThrownBy(() -> new SwapiHttpTransport.Settings(4, 5, Duration.ofSeconds(1), Duration.ofSeconds(1),
+                Duration.ofSeconds(1), Duration.ofSeconds(1), true))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static SwapiHttpTransport.Settings settings(boolean compression, Duration readTimeout) {
+        return new SwapiHttpTransport.Settings(4, 2, Duration.ofSeconds(1), Duration.ofSeconds(1), readTimeout,
+                Duration.ofSeconds(30), compression);
+    }
+
+    private SwapiClient swapiClient(SwapiHttpTransport transport) {
+        return new SwapiClient(new RestTemplateBuilder().requestFactory(transport::requestFactory), mockSwapi.baseUrl(),
+                SwapiFetchMode.SEQUENTIAL, 1);
+    }
+
+    private static String page() {
+        var results = IntStream.range(0, PAGE_SIZE)
+                .mapToObj(shipNumber -> """
+                        {"name": "Ship %d", "passengers": "%d", "cargo_capacity": "%d", "crew": "1"}"""
+                        .formatted(shipNumber, shipNumber + 1, 1_000 * shipNumber))
+                .collect(Collectors.joining(","));
+        return """
+                {"count": %d, "next": null, "previous": null, "results": [%s]}"""
+                .formatted(PAGE_SIZE, results);
+    }
+}
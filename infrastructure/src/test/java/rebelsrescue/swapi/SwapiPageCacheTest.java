@@ -0,0 +1,153 @@
+package rebelsrescue.swapi;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.http.Fault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.web.client.ResourceAccessException;
+import rebelsrescue.fleet.CargoCapacity;
+import rebelsrescue.fleet.StarShip;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+/**
+ * Fetches pages from a local WireMock SWAPI answering conditional requests, through an on-disk page cache.
+ */
+class SwapiPageCacheTest {
+
+    private static final String LAST_MODIFIED = "Wed, 25 May 1977 12:00:00 GMT";
+
+    private final WireMockServer mockSwapi = new WireMockServer(wireMockConfig().dynamicPort());
+
+    @TempDir
+    private Path cacheDirectory;
+
+    @BeforeEach
+    void startMockSwapi() {
+        mockSwapi.start();
+    }
+
+    @AfterEach
+    void stopMockSwapi() {
+        mockSwapi.stop();
+    }
+
+    @Test
+    void should_reuse_the_cached_page_when_swapi_answers_not_modified() {
+        stubPage("\"v1\"", page("X-wing", 1));
+        mockSwapi.stubFor(get(urlPathEqualTo("/api/starships"))
+                .withHeader("If-None-Match", equalTo("\"v1\""))
+                .withHeader("If-Modified-Since", equalTo(LAST_MODIFIED))
+                .atPriority(1)
+                .willReturn(aResponse().withStatus(304)));
+
+        SwapiClient swapiClient = swapiClient();
+        List<StarShip> downloaded = swapiClient.starShips();
+        List<StarShip> revalidated = swapiClient.starShips();
+
+        assertThat(downloaded).containsExactly(new StarShip("X-wing", 1, CargoCapacity.of(110)));
+        assertThat(revalidated).isEqualTo(downloaded);
+        mockSwapi.verify(2, getRequestedFor(urlPathEqualTo("/api/starships")));
+        mockSwapi.verify(1, getRequestedFor(urlPathEqualTo("/api/starships")).withHeader("If-None-Match", equalTo("\"v1\"")));
+    }
+
+    @Test
+    void should_start_from_the_cached_pages_after_a_restart_then_revalidate_them() {
+        stubPage("\"v1\"", page("X-wing", 1));
+        List<StarShip> downloaded = swapiClient().starShips();
+        stubPage("\"v2\"", page("Y-wing", 2));
+
+        // as after a restart, with only the files left
+        SwapiClient restartedSwapiClient = swapiClient();
+
+        assertThat(restartedSwapiClient.starShips()).isEqualTo(downloaded);
+        mockSwapi.verify(1, getRequestedFor(urlPathEqualTo("/api/starships")));
+        assertThat(restartedSwapiClient.starShips()).containsExactly(new StarShip("Y-wing", 2, CargoCapacity.of(110)));
+        mockSwapi.verify(1, getRequestedFor(urlPathEqualTo("/api/starships")).withHeader("If-None-Match", equalTo("\"v1\"")));
+    }
+
+    @Test
+    void should_replace_the_cached_page_when_it_changed() {
+        SwapiClient swapiClient = swapiClient();
+        stubPage("\"v1\"", page("X-wing", 1));
+        swapiClient.starShips();
+
+        stubPage("\"v2\"", page("Y-wing", 2));
+        assertThat(swapiClient.starShips()).containsExactly(new StarShip("Y-wing", 2, CargoCapacity.of(110)));
+
+        mockSwapi.stop();
+        assertThat(swapiClient.starShips()).containsExactly(new StarShip("Y-wing", 2, CargoCapacity.of(110)));
+    }
+
+    @Test
+    void should_use_the_cached_page_when_swapi_is_unreachable() {
+        SwapiClient swapiClient = swapiClient();
+        stubPage("\"v1\"", page("X-wing", 1));
+        List<StarShip> downloaded = swapiClient.starShips();
+
+        mockSwapi.stop();
+
+        assertThat(swapiClient.starShips()).isEqualTo(downloaded);
+    }
+
+    @Test
+    void should_use_the_cached_page_when_swapi_fails() {
+        SwapiClient swapiClient = swapiClient();
+        stubPage("\"v1\"", page("X-wing", 1));
+        List<StarShip> downloaded = swapiClient.starShips();
+
+        mockSwapi.stubFor(get(urlPathEqualTo("/api/starships")).willReturn(aResponse().withStatus(503)));
+
+        assertThat(swapiClient.starShips()).isEqualTo(downloaded);
+    }
+
+    @Test
+    void should_not_cache_a_page_whose_download_failed() throws IOException {
+        mockSwapi.stubFor(get(urlPathEqualTo("/api/starships")).willReturn(aResponse()
+                .withHeader("ETag", "\"v1\"")
+                .withFault(Fault.MALFORMED_RESPONSE_CHUNK)));
+
+        assertThatThrownBy(swapiClient()::starShips).isInstanceOf(ResourceAccessException.class);
+        try (var files = Files.list(cacheDirectory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    private void stubPage(String etag, String body) {
+        mockSwapi.stubFor(get(urlPathEqualTo("/api/starships")).willReturn(aResponse()
+                .withStatus(200)
+                .withHeader("Content-Type", APPLICATION_JSON_VALUE)
+                .withHeader("ETag", etag)
+                .withHeader("Last-Modified", LAST_MODIFIED)
+                .withBody(body)));
+    }
+
+    private SwapiClient swapiClient() {
+        return new SwapiClient(new RestTemplateBuilder(), new SwapiPageCache(cacheDirectory), mockSwapi.baseUrl(),
+                SwapiFetchMode.SEQUENTIAL, 1, false);
+    }
+
+    private static String page(String name, int passengers) {
+        return """
+                {"count": 1, "next": null, "previous": null, "results": [
+                  {"name": "%s", "passengers": "%d", "cargo_capacity": "110"}
+                ]}
+                """.formatted(name, passengers);
+    }
+}
@@ -0,0 +1,89 @@
+package rebelsrescue.swapi;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import org.junit.jupiter.api.Test;
+import rebelsrescue.fleet.CargoCapacity;
+import rebelsrescue.fleet.StarShip;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SwapiPageParserTest {
+
+    private final SwapiPageParser parser = new SwapiPageParser();
+
+    @Test
+    void should_keep_only_the_starships_with_known_capacities() throws IOException {
+        List<StarShip> starShips = new ArrayList<>();
+
+        SwapiPage page = parser.parse(getClass().getResourceAsStream("/__files/payloads/swapi-page1.json"), starShips::add);
+
+        assertThat(page).isEqualTo(new SwapiPage(3, "http://swapi/api/starships/?page=2", 3));
+        assertThat(starShips).containsExactly(new StarShip("CR90 corvette", 600, CargoCapacity.of("3000000")));
+    }
+
+    @Test
+    void should_skip_unused_fields_whatever_their_order_and_shape() throws IOException {
+        List<StarShip> starShips = new ArrayList<>();
+
+        SwapiPage page = parser.parse(json("""
+                {
+                  "results": [
+                    {
+                      "pilots": [{"name": "Han Solo", "films": [[]]}],
+                      "cargo_capacity": "100000",
+                      "specs": {"passengers": "1", "name": "nested"},
+                      "passengers": "1,006",
+                      "name": "Millennium Falcon"
+                    },
+                    {"name": "Unknown", "passengers": "unknown", "cargo_capacity": "0"},
+                    {"name": "No cargo", "passengers": "10", "cargo_capacity": null},
+                    {"name": "No passengers", "cargo_capacity": "10"}
+                  ],
+                  "previous": "http://swapi/api/starships/?page=1",
+                  "count": 4,
+                  "next": null
+                }"""), starShips::add);
+
+        assertThat(page).isEqualTo(new SwapiPage(4, null, 4));
+        assertThat(starShips).containsExactly(new StarShip("Millennium Falcon", 1006, CargoCapacity.of("100000")));
+    }
+
+    @Test
+    void should_stream_large_pages() throws IOException {
+        int size = 200_000;
+        InputStream body = new SequenceInputStream(Collections.enumeration(IntStream.rangeClosed(0, size + 1)
+                .mapToObj(i -> i == 0 ? json("{\"count\": %d, \"results\": [".formatted(size))
+                        : i > size ? json("], \"next\": null}")
+                        : json((i > 1 ? "," : "") + "{\"name\": \"ship %d\", \"passengers\": \"%d\", \"cargo_capacity\": \"100000\", \"films\": [\"a\", \"b\"]}".formatted(i, i)))
+                .toList()));
+        var count = new int[1];
+
+        SwapiPage page = parser.parse(body, starShip -> count[0]++);
+
+        assertThat(page).isEqualTo(new SwapiPage(size, null, size));
+        assertThat(count[0]).isEqualTo(size);
+    }
+
+    @Test
+    void should_reject_a_body_that_is_not_a_page() {
+        assertThatThrownBy(() -> parser.parse(json("[]"), starShip -> {
+        })).isInstanceOf(JsonParseException.class);
+        assertThatThrownBy(() -> parser.parse(json("{\"results\": [\"CR90\"]}"), starShip -> {
+        })).isInstanceOf(JsonParseException.class);
+    }
+
+    private static InputStream json(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}